@@ -29,13 +29,20 @@ import com.google.inject.Injector;
 import com.google.inject.Singleton;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.name.Names;
+import io.netty.buffer.ByteBufAllocator;
 import ratpack.codahale.metrics.internal.*;
+import ratpack.exec.ExecController;
 import ratpack.func.Action;
 import ratpack.guice.HandlerDecoratingModule;
 import ratpack.guice.internal.GuiceUtil;
 import ratpack.handling.Handler;
+import ratpack.http.client.HttpClientSsl;
+import ratpack.http.client.internal.HostResolver;
+import ratpack.registry.Registry;
+import ratpack.server.internal.ConnectionCounter;
 
 import java.io.File;
+import java.util.Optional;
 
 /**
  * An extension module that provides support for Coda Hale's Metrics.
@@ -79,6 +86,10 @@ import java.io.File;
  * registered first in the modules list to ensure that <b>all</b> handlers are included in the metric.
  * </p>
  * <p>
+ * The request timers use Coda Hale's default exponentially decaying reservoir, which samples values.
+ * To record every request latency into lock free HdrHistogram recorders instead, see {@link #hdrHistogram()}.
+ * </p>
+ * <p>
  * Additional custom metrics can be registered with the provided {@link MetricRegistry} instance
  * </p>
  * <p>
@@ -172,9 +183,11 @@ public class CodaHaleMetricsModule extends AbstractModule implements HandlerDeco
   private boolean jvmMetricsEnabled;
   private boolean reportMetricsToWebsocket;
   private boolean metricsEnabled;
+  private boolean hdrHistogramEnabled;
+  private boolean runtimeMetricsEnabled;
 
   private boolean isMetricsEnabled() {
-    return metricsEnabled || jvmMetricsEnabled || reportMetricsToConsole || reportMetricsToWebsocket || reportMetricsToJmx || csvReportDirectory != null;
+    return metricsEnabled || hdrHistogramEnabled || runtimeMetricsEnabled || jvmMetricsEnabled || reportMetricsToConsole || reportMetricsToWebsocket || reportMetricsToJmx || csvReportDirectory != null;
   }
 
   @Override
@@ -192,6 +205,8 @@ public class CodaHaleMetricsModule extends AbstractModule implements HandlerDeco
       requestInjection(timedMethodInterceptor);
       bindInterceptor(Matchers.any(), Matchers.annotatedWith(Timed.class), timedMethodInterceptor);
 
+      bind(MetricRegistryPrometheusEncoder.class).in(Singleton.class);
+
       GaugeTypeListener gaugeTypeListener = new GaugeTypeListener(metricRegistry);
       bindListener(Matchers.any(), gaugeTypeListener);
 
@@ -238,6 +253,22 @@ public class CodaHaleMetricsModule extends AbstractModule implements HandlerDeco
     return this;
   }
 
+  /**
+   * Enables the recording of request timings into HdrHistogram backed timers.  The collecting of metrics will also be enabled.
+   * <p>
+   * Each thread records into its own histogram recorder without locking or allocating.
+   * The recorders are merged when a reporter takes a snapshot, so the reported percentiles (including the 99th and 99.9th) and
+   * maximum reflect every request recorded since startup rather than a decaying sample.
+   * The timers are reported through all of the configured reporters like any other {@link com.codahale.metrics.Timer}.
+   *
+   * @return this {@code CodaHaleMetricsModule}
+   * @see <a href="http://hdrhistogram.org/" target="_blank">HdrHistogram</a>
+   */
+  public CodaHaleMetricsModule hdrHistogram() {
+    this.hdrHistogramEnabled = true;
+    return this;
+  }
+
   /**
    * Enables the automatic registering of health checks.
    *
@@ -260,16 +291,35 @@ public class CodaHaleMetricsModule extends AbstractModule implements HandlerDeco
    *
    * @return this {@code CodaHaleMetricsModule}
    * @see <a href="http://metrics.codahale.com/manual/jvm/" target="_blank">Coda Hale Metrics - JVM Instrumentation</a>
+   * @see #runtimeMetrics()
    */
   public CodaHaleMetricsModule jvmMetrics() {
     this.jvmMetricsEnabled = true;
     return this;
   }
 
+  /**
+   * Enable the collection of Ratpack runtime metrics.
+   * <p>
+   * Gauges are registered to this module's Metric Registry for the pending tasks of each event loop, the blocking thread pool,
+   * the executions in flight, the rate of execution segments, the number of open connections, direct buffer memory usage
+   * and the host name lookups (including the mean resolution time) and TLS handshakes (including the session resumption rate)
+   * of the {@link ratpack.http.client.HttpClient}.
+   * They are read from the {@link ratpack.exec.ExecController} and {@link io.netty.buffer.ByteBufAllocator} of the server.
+   *
+   * @return this {@code CodaHaleMetricsModule}
+   * @see #jvmMetrics()
+   */
+  public CodaHaleMetricsModule runtimeMetrics() {
+    this.runtimeMetricsEnabled = true;
+    return this;
+  }
+
   /**
    * Enable the reporting of metrics via web sockets.  The collecting of metrics will also be enabled.
    * <p>
    * To broadcast metrics within an application see {@link MetricsWebsocketBroadcastHandler}.
+   * To have metrics pulled instead, see {@link MetricsPrometheusHandler}.
    *
    * @return this {@code CodaHaleMetricsModule}
    * @see #console()
@@ -346,8 +396,20 @@ public class CodaHaleMetricsModule extends AbstractModule implements HandlerDeco
       metricRegistry.registerAll(new MemoryUsageGaugeSet());
     }
 
+    if (runtimeMetricsEnabled) {
+      final MetricRegistry metricRegistry = injector.getInstance(MetricRegistry.class);
+      Registry rootRegistry = injector.getInstance(Registry.class);
+      metricRegistry.registerAll(new RatpackRuntimeMetricSet(
+        rootRegistry.get(ExecController.class),
+        rootRegistry.get(ByteBufAllocator.class),
+        rootRegistry.maybeGet(ConnectionCounter.class),
+        rootRegistry.maybeGet(HostResolver.class),
+        Optional.of(injector.getInstance(HttpClientSsl.class))
+      ));
+    }
+
     if (isMetricsEnabled()) {
-      return new RequestTimingHandler(handler);
+      return new RequestTimingHandler(handler, hdrHistogramEnabled);
     } else {
       return handler;
     }
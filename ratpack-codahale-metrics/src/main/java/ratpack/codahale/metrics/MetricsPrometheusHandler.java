@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import ratpack.codahale.metrics.internal.MetricRegistryPrometheusEncoder;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+
+/**
+ * A Handler that serves the current metrics in the Prometheus text exposition format, for pull based collection.
+ * <p>
+ * This handler should be bound to an application path, and most likely only for the GET method…
+ * <pre class="java-chain-dsl">
+ * import ratpack.codahale.metrics.MetricsPrometheusHandler;
+ *
+ * chain instanceof ratpack.handling.Chain;
+ * chain.get("admin/metrics", new MetricsPrometheusHandler());
+ * </pre>
+ * <p>
+ * The registry is encoded straight into a pooled buffer on each request, with the encoded form of each metric name cached between requests.
+ * Timers are reported as summaries in seconds, meters as totals and counters as gauges.
+ * Gauges whose value is not a number or boolean are omitted.
+ */
+public class MetricsPrometheusHandler implements Handler {
+
+  /**
+   * The content type of the text exposition format: {@value}
+   */
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4";
+
+  @Override
+  public void handle(Context context) throws Exception {
+    MetricRegistry metricRegistry = context.get(MetricRegistry.class);
+    MetricRegistryPrometheusEncoder encoder = context.get(MetricRegistryPrometheusEncoder.class);
+    context.getResponse().send(CONTENT_TYPE, encoder.apply(metricRegistry));
+  }
+
+}
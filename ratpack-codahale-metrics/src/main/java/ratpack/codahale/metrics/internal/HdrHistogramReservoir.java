@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics.internal;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SingleWriterRecorder;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link Reservoir} that records every value into a per thread HdrHistogram recorder.
+ * <p>
+ * Recording is wait free and does not allocate once a thread's recorder has been created.
+ * The per thread recorders are merged into a cumulative histogram when a snapshot is taken,
+ * so the percentiles and maximum reported are exact to the configured precision rather than sampled.
+ * Once a thread has died, its recorder is merged one last time and dropped by the next snapshot, so short lived threads don't accumulate recorders.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+  private static final int SIGNIFICANT_VALUE_DIGITS = 2;
+
+  private final List<ThreadRecorder> recorders = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<SingleWriterRecorder> recorder = new ThreadLocal<SingleWriterRecorder>() {
+    @Override
+    protected SingleWriterRecorder initialValue() {
+      ThreadRecorder threadRecorder = new ThreadRecorder();
+      recorders.add(threadRecorder);
+      return threadRecorder.recorder;
+    }
+  };
+
+  private final Histogram total = new Histogram(SIGNIFICANT_VALUE_DIGITS);
+
+  @Override
+  public int size() {
+    return (int) Math.min(getSnapshotHistogram().getTotalCount(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void update(long value) {
+    recorder.get().recordValue(value);
+  }
+
+  @Override
+  public Snapshot getSnapshot() {
+    return new HdrHistogramSnapshot(getSnapshotHistogram());
+  }
+
+  private synchronized Histogram getSnapshotHistogram() {
+    for (ThreadRecorder threadRecorder : recorders) {
+      // Checked before taking the interval, so that nothing the thread recorded is lost when the recorder is dropped
+      boolean dead = threadRecorder.isDead();
+      total.add(threadRecorder.nextInterval());
+      if (dead) {
+        recorders.remove(threadRecorder);
+      }
+    }
+    return total.copy();
+  }
+
+  // A recorder only recycles interval histograms that it produced, so each keeps its own
+  private static class ThreadRecorder {
+    private final SingleWriterRecorder recorder = new SingleWriterRecorder(SIGNIFICANT_VALUE_DIGITS);
+    private final WeakReference<Thread> thread = new WeakReference<>(Thread.currentThread());
+    private Histogram interval;
+
+    private boolean isDead() {
+      Thread owner = thread.get();
+      return owner == null || !owner.isAlive();
+    }
+
+    private Histogram nextInterval() {
+      interval = recorder.getIntervalHistogram(interval);
+      return interval;
+    }
+  }
+
+}
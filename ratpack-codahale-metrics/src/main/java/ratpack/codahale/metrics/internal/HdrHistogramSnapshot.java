@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics.internal;
+
+import com.codahale.metrics.Snapshot;
+import com.google.common.primitives.Longs;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Snapshot} view over a merged HdrHistogram.
+ * <p>
+ * As a histogram does not retain individual samples, {@link #getValues()} returns one value per recorded bucket.
+ */
+public class HdrHistogramSnapshot extends Snapshot {
+
+  private final Histogram histogram;
+
+  public HdrHistogramSnapshot(Histogram histogram) {
+    super(new long[0]);
+    this.histogram = histogram;
+  }
+
+  @Override
+  public double getValue(double quantile) {
+    if (quantile < 0.0 || quantile > 1.0) {
+      throw new IllegalArgumentException(quantile + " is not in [0..1]");
+    }
+    return histogram.getValueAtPercentile(quantile * 100.0);
+  }
+
+  @Override
+  public int size() {
+    return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+  }
+
+  @Override
+  public long[] getValues() {
+    List<Long> values = new ArrayList<>();
+    for (HistogramIterationValue value : histogram.recordedValues()) {
+      values.add(value.getValueIteratedTo());
+    }
+    return Longs.toArray(values);
+  }
+
+  @Override
+  public long getMax() {
+    return histogram.getMaxValue();
+  }
+
+  @Override
+  public long getMin() {
+    return histogram.getMinValue();
+  }
+
+  @Override
+  public double getMean() {
+    return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+  }
+
+  @Override
+  public double getStdDev() {
+    return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+  }
+
+  @Override
+  public void dump(OutputStream output) {
+    try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+      for (HistogramIterationValue value : histogram.recordedValues()) {
+        out.printf("%d%n", value.getValueIteratedTo());
+      }
+    }
+  }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics.internal;
+
+import com.codahale.metrics.*;
+import com.google.inject.Inject;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.func.Function;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes a {@link MetricRegistry} in the Prometheus text exposition format.
+ * <p>
+ * The output is written directly into a single pooled buffer.
+ * Sanitized metric names are encoded once and cached until the metric is removed from the registry,
+ * and numbers are written digit by digit, so that no intermediate strings are built per scrape.
+ * Durations are reported in seconds.
+ * <p>
+ * Timers and histograms are reported as summaries without a {@code _sum} sample.
+ * Coda Hale reservoirs only keep a sample of the recorded values, so a sum derived from them would not be the total of all observations, and could decrease.
+ * <p>
+ * Metric names are sanitized by replacing characters that Prometheus doesn't allow with {@code _}.
+ * When two metrics have the same sanitized name (e.g. {@code a.b} and {@code a_b}), only the first one encountered is reported, and the others are skipped with a warning.
+ */
+public class MetricRegistryPrometheusEncoder implements Function<MetricRegistry, ByteBuf> {
+
+  private final static Logger LOGGER = LoggerFactory.getLogger(MetricRegistryPrometheusEncoder.class);
+
+  private final static double SECONDS_PER_NANO = 1.0 / TimeUnit.SECONDS.toNanos(1);
+  private final static int FRACTION_DIGITS = 9;
+  private final static long FRACTION_SCALE = 1_000_000_000L;
+  private final static int MIN_BUFFER_SIZE = 1024;
+
+  private final static byte[] TYPE = ascii("# TYPE ");
+  private final static byte[] COUNTER = ascii(" counter\n");
+  private final static byte[] GAUGE = ascii(" gauge\n");
+  private final static byte[] SUMMARY = ascii(" summary\n");
+  private final static byte[] TOTAL = ascii("_total");
+  private final static byte[] COUNT = ascii("_count");
+  private final static byte[] RATE_M1 = ascii("_m1_rate");
+  private final static byte[] QUANTILE_50 = ascii("{quantile=\"0.5\"}");
+  private final static byte[] QUANTILE_75 = ascii("{quantile=\"0.75\"}");
+  private final static byte[] QUANTILE_95 = ascii("{quantile=\"0.95\"}");
+  private final static byte[] QUANTILE_98 = ascii("{quantile=\"0.98\"}");
+  private final static byte[] QUANTILE_99 = ascii("{quantile=\"0.99\"}");
+  private final static byte[] QUANTILE_999 = ascii("{quantile=\"0.999\"}");
+  private final static byte[] NAN = ascii("NaN");
+  private final static byte[] POSITIVE_INFINITY = ascii("+Inf");
+  private final static byte[] NEGATIVE_INFINITY = ascii("-Inf");
+  private final static byte[] MIN_LONG = ascii(Long.toString(Long.MIN_VALUE));
+  private final static byte[] COLLIDING = new byte[0];
+
+  private final ByteBufAllocator byteBufAllocator;
+  private final ConcurrentMap<String, byte[]> names = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> owners = new ConcurrentHashMap<>();
+  private volatile int lastSize = MIN_BUFFER_SIZE;
+
+  @Inject
+  public MetricRegistryPrometheusEncoder(ByteBufAllocator byteBufAllocator) {
+    this.byteBufAllocator = byteBufAllocator;
+  }
+
+  @Override
+  public ByteBuf apply(MetricRegistry metricRegistry) throws Exception {
+    ByteBuf byteBuf = byteBufAllocator.ioBuffer(lastSize);
+    try {
+      Map<String, Metric> metrics = metricRegistry.getMetrics();
+      if (names.size() > metrics.size()) {
+        // metrics have been removed since the last encoding
+        names.keySet().retainAll(metrics.keySet());
+        owners.values().retainAll(metrics.keySet());
+        // a skipped metric may no longer collide
+        names.values().removeIf(name -> name == COLLIDING);
+      }
+      for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+        byte[] name = name(entry.getKey());
+        if (name == COLLIDING) {
+          continue;
+        }
+        Metric metric = entry.getValue();
+        if (metric instanceof Timer) {
+          writeTimer(byteBuf, name, (Timer) metric);
+        } else if (metric instanceof Histogram) {
+          writeHistogram(byteBuf, name, (Histogram) metric);
+        } else if (metric instanceof Meter) {
+          writeMeter(byteBuf, name, (Meter) metric);
+        } else if (metric instanceof Counter) {
+          writeCounter(byteBuf, name, (Counter) metric);
+        } else if (metric instanceof Gauge) {
+          writeGauge(byteBuf, name, entry.getKey(), (Gauge<?>) metric);
+        }
+      }
+      lastSize = Math.max(MIN_BUFFER_SIZE, byteBuf.readableBytes());
+      return byteBuf;
+    } catch (Exception e) {
+      byteBuf.release();
+      throw e;
+    }
+  }
+
+  private void writeGauge(ByteBuf out, byte[] name, String key, Gauge<?> gauge) {
+    Object value;
+    try {
+      value = gauge.getValue();
+    } catch (Exception e) {
+      LOGGER.debug("Exception encountered while reporting [" + key + "]: " + e.getLocalizedMessage());
+      return;
+    }
+
+    double number;
+    if (value instanceof Number) {
+      number = ((Number) value).doubleValue();
+    } else if (value instanceof Boolean) {
+      number = (Boolean) value ? 1 : 0;
+    } else {
+      return;
+    }
+
+    writeType(out, name, null, GAUGE);
+    writeSample(out, name, null, number);
+  }
+
+  private void writeCounter(ByteBuf out, byte[] name, Counter counter) {
+    writeType(out, name, null, GAUGE);
+    writeSample(out, name, null, counter.getCount());
+  }
+
+  private void writeMeter(ByteBuf out, byte[] name, Metered meter) {
+    writeType(out, name, TOTAL, COUNTER);
+    writeSample(out, name, TOTAL, meter.getCount());
+    writeType(out, name, RATE_M1, GAUGE);
+    writeSample(out, name, RATE_M1, meter.getOneMinuteRate());
+  }
+
+  private void writeHistogram(ByteBuf out, byte[] name, Histogram histogram) {
+    writeSummary(out, name, histogram.getCount(), histogram.getSnapshot(), 1);
+  }
+
+  private void writeTimer(ByteBuf out, byte[] name, Timer timer) {
+    writeSummary(out, name, timer.getCount(), timer.getSnapshot(), SECONDS_PER_NANO);
+    writeType(out, name, RATE_M1, GAUGE);
+    writeSample(out, name, RATE_M1, timer.getOneMinuteRate());
+  }
+
+  private void writeSummary(ByteBuf out, byte[] name, long count, Snapshot snapshot, double factor) {
+    writeType(out, name, null, SUMMARY);
+    writeSample(out, name, QUANTILE_50, snapshot.getMedian() * factor);
+    writeSample(out, name, QUANTILE_75, snapshot.get75thPercentile() * factor);
+    writeSample(out, name, QUANTILE_95, snapshot.get95thPercentile() * factor);
+    writeSample(out, name, QUANTILE_98, snapshot.get98thPercentile() * factor);
+    writeSample(out, name, QUANTILE_99, snapshot.get99thPercentile() * factor);
+    writeSample(out, name, QUANTILE_999, snapshot.get999thPercentile() * factor);
+    writeSample(out, name, COUNT, count);
+  }
+
+  private static void writeType(ByteBuf out, byte[] name, byte[] suffix, byte[] type) {
+    out.writeBytes(TYPE);
+    out.writeBytes(name);
+    if (suffix != null) {
+      out.writeBytes(suffix);
+    }
+    out.writeBytes(type);
+  }
+
+  private static void writeSample(ByteBuf out, byte[] name, byte[] suffix, long value) {
+    writeName(out, name, suffix);
+    writeLong(out, value);
+    out.writeByte('\n');
+  }
+
+  private static void writeSample(ByteBuf out, byte[] name, byte[] suffix, double value) {
+    writeName(out, name, suffix);
+    writeDouble(out, value);
+    out.writeByte('\n');
+  }
+
+  private static void writeName(ByteBuf out, byte[] name, byte[] suffix) {
+    out.writeBytes(name);
+    if (suffix != null) {
+      out.writeBytes(suffix);
+    }
+    out.writeByte(' ');
+  }
+
+  private static void writeLong(ByteBuf out, long value) {
+    if (value == Long.MIN_VALUE) {
+      out.writeBytes(MIN_LONG);
+      return;
+    }
+    if (value < 0) {
+      out.writeByte('-');
+      value = -value;
+    }
+    writeDigits(out, value, 1);
+  }
+
+  private static void writeDigits(ByteBuf out, long value, int minDigits) {
+    int digits = 1;
+    long divisor = 1;
+    while (value / divisor >= 10 || digits < minDigits) {
+      divisor *= 10;
+      ++digits;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.writeByte((int) ('0' + (value / divisor) % 10));
+    }
+  }
+
+  private static void writeDouble(ByteBuf out, double value) {
+    if (Double.isNaN(value)) {
+      out.writeBytes(NAN);
+    } else if (Double.isInfinite(value)) {
+      out.writeBytes(value > 0 ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+    } else if (Math.abs(value) >= Long.MAX_VALUE / FRACTION_SCALE) {
+      // rare enough that the intermediate string does not matter
+      out.writeBytes(ascii(Double.toString(value)));
+    } else {
+      long scaled = Math.round(value * FRACTION_SCALE);
+      if (scaled < 0) {
+        out.writeByte('-');
+        scaled = -scaled;
+      }
+      writeDigits(out, scaled / FRACTION_SCALE, 1);
+      long fraction = scaled % FRACTION_SCALE;
+      if (fraction != 0) {
+        int fractionDigits = FRACTION_DIGITS;
+        while (fraction % 10 == 0) {
+          fraction /= 10;
+          --fractionDigits;
+        }
+        out.writeByte('.');
+        writeDigits(out, fraction, fractionDigits);
+      }
+    }
+  }
+
+  private byte[] name(String name) {
+    byte[] encoded = names.get(name);
+    if (encoded == null) {
+      String sanitized = sanitize(name);
+      String owner = owners.putIfAbsent(sanitized, name);
+      if (owner == null || owner.equals(name)) {
+        encoded = ascii(sanitized);
+      } else {
+        LOGGER.warn("Not reporting [" + name + "] as its sanitized name [" + sanitized + "] is already used by [" + owner + "]");
+        encoded = COLLIDING;
+      }
+      names.put(name, encoded);
+    }
+    return encoded;
+  }
+
+  private static String sanitize(String name) {
+    StringBuilder builder = new StringBuilder(name.length() + 1);
+    if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+      builder.append('_');
+    }
+    for (int i = 0; i < name.length(); ++i) {
+      char c = name.charAt(i);
+      boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == ':';
+      builder.append(valid ? c : '_');
+    }
+    return builder.toString();
+  }
+
+  private static byte[] ascii(String string) {
+    return string.getBytes(StandardCharsets.US_ASCII);
+  }
+
+}
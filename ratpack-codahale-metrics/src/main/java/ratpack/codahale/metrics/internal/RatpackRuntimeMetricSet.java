@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics.internal;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import ratpack.exec.ExecController;
+import ratpack.exec.internal.DefaultExecController;
+import ratpack.exec.internal.ExecutionCounters;
+import ratpack.http.client.HttpClientSsl;
+import ratpack.http.client.internal.HostResolver;
+import ratpack.server.internal.ConnectionCounter;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Gauges for Ratpack's own runtime: the event loops, the blocking pool, executions, connections, buffer memory and the HTTP client's host name resolution and TLS handshakes.
+ * <p>
+ * The buffer allocator does not expose per arena statistics, so the JVM's direct buffer pool (which backs the pooled allocator's chunks)
+ * is reported instead.
+ */
+public class RatpackRuntimeMetricSet implements MetricSet {
+
+  private static final String PREFIX = "ratpack";
+
+  private final ExecController execController;
+  private final ByteBufAllocator byteBufAllocator;
+  private final Optional<ConnectionCounter> connectionCounter;
+  private final Optional<HostResolver> hostResolver;
+  private final Optional<HttpClientSsl> httpClientSsl;
+
+  public RatpackRuntimeMetricSet(ExecController execController, ByteBufAllocator byteBufAllocator, Optional<ConnectionCounter> connectionCounter, Optional<HostResolver> hostResolver, Optional<HttpClientSsl> httpClientSsl) {
+    this.execController = execController;
+    this.byteBufAllocator = byteBufAllocator;
+    this.connectionCounter = connectionCounter;
+    this.hostResolver = hostResolver;
+    this.httpClientSsl = httpClientSsl;
+  }
+
+  @Override
+  public Map<String, Metric> getMetrics() {
+    ImmutableMap.Builder<String, Metric> metrics = ImmutableMap.builder();
+
+    int i = 0;
+    for (EventExecutor executor : execController.getEventLoopGroup().children()) {
+      if (executor instanceof SingleThreadEventExecutor) {
+        SingleThreadEventExecutor eventLoop = (SingleThreadEventExecutor) executor;
+        metrics.put(name(PREFIX, "event-loop", Integer.toString(i), "pending-tasks"), (Gauge<Integer>) eventLoop::pendingTasks);
+      }
+      ++i;
+    }
+
+    if (execController.getBlockingExecutor() instanceof ThreadPoolExecutor) {
+      ThreadPoolExecutor blockingExecutor = (ThreadPoolExecutor) execController.getBlockingExecutor();
+      metrics.put(name(PREFIX, "blocking", "active"), (Gauge<Integer>) blockingExecutor::getActiveCount);
+      metrics.put(name(PREFIX, "blocking", "threads"), (Gauge<Integer>) blockingExecutor::getPoolSize);
+      metrics.put(name(PREFIX, "blocking", "queued"), (Gauge<Integer>) () -> blockingExecutor.getQueue().size());
+    }
+
+    if (execController instanceof DefaultExecController) {
+      ExecutionCounters counters = ((DefaultExecController) execController).getCounters();
+      metrics.put(name(PREFIX, "executions", "in-flight"), (Gauge<Long>) counters::getExecutionsInFlight);
+      metrics.put(name(PREFIX, "executions", "started"), (Gauge<Long>) counters::getExecutionsStarted);
+      metrics.put(name(PREFIX, "segments", "executed"), (Gauge<Long>) counters::getSegmentsExecuted);
+      metrics.put(name(PREFIX, "segments", "per-second"), new RateGauge(counters));
+    }
+
+    connectionCounter.ifPresent(counter ->
+        metrics.put(name(PREFIX, "connections", "open"), (Gauge<Integer>) counter::getOpenConnections)
+    );
+
+    hostResolver.ifPresent(resolver -> {
+      metrics.put(name(PREFIX, "http-client", "dns", "lookups"), (Gauge<Long>) resolver::getLookups);
+      metrics.put(name(PREFIX, "http-client", "dns", "cache-hits"), (Gauge<Long>) resolver::getCacheHits);
+      metrics.put(name(PREFIX, "http-client", "dns", "failures"), (Gauge<Long>) resolver::getFailures);
+      metrics.put(name(PREFIX, "http-client", "dns", "resolution-time-ms"), (Gauge<Double>) () -> {
+        long lookups = resolver.getLookups();
+        return lookups == 0 ? 0 : resolver.getResolutionTimeNanos() / 1e6 / lookups;
+      });
+    });
+
+    httpClientSsl.ifPresent(ssl -> {
+      metrics.put(name(PREFIX, "http-client", "tls", "handshakes"), (Gauge<Long>) ssl::getHandshakes);
+      metrics.put(name(PREFIX, "http-client", "tls", "resumed"), (Gauge<Long>) ssl::getResumedHandshakes);
+      metrics.put(name(PREFIX, "http-client", "tls", "resumption-rate"), (Gauge<Double>) () -> {
+        long handshakes = ssl.getHandshakes();
+        return handshakes == 0 ? 0 : (double) ssl.getResumedHandshakes() / handshakes;
+      });
+    });
+
+    metrics.put(name(PREFIX, "buffers", "pooled"), (Gauge<Boolean>) () -> byteBufAllocator instanceof PooledByteBufAllocator);
+    for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      if (pool.getName().equals("direct")) {
+        metrics.put(name(PREFIX, "buffers", "direct", "count"), (Gauge<Long>) pool::getCount);
+        metrics.put(name(PREFIX, "buffers", "direct", "used"), (Gauge<Long>) pool::getMemoryUsed);
+        metrics.put(name(PREFIX, "buffers", "direct", "capacity"), (Gauge<Long>) pool::getTotalCapacity);
+      }
+    }
+
+    return metrics.build();
+  }
+
+  /**
+   * The rate of segment execution since the previous read of the gauge.
+   */
+  private static class RateGauge implements Gauge<Double> {
+    private final ExecutionCounters counters;
+    private long lastCount;
+    private long lastTime = System.nanoTime();
+
+    RateGauge(ExecutionCounters counters) {
+      this.counters = counters;
+      this.lastCount = counters.getSegmentsExecuted();
+    }
+
+    @Override
+    public synchronized Double getValue() {
+      long count = counters.getSegmentsExecuted();
+      long time = System.nanoTime();
+      long elapsed = time - lastTime;
+      double rate = elapsed == 0 ? 0 : (count - lastCount) * 1e9 / elapsed;
+      lastCount = count;
+      lastTime = time;
+      return rate;
+    }
+  }
+
+}
@@ -16,12 +16,16 @@
 
 package ratpack.codahale.metrics.internal;
 
+import com.codahale.metrics.Metric;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import ratpack.handling.Context;
 import ratpack.handling.Handler;
 import ratpack.http.Request;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * A handler implementation that collects {@link Timer} metrics for a {@link Request}.
  * <p>
@@ -46,13 +50,22 @@ import ratpack.http.Request;
  * [css][bootstrap.min.css]~GET~Request
  * </pre>
  *
+ * If HdrHistogram recording is enabled, the timers are backed by a {@link HdrHistogramReservoir} instead of the default
+ * exponentially decaying reservoir.
  */
 public class RequestTimingHandler implements Handler {
 
   private final Handler rest;
+  private final boolean hdrHistogram;
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
 
   public RequestTimingHandler(Handler rest) {
+    this(rest, false);
+  }
+
+  public RequestTimingHandler(Handler rest, boolean hdrHistogram) {
     this.rest = rest;
+    this.hdrHistogram = hdrHistogram;
   }
 
   @Override
@@ -63,12 +76,38 @@ public class RequestTimingHandler implements Handler {
 
     context.addInterceptor(blockingExecTimingInterceptor, () -> {
       String tag = buildRequestTimerTag(request.getUri(), request.getMethod().getName());
-      final Timer.Context timer = metricRegistry.timer(tag).time();
+      final Timer.Context timer = timer(metricRegistry, tag).time();
       context.onClose(thing -> timer.stop());
       context.insert(rest);
     });
   }
 
+  private Timer timer(MetricRegistry metricRegistry, String tag) {
+    Timer timer = timers.get(tag);
+    if (timer == null) {
+      timer = timers.computeIfAbsent(tag, t -> lookupTimer(metricRegistry, t));
+    }
+    return timer;
+  }
+
+  private Timer lookupTimer(MetricRegistry metricRegistry, String tag) {
+    if (!hdrHistogram) {
+      return metricRegistry.timer(tag);
+    }
+
+    Metric existing = metricRegistry.getMetrics().get(tag);
+    if (existing instanceof Timer) {
+      return (Timer) existing;
+    }
+
+    try {
+      return metricRegistry.register(tag, new Timer(new HdrHistogramReservoir()));
+    } catch (IllegalArgumentException e) {
+      // registered concurrently by another request
+      return (Timer) metricRegistry.getMetrics().get(tag);
+    }
+  }
+
   private String buildRequestTimerTag(String requestUri, String requestMethod) {
     return (requestUri.equals("/") ? "[root" : requestUri.replaceFirst("/", "[").replace("/", "][")) + "]~" + requestMethod + "~Request";
   }
@@ -317,6 +317,86 @@ class MetricsSpec extends RatpackGroovyDslSpec {
     1 * reporter.onTimerAdded("[foo][bar]~GET~Request", !null)
   }
 
+  def "can collect request timer metrics into hdr histograms"() {
+    MetricRegistry registry
+
+    given:
+    bindings {
+      add new CodaHaleMetricsModule().hdrHistogram()
+    }
+
+    handlers { MetricRegistry metrics ->
+      registry = metrics
+
+      handler {
+        render ""
+      }
+    }
+
+    when:
+    3.times { get() }
+
+    then:
+    def timer = registry.timers.get("[root]~GET~Request")
+    timer.count == 3
+    timer.snapshot.size() == 3
+    timer.snapshot.max > 0
+    timer.snapshot.get999thPercentile() <= timer.snapshot.max
+  }
+
+  def "can expose metrics in text exposition format"() {
+    given:
+    bindings {
+      add new CodaHaleMetricsModule().metrics()
+    }
+
+    handlers { MetricRegistry metrics ->
+      get {
+        metrics.counter("foo.counter").inc(2)
+        render "foo"
+      }
+      get("admin/metrics", new MetricsPrometheusHandler())
+    }
+
+    when:
+    get()
+    def report = getText("admin/metrics")
+
+    then:
+    response.headers.get("Content-Type") == MetricsPrometheusHandler.CONTENT_TYPE
+    report.contains("# TYPE foo_counter gauge\nfoo_counter 2\n")
+    report.contains("# TYPE _root__GET_Request summary\n")
+    report.contains("_root__GET_Request_count 1\n")
+    !report.contains("_root__GET_Request_sum")
+  }
+
+  def "skips metrics whose names are the same once sanitized"() {
+    given:
+    bindings {
+      add new CodaHaleMetricsModule().metrics()
+    }
+
+    handlers { MetricRegistry metrics ->
+      get {
+        metrics.counter("a.b").inc(1)
+        metrics.counter("a_b").inc(2)
+        metrics.counter("a-c").inc(3)
+        render "foo"
+      }
+      get("admin/metrics", new MetricsPrometheusHandler())
+    }
+
+    when:
+    get()
+    def report = getText("admin/metrics")
+
+    then:
+    report.readLines().findAll { it == "# TYPE a_b gauge" }.size() == 1
+    report.contains("# TYPE a_b gauge\na_b 1\n")
+    !report.contains("a_b 2\n")
+    report.contains("# TYPE a_c gauge\na_c 3\n")
+  }
+
   def "can collect jvm metrics"() {
     def reporter = Mock(MetricRegistryListener)
 
@@ -342,6 +422,37 @@ class MetricsSpec extends RatpackGroovyDslSpec {
     (1.._) * reporter.onGaugeAdded(!null, { it.class.name.startsWith("com.codahale.metrics.jvm.MemoryUsageGaugeSet") })
   }
 
+  def "can collect ratpack runtime metrics"() {
+    MetricRegistry registry
+
+    given:
+    bindings {
+      add new CodaHaleMetricsModule().runtimeMetrics()
+    }
+
+    handlers { MetricRegistry metrics ->
+      registry = metrics
+
+      handler {
+        render metrics.gauges.get("ratpack.connections.open").value.toString()
+      }
+    }
+
+    when:
+    get()
+
+    then:
+    response.body.text.toInteger() >= 1
+    registry.gauges.get("ratpack.event-loop.0.pending-tasks").value >= 0
+    registry.gauges.get("ratpack.executions.started").value >= 1
+    registry.gauges.get("ratpack.segments.executed").value >= 1
+    registry.gauges.get("ratpack.buffers.pooled").value == true
+    registry.gauges.get("ratpack.http-client.dns.lookups").value == 0
+    registry.gauges.get("ratpack.http-client.dns.resolution-time-ms").value == 0
+    registry.gauges.get("ratpack.http-client.tls.handshakes").value == 0
+    registry.gauges.get("ratpack.http-client.tls.resumption-rate").value == 0
+  }
+
   def "can use metrics endpoint"() {
     given:
     serverConfig {
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.codahale.metrics.internal
+
+import spock.lang.Specification
+
+class HdrHistogramReservoirSpec extends Specification {
+
+  def reservoir = new HdrHistogramReservoir()
+
+  void record(int threads, List<Long> values) {
+    (1..threads).collect { Thread.start { values.each { reservoir.update(it) } } }*.join()
+  }
+
+  def "can take snapshots of values recorded by many threads"() {
+    when:
+    record(4, (1L..100L).toList())
+
+    then:
+    reservoir.size() == 400
+    with(reservoir.snapshot) {
+      min == 1
+      max == 100
+      size() == 400
+    }
+
+    when:
+    record(4, [1000L])
+
+    then:
+    reservoir.size() == 404
+    reservoir.snapshot.max >= 1000
+  }
+
+  def "recorders of dead threads are dropped without losing their values"() {
+    when:
+    record(10, [5L])
+    reservoir.snapshot
+
+    then:
+    reservoir.recorders.empty
+
+    when:
+    record(10, [5L])
+
+    then:
+    reservoir.recorders.size() == 10
+    reservoir.size() == 20
+    reservoir.recorders.empty
+  }
+
+  def "snapshot of empty reservoir is empty"() {
+    expect:
+    reservoir.size() == 0
+    reservoir.snapshot.size() == 0
+  }
+
+}
@@ -82,6 +82,18 @@ public class ServerConfigDeserializer extends JsonDeserializer<ServerConfig> {
     if (serverNode.hasNonNull("compressionMimeTypeBlackList")) {
       builder.compressionBlackListMimeTypes(toList(codec, serverNode.get("compressionMimeTypeBlackList")));
     }
+    if (serverNode.hasNonNull("compressionLevel")) {
+      builder.compressionLevel(serverNode.get("compressionLevel").asInt());
+    }
+    if (serverNode.hasNonNull("compressionWindowBits")) {
+      builder.compressionWindowBits(serverNode.get("compressionWindowBits").asInt());
+    }
+    if (serverNode.hasNonNull("compressionEncodings")) {
+      builder.compressionEncodings(toList(codec, serverNode.get("compressionEncodings")));
+    }
+    if (serverNode.hasNonNull("compressionBlockingMinSize")) {
+      builder.compressionBlockingMinSize(serverNode.get("compressionBlockingMinSize").asLong());
+    }
     if (serverNode.hasNonNull("indexFiles")) {
       builder.indexFiles(toList(codec, serverNode.get("indexFiles")));
     }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import org.openjdk.jmh.annotations.*;
+import ratpack.ssl.SSLContexts;
+
+import javax.net.ssl.*;
+import java.nio.ByteBuffer;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the number of full and resumed server handshakes a single core can complete.
+ * <p>
+ * The client and server engines exchange records in memory, so the numbers are the cost of the handshakes alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SslHandshakeBenchmark {
+
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private SSLContext serverContext;
+  private SSLContext clientContext;
+  private ByteBuffer clientToServer;
+  private ByteBuffer serverToClient;
+  private ByteBuffer application;
+
+  @Setup
+  public void setup() throws Exception {
+    serverContext = SSLContexts.sslContext(SslHandshakeBenchmark.class.getResource("/ratpack/ssl/dummy.keystore"), "password");
+    clientContext = SSLContext.getInstance("TLS");
+    clientContext.init(null, new TrustManager[]{new X509TrustManager() {
+      @Override
+      public void checkClientTrusted(X509Certificate[] chain, String authType) {
+      }
+
+      @Override
+      public void checkServerTrusted(X509Certificate[] chain, String authType) {
+      }
+
+      @Override
+      public X509Certificate[] getAcceptedIssuers() {
+        return new X509Certificate[0];
+      }
+    }}, null);
+
+    int size = serverContext.createSSLEngine().getSession().getPacketBufferSize() * 4;
+    clientToServer = ByteBuffer.allocate(size);
+    serverToClient = ByteBuffer.allocate(size);
+    application = ByteBuffer.allocate(size);
+  }
+
+  @Benchmark
+  public SSLSession fullHandshake() throws Exception {
+    // Without a peer host and port the client doesn't look up a cached session
+    return handshake(clientContext.createSSLEngine());
+  }
+
+  @Benchmark
+  public SSLSession resumedHandshake() throws Exception {
+    return handshake(clientContext.createSSLEngine("localhost", 443));
+  }
+
+  private SSLSession handshake(SSLEngine client) throws Exception {
+    client.setUseClientMode(true);
+    client.setEnabledProtocols(new String[]{"TLSv1.2"});
+    SSLEngine server = new ServerSslEngine(serverContext.createSSLEngine());
+    server.setUseClientMode(false);
+
+    clientToServer.clear();
+    serverToClient.clear();
+    client.beginHandshake();
+    server.beginHandshake();
+    while (!isDone(client) || !isDone(server)) {
+      step(client, serverToClient, clientToServer);
+      step(server, clientToServer, serverToClient);
+    }
+
+    // Close the way the server does after a response, sending close_notify without waiting for the client's
+    server.closeOutbound();
+    serverToClient.clear();
+    server.wrap(EMPTY, serverToClient);
+    server.closeInbound();
+    return client.getSession();
+  }
+
+  private static boolean isDone(SSLEngine engine) {
+    SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+    return status == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING || status == SSLEngineResult.HandshakeStatus.FINISHED;
+  }
+
+  private void step(SSLEngine engine, ByteBuffer in, ByteBuffer out) throws SSLException {
+    switch (engine.getHandshakeStatus()) {
+      case NEED_WRAP:
+        engine.wrap(EMPTY, out);
+        break;
+      case NEED_UNWRAP:
+        in.flip();
+        application.clear();
+        engine.unwrap(in, application);
+        in.compact();
+        break;
+      case NEED_TASK:
+        Runnable task = engine.getDelegatedTask();
+        while (task != null) {
+          task.run();
+          task = engine.getDelegatedTask();
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec;
+
+import ratpack.exec.internal.DefaultSingleFlight;
+import ratpack.func.Factory;
+
+/**
+ * Coalesces concurrent operations for the same key into one, typically expensive calls to an external resource.
+ * <p>
+ * The first promise for a key to be subscribed to performs the operation.
+ * Promises for the same key that are subscribed to while that operation is in flight don't perform it again,
+ * but receive its result (value or error) when it completes.
+ * Each caller still continues on its own execution.
+ * <p>
+ * Nothing is cached.
+ * Once the operation has completed, the next promise for the key performs it again.
+ * As the result is shared by all concurrent callers, it should not be mutated by them.
+ *
+ * @param <K> the type of key
+ * @param <T> the type of promised value
+ * @see Throttle
+ */
+public interface SingleFlight<K, T> {
+
+  /**
+   * Create a new single flight.
+   *
+   * @param <K> the type of key
+   * @param <T> the type of promised value
+   * @return a new single flight
+   */
+  static <K, T> SingleFlight<K, T> create() {
+    return new DefaultSingleFlight<>();
+  }
+
+  /**
+   * Creates a promise for the result of the operation for the given key, joining one that is already in flight if there is one.
+   * <p>
+   * The factory is only invoked (on the subscribing execution) if no operation for the key is in flight when the returned promise is subscribed to.
+   *
+   * @param key the key that identifies the operation
+   * @param operation a factory for the promise that performs the operation
+   * @return a promise for the result of the operation
+   */
+  Promise<T> join(K key, Factory<? extends Promise<T>> operation);
+
+  /**
+   * The number of operations currently in flight.
+   *
+   * @return the number of operations currently in flight
+   */
+  int getInFlight();
+
+  /**
+   * The number of promises that have joined an operation that was already in flight, instead of performing it.
+   *
+   * @return the number of promises that have joined an operation in flight
+   */
+  long getJoined();
+
+}
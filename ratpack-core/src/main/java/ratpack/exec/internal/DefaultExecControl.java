@@ -46,9 +46,11 @@ public class DefaultExecControl implements ExecControl {
 
   private final ExecController execController;
   private final ThreadLocal<ExecutionBacking> threadBinding = new ThreadLocal<>();
+  private final ExecutionCounters counters;
 
-  public DefaultExecControl(ExecController execController) {
+  public DefaultExecControl(ExecController execController, ExecutionCounters counters) {
     this.execController = execController;
+    this.counters = counters;
   }
 
   private ExecutionBacking getBacking() {
@@ -124,9 +126,9 @@ public class DefaultExecControl implements ExecControl {
 
         Action<? super Execution> effectiveAction = registry == null ? action : Action.join(registry, action);
         if (eventLoop.inEventLoop() && threadBinding.get() == null) {
-          new ExecutionBacking(execController, eventLoop, startTrace, threadBinding, effectiveAction, onError, onComplete);
+          new ExecutionBacking(execController, eventLoop, counters, startTrace, threadBinding, effectiveAction, onError, onComplete);
         } else {
-          eventLoop.submit(() -> new ExecutionBacking(execController, eventLoop, startTrace, threadBinding, effectiveAction, onError, onComplete));
+          eventLoop.submit(() -> new ExecutionBacking(execController, eventLoop, counters, startTrace, threadBinding, effectiveAction, onError, onComplete));
         }
       }
     };
@@ -32,6 +32,7 @@ public class DefaultExecController implements ExecController {
   private final ExecutorService blockingExecutor;
   private final EventLoopGroup eventLoopGroup;
   private final DefaultExecControl control;
+  private final ExecutionCounters counters = new ExecutionCounters();
   private final int numThreads;
 
   public DefaultExecController() {
@@ -42,7 +43,7 @@ public class DefaultExecController implements ExecController {
     this.numThreads = numThreads;
     this.eventLoopGroup = ChannelImplDetector.eventLoopGroup(numThreads, new ExecControllerBindingThreadFactory("ratpack-compute", Thread.MAX_PRIORITY));
     this.blockingExecutor = Executors.newCachedThreadPool(new ExecControllerBindingThreadFactory("ratpack-blocking", Thread.NORM_PRIORITY));
-    this.control = new DefaultExecControl(this);
+    this.control = new DefaultExecControl(this, counters);
   }
 
   public void close() {
@@ -70,6 +71,10 @@ public class DefaultExecController implements ExecController {
     return control;
   }
 
+  public ExecutionCounters getCounters() {
+    return counters;
+  }
+
   private class ExecControllerBindingThreadFactory extends DefaultThreadFactory {
     public ExecControllerBindingThreadFactory(String name, int priority) {
       super(name, priority);
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import com.google.common.collect.Lists;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Fulfiller;
+import ratpack.exec.Promise;
+import ratpack.exec.Result;
+import ratpack.exec.SingleFlight;
+import ratpack.func.Factory;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultSingleFlight<K, T> implements SingleFlight<K, T> {
+
+  private final ConcurrentMap<K, Flight<T>> flights = new ConcurrentHashMap<>();
+  private final LongAdder joined = new LongAdder();
+
+  @Override
+  public Promise<T> join(K key, Factory<? extends Promise<T>> operation) {
+    return ExecControl.current().promise(fulfiller -> {
+      while (true) {
+        Flight<T> flight = new Flight<>();
+        flight.join(fulfiller);
+        Flight<T> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight == null) {
+          Promise<T> promise;
+          try {
+            promise = operation.create();
+          } catch (Throwable e) {
+            land(key, flight, Result.failure(e));
+            return;
+          }
+          promise.asResult(result -> land(key, flight, result));
+          return;
+        } else if (inFlight.join(fulfiller)) {
+          joined.increment();
+          return;
+        }
+        // landed after we found it, start another
+      }
+    });
+  }
+
+  private void land(K key, Flight<T> flight, Result<T> result) {
+    flights.remove(key, flight);
+    flight.land(result);
+  }
+
+  @Override
+  public int getInFlight() {
+    return flights.size();
+  }
+
+  @Override
+  public long getJoined() {
+    return joined.sum();
+  }
+
+  /**
+   * The callers waiting for an operation.
+   * <p>
+   * A caller can find the flight just before it lands, in which case it can't join and has to start another.
+   */
+  private static class Flight<T> {
+
+    private List<Fulfiller<? super T>> waiting = Lists.newArrayListWithCapacity(1);
+
+    synchronized boolean join(Fulfiller<? super T> fulfiller) {
+      if (waiting == null) {
+        return false;
+      } else {
+        waiting.add(fulfiller);
+        return true;
+      }
+    }
+
+    void land(Result<T> result) {
+      List<Fulfiller<? super T>> fulfillers;
+      synchronized (this) {
+        fulfillers = waiting;
+        waiting = null;
+      }
+      for (Fulfiller<? super T> fulfiller : fulfillers) {
+        fulfiller.accept(result);
+      }
+    }
+
+  }
+
+}
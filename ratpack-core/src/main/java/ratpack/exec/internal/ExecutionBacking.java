@@ -49,6 +49,7 @@ public class ExecutionBacking {
   Queue<Deque<NoArgAction>> stream = new ConcurrentLinkedQueue<>();
 
   private final EventLoop eventLoop;
+  private final ExecutionCounters counters;
   private final List<AutoCloseable> closeables = Lists.newLinkedList();
   private final Action<? super Throwable> onError;
   private final Action<? super Execution> onComplete;
@@ -58,8 +59,9 @@ public class ExecutionBacking {
   private volatile boolean done;
   private final Execution execution;
 
-  public ExecutionBacking(ExecController controller, EventLoop eventLoop, Optional<StackTraceElement[]> startTrace, ThreadLocal<ExecutionBacking> threadBinding, Action<? super Execution> action, Action<? super Throwable> onError, Action<? super Execution> onComplete) {
+  public ExecutionBacking(ExecController controller, EventLoop eventLoop, ExecutionCounters counters, Optional<StackTraceElement[]> startTrace, ThreadLocal<ExecutionBacking> threadBinding, Action<? super Execution> action, Action<? super Throwable> onError, Action<? super Execution> onComplete) {
     this.eventLoop = eventLoop;
+    this.counters = counters;
     this.onError = onError;
     this.onComplete = onComplete;
     this.threadBinding = threadBinding;
@@ -73,6 +75,7 @@ public class ExecutionBacking {
     Deque<NoArgAction> doneEvent = Lists.newLinkedList();
     doneEvent.add(() -> done = true);
     stream.add(doneEvent);
+    counters.executionStarted();
     drain();
   }
 
@@ -167,6 +170,7 @@ public class ExecutionBacking {
             }
           }
         } else {
+          counters.segmentExecuted();
           if (segment instanceof UserCode) {
             try {
               intercept(ExecInterceptor.ExecType.COMPUTE, interceptors, segment);
@@ -199,6 +203,7 @@ public class ExecutionBacking {
   }
 
   private void done() {
+    counters.executionCompleted();
     try {
       onComplete.execute(getExecution());
     } catch (Throwable e) {
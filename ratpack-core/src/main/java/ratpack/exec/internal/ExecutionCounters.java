@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cheap, contention free counters of execution activity, for monitoring.
+ */
+public class ExecutionCounters {
+
+  private final LongAdder started = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder segments = new LongAdder();
+
+  void executionStarted() {
+    started.increment();
+  }
+
+  void executionCompleted() {
+    completed.increment();
+  }
+
+  void segmentExecuted() {
+    segments.increment();
+  }
+
+  public long getExecutionsInFlight() {
+    return started.sum() - completed.sum();
+  }
+
+  public long getExecutionsStarted() {
+    return started.sum();
+  }
+
+  public long getSegmentsExecuted() {
+    return segments.sum();
+  }
+
+}
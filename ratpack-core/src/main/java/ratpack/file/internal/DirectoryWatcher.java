@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal;
+
+import com.sun.nio.file.SensitivityWatchEventModifier;
+import ratpack.exec.ExecController;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches a directory tree, notifying when anything in it changes.
+ * <p>
+ * The watching is done on a dedicated daemon thread, so that things loaded from the directory can be reloaded on change
+ * without checking the file system each time they are used.
+ * Watching stops when the watcher is closed, or when the given exec controller's event loop group terminates (i.e. when the server stops).
+ */
+public class DirectoryWatcher implements Closeable {
+
+  private static final WatchEvent.Kind<?>[] KINDS = {ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE};
+
+  private final WatchService watchService;
+  private final Runnable onChange;
+  private final Thread thread;
+
+  private DirectoryWatcher(Path dir, WatchService watchService, Runnable onChange) {
+    this.watchService = watchService;
+    this.onChange = onChange;
+    this.thread = new Thread(this::run, "ratpack-directory-watcher-" + dir.getFileName());
+    this.thread.setDaemon(true);
+  }
+
+  /**
+   * Whether changes to the given directory can be watched.
+   * <p>
+   * Only existing directories of the default file system can be watched, others (e.g. in a jar) need to be checked for changes on use.
+   */
+  public static boolean isWatchable(Path dir) {
+    return dir.getFileSystem().equals(FileSystems.getDefault()) && Files.isDirectory(dir);
+  }
+
+  public static DirectoryWatcher watch(Path dir, ExecController execController, Runnable onChange) throws IOException {
+    WatchService watchService = dir.getFileSystem().newWatchService();
+    try {
+      register(dir, watchService);
+    } catch (IOException e) {
+      watchService.close();
+      throw e;
+    }
+    DirectoryWatcher watcher = new DirectoryWatcher(dir, watchService, onChange);
+    watcher.thread.start();
+    execController.getEventLoopGroup().terminationFuture().addListener(future -> watcher.close());
+    return watcher;
+  }
+
+  private static void register(Path dir, WatchService watchService) throws IOException {
+    try (Stream<Path> dirs = Files.walk(dir)) {
+      for (Path path : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+        // The modifier shortens the polling interval of watch services that aren't backed by native file system events
+        path.register(watchService, KINDS, SensitivityWatchEventModifier.HIGH);
+      }
+    }
+  }
+
+  /**
+   * Whether the watching thread is still running.
+   *
+   * @return whether the watching thread is still running
+   */
+  public boolean isWatching() {
+    return thread.isAlive();
+  }
+
+  /**
+   * Stops watching, releasing the underlying watch service.
+   */
+  @Override
+  public void close() throws IOException {
+    // Wakes up the watching thread, which then exits
+    watchService.close();
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == ENTRY_CREATE) {
+            Path created = ((Path) key.watchable()).resolve((Path) event.context());
+            if (Files.isDirectory(created)) {
+              try {
+                register(created, watchService);
+              } catch (IOException ignore) {
+                // removed before it could be watched
+              }
+            }
+          }
+        }
+        key.reset();
+        onChange.run();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // stopped
+    } finally {
+      try {
+        watchService.close();
+      } catch (IOException ignore) {
+        // ignore
+      }
+    }
+  }
+
+}
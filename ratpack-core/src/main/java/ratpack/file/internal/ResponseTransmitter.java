@@ -19,6 +19,7 @@ package ratpack.file.internal;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.reactivestreams.Subscriber;
+import ratpack.http.internal.DefaultConstantResponse;
 
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
@@ -27,6 +28,8 @@ public interface ResponseTransmitter {
 
   void transmit(HttpResponseStatus status, ByteBuf body);
 
+  void transmit(DefaultConstantResponse response);
+
   void transmit(HttpResponseStatus responseStatus, BasicFileAttributes basicFileAttributes, Path file);
 
   Subscriber<ByteBuf> transmitter(HttpResponseStatus status);
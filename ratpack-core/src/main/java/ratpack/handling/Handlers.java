@@ -21,6 +21,7 @@ import ratpack.file.internal.AssetHandler;
 import ratpack.file.internal.FileSystemBindingHandler;
 import ratpack.func.Action;
 import ratpack.handling.internal.*;
+import ratpack.http.ConstantResponse;
 import ratpack.http.internal.*;
 import ratpack.server.ServerConfig;
 import ratpack.path.PathBinder;
@@ -152,6 +153,19 @@ public abstract class Handlers {
     return new ClientErrorForwardingHandler(statusCode);
   }
 
+  /**
+   * A handler that simply sends the given constant response.
+   * <p>
+   * This is the cheapest way to respond to requests with a response that never changes, such as a health check.
+   *
+   * @param response The response to send
+   * @return A handler
+   * @see ratpack.http.Response#send(ConstantResponse)
+   */
+  public static Handler constant(ConstantResponse response) {
+    return new ConstantResponseHandler(response);
+  }
+
   /**
    * A handler that delegates to the next handler if the content type of the request is one of the given types, otherwise raises a 415 client error.
    *
@@ -331,6 +345,26 @@ public abstract class Handlers {
     return new RegistryNextHandler(registry);
   }
 
+  /**
+   * A handler that coalesces concurrent identical {@code GET} and {@code HEAD} requests, so that the handlers after it only handle one of them.
+   * <p>
+   * Requests are identical if they have the same method, URI (including the query string) and {@code Accept-Encoding} header.
+   * The first request proceeds to the next handler, and its response is recorded as it is sent.
+   * Identical requests received while it is being handled don't proceed, but are sent a copy of that response once it is complete.
+   * If it can't be recorded (e.g. it is a file, or the connection closes first), they proceed to the next handler themselves.
+   * They also do so if it is private to the request it was sent for, i.e. it sets a cookie or has a {@code private} or {@code no-store} {@code Cache-Control} directive.
+   * <p>
+   * Nothing is cached, so this is only useful when responses take a while to produce and many identical requests arrive in that time (e.g. after a cache entry expires).
+   * As other request headers are not considered, it should only be used for responses that depend on nothing other than the URI.
+   * Each returned handler coalesces independently of others.
+   *
+   * @return A handler
+   * @see ratpack.exec.SingleFlight
+   */
+  public static Handler singleFlight() {
+    return new SingleFlightHandler();
+  }
+
   /**
    * Creates a handler that always issues a redirect using {@link Context#redirect(int, String)} with exactly the given code and location.
    * <p>
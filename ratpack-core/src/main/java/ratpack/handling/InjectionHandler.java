@@ -17,13 +17,14 @@
 package ratpack.handling;
 
 import com.google.common.reflect.TypeToken;
-import ratpack.handling.internal.Extractions;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Optional;
 
 import static ratpack.util.ExceptionUtils.uncheck;
 
@@ -115,8 +116,23 @@ import static ratpack.util.ExceptionUtils.uncheck;
  */
 public abstract class InjectionHandler implements Handler {
 
-  private final List<TypeToken<?>> types;
-  private final Method handleMethod;
+  private static final Type OPTIONAL_VALUE_TYPE;
+  private static final MethodHandle GET;
+  private static final MethodHandle MAYBE_GET;
+
+  static {
+    try {
+      OPTIONAL_VALUE_TYPE = Optional.class.getMethod("get").getGenericReturnType();
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      GET = lookup.findStatic(InjectionHandler.class, "get", MethodType.methodType(Object.class, TypeToken.class, Context.class));
+      MAYBE_GET = lookup.findStatic(InjectionHandler.class, "maybeGet", MethodType.methodType(Optional.class, TypeToken.class, Context.class));
+    } catch (ReflectiveOperationException e) {
+      throw new InternalError(e);
+    }
+  }
+
+  // (Context)void, with the parameter lookups folded in
+  private final MethodHandle handleMethod;
 
   /**
    * Constructor.
@@ -155,14 +171,49 @@ public abstract class InjectionHandler implements Handler {
       throw new NoSuitableHandleMethodException(thisClass, e);
     }
 
-    this.handleMethod = handleMethod;
-
-    Type[] parameterTypes = handleMethod.getGenericParameterTypes();
-    this.types = new ArrayList<>(parameterTypes.length - 1);
+    this.handleMethod = bind(handleMethod);
+  }
 
-    for (int i = 1; i < parameterTypes.length; ++i) {
-      this.types.add(TypeToken.of(parameterTypes[i]));
+  /**
+   * Resolves the parameter lookups once, producing a handle that only has to perform them.
+   */
+  private MethodHandle bind(Method method) {
+    MethodHandle handle;
+    try {
+      handle = MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException e) {
+      throw uncheck(e);
+    }
+    if (!Modifier.isStatic(method.getModifiers())) {
+      handle = handle.bindTo(this);
+    }
+    handle = handle.asType(handle.type().changeReturnType(void.class));
+
+    Type[] genericTypes = method.getGenericParameterTypes();
+    Class<?>[] rawTypes = method.getParameterTypes();
+    MethodHandle[] lookups = new MethodHandle[rawTypes.length - 1];
+    for (int i = 1; i < rawTypes.length; ++i) {
+      TypeToken<?> type = TypeToken.of(genericTypes[i]);
+      MethodHandle lookup = type.getRawType().equals(Optional.class)
+        ? MAYBE_GET.bindTo(type.resolveType(OPTIONAL_VALUE_TYPE))
+        : GET.bindTo(type);
+      lookups[i - 1] = lookup.asType(MethodType.methodType(rawTypes[i], Context.class));
     }
+
+    // (Context, P1...Pn) -> (Context, Context...Context) -> (Context)
+    handle = MethodHandles.filterArguments(handle, 1, lookups);
+    return MethodHandles.permuteArguments(handle, MethodType.methodType(void.class, Context.class), new int[rawTypes.length]);
+  }
+
+  // Equivalent to looking up in context.getRequest().join(context), without creating the joined registry
+  private static Object get(TypeToken<?> type, Context context) {
+    Optional<?> value = context.maybeGet(type);
+    return value.isPresent() ? value.get() : context.getRequest().get(type);
+  }
+
+  private static Optional<?> maybeGet(TypeToken<?> type, Context context) {
+    Optional<?> value = context.maybeGet(type);
+    return value.isPresent() ? value : context.getRequest().maybeGet(type);
   }
 
   /**
@@ -171,16 +222,10 @@ public abstract class InjectionHandler implements Handler {
    * @param context The context to handle
    */
   public final void handle(Context context) {
-    Object[] args = new Object[types.size() + 1];
-    args[0] = context;
-    Extractions.extract(types, context.getRequest().join(context), args, 1);
     try {
-      handleMethod.invoke(this, args);
-    } catch (IllegalAccessException e) {
-      throw uncheck(e);
-    } catch (InvocationTargetException e) {
-      Throwable root = e.getTargetException();
-      throw uncheck(root);
+      handleMethod.invokeExact(context);
+    } catch (Throwable throwable) {
+      throw uncheck(throwable);
     }
   }
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling;
+
+import ratpack.func.Action;
+import ratpack.handling.internal.DefaultResponseCache;
+
+import java.time.Duration;
+
+/**
+ * An in memory cache of complete responses, shared by all requests.
+ * <p>
+ * Responses are cached by {@link #cache(Handler) wrapping} the handler that produces them.
+ * Only {@code GET} and {@code HEAD} requests are served from the cache.
+ * They are keyed by method, URI (including the query string) and the values of any request headers named by the response's {@code Vary} header,
+ * as well as {@code Accept-Encoding} for encoded (e.g. compressed) responses.
+ * <p>
+ * Whether, and for how long, a response may be cached is determined by its {@code Cache-Control} header, as a shared cache would.
+ * That is, responses with {@code private}, {@code no-store} or {@code no-cache} directives, a {@code Set-Cookie} header, or a {@code Vary} header of {@code *} are not cached,
+ * and responses are fresh for their {@code s-maxage} or {@code max-age}, falling back to the {@link Spec#defaultMaxAge(Duration) default max age}.
+ * Requests with an {@code Authorization} header or a {@code Cache-Control: no-store} header bypass the cache,
+ * while requests with {@code Cache-Control: no-cache} (or {@code Pragma: no-cache}) are not served from the cache but may update it.
+ * <p>
+ * Once a response is stale, it is still served for its {@code stale-while-revalidate} period (falling back to the {@link Spec#staleWhileRevalidate(Duration) default}).
+ * The first request to receive a stale response also starts a new execution that handles a copy of the request with the wrapped handler, replacing the cached response when complete.
+ * The copied request has no body and a context registry that is that of the original request at this handler.
+ * Handlers that take over the channel via {@link Context#getDirectChannelAccess()} should not be cached.
+ * <p>
+ * Response bodies are copied to direct (off heap) buffers, and the least recently used responses are evicted when the total body size exceeds the {@link Spec#maxSize(long) maximum size}.
+ * File responses (i.e. {@link ratpack.http.Response#sendFile(java.nio.file.Path)}) are never cached.
+ *
+ * <pre class="java">{@code
+ * import ratpack.handling.ResponseCache;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import java.time.Duration;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     ResponseCache cache = ResponseCache.of(s -> s.defaultMaxAge(Duration.ofMinutes(1)));
+ *     EmbeddedApp.fromHandler(cache.cache(ctx -> ctx.render("expensive")))
+ *       .test(httpClient -> {
+ *         assertEquals("expensive", httpClient.getText());
+ *         assertEquals("expensive", httpClient.getText());
+ *         assertEquals(1, cache.getHits());
+ *         assertEquals(1, cache.getMisses());
+ *       });
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see Handlers#singleFlight()
+ */
+public interface ResponseCache {
+
+  /**
+   * Creates a new response cache.
+   *
+   * @param spec the configuration for the cache
+   * @return a new response cache
+   * @throws Exception any thrown by {@code spec}
+   */
+  static ResponseCache of(Action<? super Spec> spec) throws Exception {
+    DefaultResponseCache.DefaultSpec defaultSpec = new DefaultResponseCache.DefaultSpec();
+    spec.execute(defaultSpec);
+    return new DefaultResponseCache(defaultSpec);
+  }
+
+  /**
+   * Creates a handler that serves responses from this cache, using the given handler to produce the responses that aren't.
+   *
+   * @param handler the handler that produces the responses to cache
+   * @return a handler
+   */
+  Handler cache(Handler handler);
+
+  /**
+   * The number of requests that were sent a fresh cached response.
+   *
+   * @return the number of requests that were sent a fresh cached response
+   */
+  long getHits();
+
+  /**
+   * The number of requests that were sent a stale cached response while it was being revalidated.
+   *
+   * @return the number of requests that were sent a stale cached response
+   */
+  long getStaleHits();
+
+  /**
+   * The number of cacheable requests that were not sent a cached response.
+   *
+   * @return the number of cacheable requests that were not sent a cached response
+   */
+  long getMisses();
+
+  /**
+   * The proportion of cacheable requests that were sent a cached response, fresh or stale.
+   *
+   * @return a value between 0 and 1, which is 0 if there have been no cacheable requests
+   */
+  double getHitRatio();
+
+  /**
+   * The number of responses that have been evicted to keep the cache within its maximum size.
+   *
+   * @return the number of evicted responses
+   */
+  long getEvictions();
+
+  /**
+   * The number of responses currently cached.
+   *
+   * @return the number of responses currently cached
+   */
+  int getEntries();
+
+  /**
+   * The total size of the currently cached response bodies, in bytes.
+   *
+   * @return the total size of the currently cached response bodies
+   */
+  long getSize();
+
+  /**
+   * Removes all responses from the cache.
+   */
+  void clear();
+
+  /**
+   * The configuration of a response cache.
+   */
+  interface Spec {
+
+    /**
+     * The maximum total size of the cached response bodies, in bytes.
+     * <p>
+     * Defaults to 64MB.
+     * Responses larger than this are not cached.
+     *
+     * @param maxSize the maximum total size of the cached response bodies
+     * @return {@code this}
+     */
+    Spec maxSize(long maxSize);
+
+    /**
+     * How long responses without a {@code max-age} or {@code s-maxage} directive are fresh for.
+     * <p>
+     * Defaults to zero, meaning that such responses are not cached.
+     *
+     * @param defaultMaxAge how long responses without an explicit max age are fresh for
+     * @return {@code this}
+     */
+    Spec defaultMaxAge(Duration defaultMaxAge);
+
+    /**
+     * How long stale responses without a {@code stale-while-revalidate} directive are served while being revalidated.
+     * <p>
+     * Defaults to zero, meaning that stale responses are not served.
+     * Responses with a {@code must-revalidate} or {@code proxy-revalidate} directive are never served stale.
+     *
+     * @param staleWhileRevalidate how long stale responses are served while being revalidated
+     * @return {@code this}
+     */
+    Spec staleWhileRevalidate(Duration staleWhileRevalidate);
+
+  }
+
+}
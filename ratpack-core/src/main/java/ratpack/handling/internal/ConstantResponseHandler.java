@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.ConstantResponse;
+
+public class ConstantResponseHandler implements Handler {
+
+  private final ConstantResponse response;
+
+  public ConstantResponseHandler(ConstantResponse response) {
+    this.response = response;
+  }
+
+  public void handle(Context context) {
+    context.getResponse().send(response);
+  }
+
+}
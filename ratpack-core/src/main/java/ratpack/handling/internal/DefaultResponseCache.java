@@ -0,0 +1,497 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import ratpack.event.internal.DefaultEventController;
+import ratpack.exec.ExecControl;
+import ratpack.exec.Result;
+import ratpack.handling.*;
+import ratpack.handling.direct.DirectChannelAccess;
+import ratpack.handling.direct.internal.DefaultDirectChannelAccess;
+import ratpack.http.HttpMethod;
+import ratpack.http.Request;
+import ratpack.http.Response;
+import ratpack.http.internal.DefaultRequest;
+import ratpack.http.internal.DefaultResponse;
+import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.http.internal.NettyHeadersBackedHeaders;
+import ratpack.http.internal.NettyHeadersBackedMutableHeaders;
+import ratpack.render.internal.DefaultRenderController;
+import ratpack.server.internal.RecordedResponse;
+import ratpack.server.internal.RecordingResponseTransmitter;
+import ratpack.server.internal.ResponseRecorder;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DefaultResponseCache implements ResponseCache {
+
+  private static final Set<Integer> CACHEABLE_STATUSES = ImmutableSet.of(200, 203, 204, 300, 301, 404, 405, 410, 414, 501);
+
+  private final long maxSize;
+  private final long defaultMaxAgeNanos;
+  private final long staleWhileRevalidateNanos;
+
+  // Access ordered, so that iteration starts with the least recently used entry
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Variants> variants = new HashMap<>();
+  private long size;
+  private long evictions;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder staleHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public DefaultResponseCache(DefaultSpec spec) {
+    this.maxSize = spec.maxSize;
+    this.defaultMaxAgeNanos = spec.defaultMaxAge.toNanos();
+    this.staleWhileRevalidateNanos = spec.staleWhileRevalidate.toNanos();
+  }
+
+  public static class DefaultSpec implements Spec {
+    private long maxSize = 64 * 1024 * 1024;
+    private Duration defaultMaxAge = Duration.ZERO;
+    private Duration staleWhileRevalidate = Duration.ZERO;
+
+    @Override
+    public Spec maxSize(long maxSize) {
+      this.maxSize = maxSize;
+      return this;
+    }
+
+    @Override
+    public Spec defaultMaxAge(Duration defaultMaxAge) {
+      this.defaultMaxAge = defaultMaxAge;
+      return this;
+    }
+
+    @Override
+    public Spec staleWhileRevalidate(Duration staleWhileRevalidate) {
+      this.staleWhileRevalidate = staleWhileRevalidate;
+      return this;
+    }
+  }
+
+  @Override
+  public Handler cache(Handler handler) {
+    return new CachingHandler(handler);
+  }
+
+  @Override
+  public long getHits() {
+    return hits.sum();
+  }
+
+  @Override
+  public long getStaleHits() {
+    return staleHits.sum();
+  }
+
+  @Override
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  @Override
+  public double getHitRatio() {
+    long served = getHits() + getStaleHits();
+    long total = served + getMisses();
+    return total == 0 ? 0 : (double) served / total;
+  }
+
+  @Override
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  @Override
+  public synchronized int getEntries() {
+    return entries.size();
+  }
+
+  @Override
+  public synchronized long getSize() {
+    return size;
+  }
+
+  @Override
+  public synchronized void clear() {
+    entries.values().forEach(Entry::release);
+    entries.clear();
+    variants.clear();
+    size = 0;
+  }
+
+  private class CachingHandler implements Handler {
+    private final Handler handler;
+
+    private CachingHandler(Handler handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public void handle(Context ctx) throws Exception {
+      Request request = ctx.getRequest();
+      HttpMethod method = request.getMethod();
+      HttpHeaders requestHeaders = request.getHeaders().getNettyHeaders();
+      Map<String, String> cacheControl = cacheControl(requestHeaders);
+      if (!(method.isGet() || method.isHead()) || requestHeaders.contains(HttpHeaderConstants.AUTHORIZATION) || cacheControl.containsKey("no-store")) {
+        ctx.insert(handler);
+        return;
+      }
+
+      String primaryKey = method.getName() + " " + request.getRawUri();
+      boolean noCache = cacheControl.containsKey("no-cache") || requestHeaders.contains(HttpHeaderConstants.PRAGMA, HttpHeaderConstants.NO_CACHE, true);
+      if (!noCache) {
+        long now = System.nanoTime();
+        Lookup lookup = lookup(primaryKey, requestHeaders, now);
+        if (lookup != null) {
+          if (lookup.stale) {
+            staleHits.increment();
+            if (lookup.revalidate) {
+              revalidate(ctx, handler, lookup.entry);
+            }
+          } else {
+            hits.increment();
+          }
+          lookup.entry.send(ctx.getResponse(), now);
+          return;
+        }
+      }
+
+      misses.increment();
+      ResponseRecorder.record(ctx.getDirectChannelAccess().getChannel(), maxSize, result -> {
+        if (result.isSuccess()) {
+          Entry entry = toEntry(primaryKey, requestHeaders, result.getValue());
+          if (entry != null) {
+            replace(null, entry);
+          }
+        }
+      });
+      ctx.insert(handler);
+    }
+  }
+
+  private static class Lookup {
+    private final Entry entry;
+    private final boolean stale;
+    private final boolean revalidate;
+
+    private Lookup(Entry entry, boolean stale, boolean revalidate) {
+      this.entry = entry;
+      this.stale = stale;
+      this.revalidate = revalidate;
+    }
+  }
+
+  /**
+   * Finds the entry for the request, retaining its body for sending if it is fresh or can be served stale.
+   */
+  private synchronized Lookup lookup(String primaryKey, HttpHeaders requestHeaders, long now) {
+    Variants entryVariants = variants.get(primaryKey);
+    if (entryVariants == null) {
+      return null;
+    }
+
+    Entry entry = entries.get(key(primaryKey, entryVariants.names, requestHeaders));
+    if (entry == null) {
+      return null;
+    } else if (now - entry.freshUntil < 0) {
+      entry.retain();
+      return new Lookup(entry, false, false);
+    } else if (now - entry.staleUntil < 0) {
+      entry.retain();
+      boolean revalidate = !entry.revalidating;
+      entry.revalidating = true;
+      return new Lookup(entry, true, revalidate);
+    } else {
+      remove(entry);
+      return null;
+    }
+  }
+
+  /**
+   * Handles a copy of the request that produced the given stale entry in a new execution, replacing the entry with the response.
+   */
+  private void revalidate(Context ctx, Handler handler, Entry stale) {
+    Request request = ctx.getRequest();
+    Channel channel = ctx.getDirectChannelAccess().getChannel();
+    ExecControl execControl = ctx.getController().getControl();
+
+    HttpHeaders requestHeaders = new DefaultHttpHeaders(false).set(request.getHeaders().getNettyHeaders());
+    Request revalidationRequest = new DefaultRequest(
+      new NettyHeadersBackedHeaders(requestHeaders), io.netty.handler.codec.http.HttpMethod.valueOf(request.getMethod().getName()), request.getRawUri(),
+      (InetSocketAddress) channel.remoteAddress(), (InetSocketAddress) channel.localAddress(), Unpooled.EMPTY_BUFFER
+    );
+
+    HttpHeaders responseHeaders = new DefaultHttpHeaders(false);
+    RecordingResponseTransmitter transmitter = new RecordingResponseTransmitter(responseHeaders, channel.alloc(), maxSize, result ->
+      revalidated(stale, requestHeaders, result)
+    );
+    Response response = new DefaultResponse(execControl, new NettyHeadersBackedMutableHeaders(responseHeaders), channel.alloc(), transmitter);
+
+    DirectChannelAccess directChannelAccess = new DefaultDirectChannelAccess(channel, subscriber -> {
+      throw new UnsupportedOperationException("can't take over the channel when revalidating a cached response");
+    });
+
+    DefaultContext.RequestConstants requestConstants = new DefaultContext.RequestConstants(
+      new DefaultContext.ApplicationConstants(ctx, new DefaultRenderController(), Handlers.notFound()),
+      revalidationRequest, response, directChannelAccess, new DefaultEventController<RequestOutcome>().getRegistry()
+    );
+
+    DefaultContext.start(channel.eventLoop(), execControl, requestConstants, ctx, new Handler[]{handler}, execution -> {
+      if (!transmitter.isTransmitted()) {
+        revalidated(stale, requestHeaders, Result.failure(new IllegalStateException("no response sent for revalidation of " + stale.key)));
+      }
+    });
+  }
+
+  private void revalidated(Entry stale, HttpHeaders requestHeaders, Result<RecordedResponse> result) {
+    // Keep serving the stale response (until it expires) if the new one can't be had
+    if (result.isFailure()) {
+      revalidationFailed(stale);
+    } else if (result.getValue().getStatus().code() >= 500) {
+      result.getValue().release();
+      revalidationFailed(stale);
+    } else {
+      replace(stale, toEntry(stale.primaryKey, requestHeaders, result.getValue()));
+    }
+  }
+
+  private synchronized void revalidationFailed(Entry stale) {
+    stale.revalidating = false;
+  }
+
+  /**
+   * Replaces the entry (if not null and still cached) with the replacement (if not null), evicting entries as necessary.
+   */
+  private synchronized void replace(Entry entry, Entry replacement) {
+    if (entry != null && entries.get(entry.key) == entry) {
+      remove(entry);
+    }
+
+    if (replacement != null) {
+      Entry existing = entries.get(replacement.key);
+      if (existing != null) {
+        remove(existing);
+      }
+
+      entries.put(replacement.key, replacement);
+      Variants entryVariants = variants.get(replacement.primaryKey);
+      if (entryVariants == null) {
+        variants.put(replacement.primaryKey, new Variants(replacement.varyNames));
+      } else {
+        entryVariants.names = replacement.varyNames;
+        ++entryVariants.entries;
+      }
+      size += replacement.size();
+
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (size > maxSize && iterator.hasNext()) {
+        Entry eldest = iterator.next();
+        iterator.remove();
+        removed(eldest);
+        ++evictions;
+      }
+    }
+  }
+
+  private void remove(Entry entry) {
+    entries.remove(entry.key);
+    removed(entry);
+  }
+
+  private void removed(Entry entry) {
+    size -= entry.size();
+    Variants entryVariants = variants.get(entry.primaryKey);
+    if (--entryVariants.entries == 0) {
+      variants.remove(entry.primaryKey);
+    }
+    entry.release();
+  }
+
+  /**
+   * Creates an entry for the recorded response if it is cacheable, releasing the recorded response either way.
+   */
+  private Entry toEntry(String primaryKey, HttpHeaders requestHeaders, RecordedResponse recorded) {
+    try {
+      HttpHeaders headers = recorded.getHeaders();
+      if (!CACHEABLE_STATUSES.contains(recorded.getStatus().code()) || headers.contains(HttpHeaderConstants.SET_COOKIE) || recorded.getBody().readableBytes() > maxSize) {
+        return null;
+      }
+
+      Map<String, String> cacheControl = cacheControl(headers);
+      if (cacheControl.containsKey("private") || cacheControl.containsKey("no-store") || cacheControl.containsKey("no-cache")) {
+        return null;
+      }
+
+      List<String> varyNames = varyNames(headers);
+      if (varyNames == null) {
+        return null;
+      }
+
+      long maxAge = seconds(cacheControl, "s-maxage", seconds(cacheControl, "max-age", defaultMaxAgeNanos));
+      long staleWhileRevalidate = cacheControl.containsKey("must-revalidate") || cacheControl.containsKey("proxy-revalidate")
+        ? 0 : seconds(cacheControl, "stale-while-revalidate", staleWhileRevalidateNanos);
+      if (maxAge <= 0 && staleWhileRevalidate <= 0) {
+        return null;
+      }
+
+      ByteBuf content = recorded.getBody();
+      ByteBuf body = Unpooled.directBuffer(content.readableBytes(), content.readableBytes()).writeBytes(content, content.readerIndex(), content.readableBytes());
+      HttpHeaders entryHeaders = new DefaultHttpHeaders(false).set(headers).remove(HttpHeaderConstants.AGE);
+
+      long now = System.nanoTime();
+      return new Entry(
+        key(primaryKey, varyNames, requestHeaders), primaryKey, varyNames,
+        new RecordedResponse(recorded.getStatus(), entryHeaders, body), now, now + maxAge, now + maxAge + staleWhileRevalidate
+      );
+    } finally {
+      recorded.release();
+    }
+  }
+
+  private static String key(String primaryKey, List<String> varyNames, HttpHeaders requestHeaders) {
+    if (varyNames.isEmpty()) {
+      return primaryKey;
+    }
+
+    StringBuilder key = new StringBuilder(primaryKey);
+    for (String name : varyNames) {
+      key.append('\n').append(name).append(':').append(String.join(",", requestHeaders.getAll(name)));
+    }
+    return key.toString();
+  }
+
+  /**
+   * The lower case header names of the response's {@code Vary} header, or {@code null} if it is {@code *}.
+   * <p>
+   * Encoded responses always vary by {@code Accept-Encoding}, so that they are only served to clients that accept the encoding.
+   */
+  private static List<String> varyNames(HttpHeaders responseHeaders) {
+    Set<String> names = new LinkedHashSet<>();
+    for (String value : responseHeaders.getAll(HttpHeaderConstants.VARY)) {
+      for (String name : value.split(",")) {
+        name = name.trim().toLowerCase(Locale.ENGLISH);
+        if (name.equals("*")) {
+          return null;
+        } else if (!name.isEmpty()) {
+          names.add(name);
+        }
+      }
+    }
+    if (responseHeaders.contains(HttpHeaderConstants.CONTENT_ENCODING)) {
+      names.add(HttpHeaderConstants.ACCEPT_ENCODING.toString().toLowerCase(Locale.ENGLISH));
+    }
+    return ImmutableList.copyOf(names);
+  }
+
+  static Map<String, String> cacheControl(HttpHeaders headers) {
+    Map<String, String> directives = new HashMap<>();
+    for (String value : headers.getAll(HttpHeaderConstants.CACHE_CONTROL)) {
+      for (String directive : value.split(",")) {
+        int equals = directive.indexOf('=');
+        if (equals < 0) {
+          directives.put(directive.trim().toLowerCase(Locale.ENGLISH), "");
+        } else {
+          String argument = directive.substring(equals + 1).trim();
+          if (argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")) {
+            argument = argument.substring(1, argument.length() - 1);
+          }
+          directives.put(directive.substring(0, equals).trim().toLowerCase(Locale.ENGLISH), argument);
+        }
+      }
+    }
+    return directives;
+  }
+
+  /**
+   * The given directive's delta-seconds argument, in nanos.
+   */
+  private static long seconds(Map<String, String> cacheControl, String directive, long defaultNanos) {
+    String argument = cacheControl.get(directive);
+    if (argument == null) {
+      return defaultNanos;
+    }
+    try {
+      return TimeUnit.SECONDS.toNanos(Long.parseLong(argument));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static class Variants {
+    private List<String> names;
+    private int entries = 1;
+
+    private Variants(List<String> names) {
+      this.names = names;
+    }
+  }
+
+  private static class Entry {
+    private final String key;
+    private final String primaryKey;
+    private final List<String> varyNames;
+    private final RecordedResponse response;
+    private final long storedAt;
+    private final long freshUntil;
+    private final long staleUntil;
+    private boolean revalidating;
+
+    private Entry(String key, String primaryKey, List<String> varyNames, RecordedResponse response, long storedAt, long freshUntil, long staleUntil) {
+      this.key = key;
+      this.primaryKey = primaryKey;
+      this.varyNames = varyNames;
+      this.response = response;
+      this.storedAt = storedAt;
+      this.freshUntil = freshUntil;
+      this.staleUntil = staleUntil;
+    }
+
+    private long size() {
+      return response.getBody().readableBytes();
+    }
+
+    private void retain() {
+      response.getBody().retain();
+    }
+
+    private void release() {
+      response.release();
+    }
+
+    /**
+     * Sends this entry's response, which must have been retained for it.
+     */
+    private void send(Response response, long now) {
+      response.getHeaders().set(HttpHeaderConstants.AGE, TimeUnit.NANOSECONDS.toSeconds(now - storedAt));
+      this.response.send(response);
+    }
+  }
+
+}
@@ -19,11 +19,22 @@ package ratpack.handling.internal;
 import com.google.common.reflect.TypeToken;
 import ratpack.registry.Registry;
 
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Optional;
 
 public abstract class Extractions {
 
+  private static final Type OPTIONAL_VALUE_TYPE;
+
+  static {
+    try {
+      OPTIONAL_VALUE_TYPE = Optional.class.getMethod("get").getGenericReturnType();
+    } catch (NoSuchMethodException e) {
+      throw new InternalError("Optional class does not have get method");
+    }
+  }
+
   private Extractions() {
   }
 
@@ -37,12 +48,7 @@ public abstract class Extractions {
     for (int i = 0; i < types.size(); ++i) {
       TypeToken<?> type = types.get(i);
       if (type.getRawType().equals(Optional.class)) {
-        TypeToken<?> paramType;
-        try {
-          paramType = type.resolveType(Optional.class.getMethod("get").getGenericReturnType());
-        } catch (NoSuchMethodException e) {
-          throw new InternalError("Optional class does not have get method");
-        }
+        TypeToken<?> paramType = type.resolveType(OPTIONAL_VALUE_TYPE);
         Object optional = registry.maybeGet(paramType);
         services[i + startIndex] = optional;
 
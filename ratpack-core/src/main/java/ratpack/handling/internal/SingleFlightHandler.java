@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.HttpHeaders;
+import ratpack.exec.Result;
+import ratpack.exec.SingleFlight;
+import ratpack.handling.Context;
+import ratpack.handling.Handler;
+import ratpack.http.HttpMethod;
+import ratpack.http.Request;
+import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.server.internal.RecordedResponse;
+import ratpack.server.internal.ResponseRecorder;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SingleFlightHandler implements Handler {
+
+  private final SingleFlight<String, RecordedResponse> flights = SingleFlight.create();
+
+  @Override
+  public void handle(Context ctx) throws Exception {
+    Request request = ctx.getRequest();
+    HttpMethod method = request.getMethod();
+    if (!method.isGet() && !method.isHead()) {
+      ctx.next();
+      return;
+    }
+
+    // Responses may be compressed according to the accepted encodings
+    String acceptEncoding = request.getHeaders().get(HttpHeaderConstants.ACCEPT_ENCODING);
+    String key = method.getName() + " " + request.getRawUri() + (acceptEncoding == null ? "" : "\n" + acceptEncoding);
+    Channel channel = ctx.getDirectChannelAccess().getChannel();
+
+    ctx.<RecordedResponse>promise(fulfiller -> {
+      // Joins in another execution, as the request performing the flight has to proceed as soon as it starts it, not when it lands
+      AtomicBoolean performing = new AtomicBoolean();
+      ctx.exec().eventLoop(channel.eventLoop()).start(execution ->
+          flights.join(key, () -> {
+            performing.set(true);
+            return execution.getControl().<RecordedResponse>promise(recording -> {
+              ResponseRecorder.record(channel, result -> recording.accept(shareable(result)));
+              fulfiller.success(null);
+            });
+          }).asResult(result -> {
+            if (!performing.get()) {
+              // If the response couldn't be recorded or shared, the request is handled as if it was the only one
+              fulfiller.success(result.isSuccess() ? result.getValue() : null);
+            }
+          })
+      );
+    }).then(recorded -> {
+      if (recorded == null) {
+        ctx.next();
+      } else {
+        recorded.send(ctx.getResponse());
+      }
+    });
+  }
+
+  /**
+   * Copies the recorded response so that it can be sent to any number of waiting requests, unless it is specific to the request it was sent for.
+   * <p>
+   * The same responses that {@link DefaultResponseCache} refuses to store are refused here, as sharing them with other clients would leak their cookies or private content.
+   */
+  private static Result<RecordedResponse> shareable(Result<RecordedResponse> result) {
+    if (result.isFailure()) {
+      return result;
+    }
+
+    RecordedResponse recorded = result.getValue();
+    try {
+      HttpHeaders headers = recorded.getHeaders();
+      Map<String, String> cacheControl = DefaultResponseCache.cacheControl(headers);
+      if (headers.contains(HttpHeaderConstants.SET_COOKIE) || cacheControl.containsKey("private") || cacheControl.containsKey("no-store")) {
+        return Result.failure(new IllegalStateException("response is private to the request it was sent for"));
+      }
+
+      ByteBuf body = recorded.getBody();
+      byte[] bytes = new byte[body.readableBytes()];
+      body.getBytes(body.readerIndex(), bytes);
+      return Result.success(new RecordedResponse(recorded.getStatus(), headers, Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(bytes))));
+    } finally {
+      recorded.release();
+    }
+  }
+
+}
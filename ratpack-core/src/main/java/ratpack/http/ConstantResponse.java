@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http;
+
+import ratpack.func.Action;
+import ratpack.http.internal.DefaultConstantResponse;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A complete response whose status, headers and body never change, such as that of a health check or a static error page.
+ * <p>
+ * The response is encoded once when it is created, and {@link Response#send(ConstantResponse) sent} by writing the encoded bytes as is.
+ * This makes sending it considerably cheaper than building and encoding the same response for each request.
+ * The encoded bytes are held in a direct (off heap) buffer for the life of the response, so constant responses should be created once (e.g. when the application starts) and shared.
+ * <p>
+ * Constant responses are never compressed, and do not include the {@code X-Response-Time} header even if {@link ratpack.server.ServerConfig#isTimeResponses() response timing} is enabled.
+ *
+ * <pre class="java">{@code
+ * import ratpack.handling.Handlers;
+ * import ratpack.http.ConstantResponse;
+ * import ratpack.test.embed.EmbeddedApp;
+ *
+ * import static org.junit.Assert.assertEquals;
+ *
+ * public class Example {
+ *   public static void main(String... args) throws Exception {
+ *     ConstantResponse ok = ConstantResponse.of(200, "text/plain", "OK");
+ *     EmbeddedApp.fromHandler(Handlers.constant(ok))
+ *       .test(httpClient -> {
+ *         assertEquals("OK", httpClient.getText());
+ *         assertEquals("text/plain", httpClient.getResponse().getHeaders().get("Content-Type"));
+ *       });
+ *   }
+ * }
+ * }</pre>
+ *
+ * @see ratpack.handling.Handlers#constant(ConstantResponse)
+ */
+public interface ConstantResponse {
+
+  /**
+   * Creates a constant response with the given status, content type and body, encoded as UTF-8.
+   *
+   * @param status the status code
+   * @param contentType the value of the {@code Content-Type} header
+   * @param body the response body
+   * @return a constant response
+   */
+  static ConstantResponse of(int status, CharSequence contentType, String body) {
+    return of(status, contentType, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Creates a constant response with the given status, content type and body.
+   *
+   * @param status the status code
+   * @param contentType the value of the {@code Content-Type} header
+   * @param body the response body
+   * @return a constant response
+   */
+  static ConstantResponse of(int status, CharSequence contentType, byte[] body) {
+    return DefaultConstantResponse.of(status, contentType, body);
+  }
+
+  /**
+   * Creates a constant response with the given status, headers and body.
+   * <p>
+   * The {@code Content-Length} header is always set to the length of the body.
+   *
+   * @param status the status code
+   * @param headers an action that sets the response headers
+   * @param body the response body
+   * @return a constant response
+   * @throws Exception any thrown by {@code headers}
+   */
+  static ConstantResponse of(int status, Action<? super MutableHeaders> headers, byte[] body) throws Exception {
+    return DefaultConstantResponse.of(status, headers, body);
+  }
+
+  /**
+   * The status of the response.
+   *
+   * @return the status of the response
+   */
+  Status getStatus();
+
+  /**
+   * The headers of the response, including {@code Content-Length}.
+   *
+   * @return the headers of the response
+   */
+  Headers getHeaders();
+
+}
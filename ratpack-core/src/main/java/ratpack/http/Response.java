@@ -104,6 +104,18 @@ public interface Response extends ResponseMetaData {
   @NonBlocking
   void send(CharSequence contentType, ByteBuf buffer);
 
+  /**
+   * Sends the given constant response.
+   * <p>
+   * The status, headers and body of the constant response are sent, and its status replaces that of this response.
+   * If headers or cookies have been set on this response, or {@link #beforeSend(Action) before send actions} registered, they are applied and the constant response is sent as if by {@link #send(ByteBuf)}.
+   * Otherwise, its pre-encoded form is written directly to the connection.
+   *
+   * @param response the response to send
+   */
+  @NonBlocking
+  void send(ConstantResponse response);
+
   @Override
   Response contentType(CharSequence contentType);
 
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client;
+
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.NetUtil;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SNIServerName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static ratpack.util.ExceptionUtils.uncheck;
+
+/**
+ * The TLS configuration used by the {@link HttpClient} for {@code https} requests.
+ * <p>
+ * The server registry holds one instance, shared by every request.
+ * Each connection's engine is created with the peer's host and port.
+ * This lets a later connection to the same server resume a session from the SSL context's client session cache, instead of performing a full handshake.
+ * Session tickets are used where the context's provider supports them.
+ * <p>
+ * When using Guice, bind a different instance (e.g. {@code HttpClientSsl.of(sslContext).protocols("TLSv1.2")}) to use a different SSL context, protocols or cipher suites.
+ */
+public final class HttpClientSsl {
+
+  private final SSLContext sslContext;
+  private String[] protocols;
+  private String[] cipherSuites;
+  private boolean sni = true;
+
+  private final LongAdder handshakes = new LongAdder();
+  private final LongAdder resumedHandshakes = new LongAdder();
+
+  private HttpClientSsl(SSLContext sslContext) {
+    this.sslContext = sslContext;
+  }
+
+  /**
+   * Creates a configuration that uses the given SSL context.
+   *
+   * @param sslContext the context to create engines from
+   * @return a new configuration
+   */
+  public static HttpClientSsl of(SSLContext sslContext) {
+    return new HttpClientSsl(sslContext);
+  }
+
+  /**
+   * Creates a configuration with its own SSL context, using the JVM's default trust managers.
+   * <p>
+   * The context is not the JVM's {@link SSLContext#getDefault() default SSL context}, so that the session cache settings of this configuration don't affect other users of that context.
+   * As it has no key managers, it does not present a client certificate; use {@link #of(SSLContext)} with a context of your own for that.
+   *
+   * @return a new configuration
+   */
+  public static HttpClientSsl defaults() {
+    return of(uncheck(() -> {
+      SSLContext sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(null, null, null);
+      return sslContext;
+    }));
+  }
+
+  /**
+   * The protocols to enable, instead of the context's defaults.
+   *
+   * @param protocols the protocols to enable (e.g. {@code "TLSv1.2"})
+   * @return this
+   */
+  public HttpClientSsl protocols(String... protocols) {
+    this.protocols = protocols.clone();
+    return this;
+  }
+
+  /**
+   * The cipher suites to enable, instead of the context's defaults.
+   *
+   * @param cipherSuites the cipher suites to enable
+   * @return this
+   */
+  public HttpClientSsl cipherSuites(String... cipherSuites) {
+    this.cipherSuites = cipherSuites.clone();
+    return this;
+  }
+
+  /**
+   * Whether to send the server name indication extension with the request's host name.
+   * <p>
+   * Defaults to {@code true}.
+   * The extension is never sent for hosts given as IP addresses.
+   *
+   * @param sni whether to send the server name indication extension
+   * @return this
+   */
+  public HttpClientSsl sni(boolean sni) {
+    this.sni = sni;
+    return this;
+  }
+
+  /**
+   * The maximum number of sessions to keep in the context's client session cache.
+   * <p>
+   * This changes the session context of the {@link #getSslContext() SSL context}, which is shared with anything else using that context.
+   *
+   * @param size the maximum number of sessions, or {@code 0} for no limit
+   * @return this
+   */
+  public HttpClientSsl sessionCacheSize(int size) {
+    sslContext.getClientSessionContext().setSessionCacheSize(size);
+    return this;
+  }
+
+  /**
+   * How long sessions in the context's client session cache can be resumed for.
+   * <p>
+   * This changes the session context of the {@link #getSslContext() SSL context}, which is shared with anything else using that context.
+   *
+   * @param timeout how long sessions can be resumed for
+   * @return this
+   */
+  public HttpClientSsl sessionTimeout(Duration timeout) {
+    sslContext.getClientSessionContext().setSessionTimeout((int) timeout.getSeconds());
+    return this;
+  }
+
+  public SSLContext getSslContext() {
+    return sslContext;
+  }
+
+  /**
+   * The number of handshakes completed, including resumptions.
+   *
+   * @return the number of handshakes completed
+   */
+  public long getHandshakes() {
+    return handshakes.sum();
+  }
+
+  /**
+   * The number of handshakes that resumed an existing session.
+   *
+   * @return the number of handshakes that resumed an existing session
+   */
+  public long getResumedHandshakes() {
+    return resumedHandshakes.sum();
+  }
+
+  /**
+   * Creates a client mode engine for a connection to the given peer.
+   *
+   * @param host the host name of the peer, as given in the request URL
+   * @param port the port of the peer
+   * @return a new engine
+   */
+  public SSLEngine createEngine(String host, int port) {
+    SSLEngine engine = sslContext.createSSLEngine(host, port);
+    engine.setUseClientMode(true);
+
+    SSLParameters parameters = engine.getSSLParameters();
+    if (protocols != null) {
+      parameters.setProtocols(protocols);
+    }
+    if (cipherSuites != null) {
+      parameters.setCipherSuites(cipherSuites);
+    }
+    parameters.setServerNames(sni ? serverNames(host) : Collections.emptyList());
+    engine.setSSLParameters(parameters);
+
+    return engine;
+  }
+
+  /**
+   * Creates the handler for a connection to the given peer, counting its handshake.
+   *
+   * @param host the host name of the peer, as given in the request URL
+   * @param port the port of the peer
+   * @return a new handler
+   */
+  public SslHandler createHandler(String host, int port) {
+    SSLEngine engine = createEngine(host, port);
+    SslHandler handler = new SslHandler(engine);
+    long start = System.currentTimeMillis();
+    handler.handshakeFuture().addListener(future -> {
+      if (future.isSuccess()) {
+        handshakes.increment();
+        // A resumed session was created by an earlier handshake
+        if (engine.getSession().getCreationTime() < start) {
+          resumedHandshakes.increment();
+        }
+      }
+    });
+    return handler;
+  }
+
+  private static List<SNIServerName> serverNames(String host) {
+    if (host.startsWith("[") || NetUtil.isValidIpV4Address(host) || NetUtil.isValidIpV6Address(host)) {
+      return Collections.emptyList();
+    }
+    try {
+      return Collections.singletonList(new SNIHostName(host));
+    } catch (IllegalArgumentException e) {
+      // not a name that can be sent in the extension (e.g. one with underscores)
+      return Collections.emptyList();
+    }
+  }
+
+}
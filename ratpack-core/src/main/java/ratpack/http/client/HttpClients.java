@@ -19,6 +19,7 @@ package ratpack.http.client;
 import io.netty.buffer.ByteBufAllocator;
 import ratpack.exec.ExecController;
 import ratpack.http.client.internal.DefaultHttpClient;
+import ratpack.http.client.internal.HostResolver;
 import ratpack.server.ServerConfig;
 import ratpack.registry.Registry;
 
@@ -28,11 +29,18 @@ public abstract class HttpClients {
   }
 
   public static HttpClient httpClient(ServerConfig serverConfig, Registry registry) {
-    return new DefaultHttpClient(registry.get(ExecController.class), registry.get(ByteBufAllocator.class), serverConfig.getMaxContentLength());
+    ExecController execController = registry.get(ExecController.class);
+    HostResolver hostResolver = registry.maybeGet(HostResolver.class).orElseGet(() -> HostResolver.system(execController));
+    HttpClientSsl ssl = registry.maybeGet(HttpClientSsl.class).orElseGet(HttpClientSsl::defaults);
+    return new DefaultHttpClient(execController, registry.get(ByteBufAllocator.class), serverConfig.getMaxContentLength(), hostResolver, ssl);
   }
 
   public static HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
-    return new DefaultHttpClient(execController, byteBufAllocator, maxContentLengthBytes);
+    return httpClient(execController, byteBufAllocator, maxContentLengthBytes, HttpClientSsl.defaults());
+  }
+
+  public static HttpClient httpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes, HttpClientSsl ssl) {
+    return new DefaultHttpClient(execController, byteBufAllocator, maxContentLengthBytes, HostResolver.system(execController), ssl);
   }
 
 }
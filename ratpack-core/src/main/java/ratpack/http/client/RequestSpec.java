@@ -17,12 +17,14 @@
 package ratpack.http.client;
 
 import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
 
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Duration;
 
 import static java.time.temporal.ChronoUnit.SECONDS;
@@ -65,6 +67,22 @@ public interface RequestSpec {
 
   RequestSpec readTimeout(Duration duration);
 
+  /**
+   * Whether to ask for a compressed response and decompress it as it is received.
+   * <p>
+   * By default, if an {@code "Accept-Encoding"} header has not been set, one of {@code "gzip, deflate"} is sent
+   * and a {@code gzip} or {@code deflate} encoded response is decompressed before it is made available.
+   * The received response will then not have the {@code "Content-Encoding"} and {@code "Content-Length"} of the compressed content.
+   * If an {@code "Accept-Encoding"} header has been set, the response is received as it was sent, as for {@code false}.
+   * <p>
+   * Pass {@code false} to receive the response exactly as it was sent, e.g. when relaying it with {@link StreamedResponse#forwardTo(ratpack.http.Response)}.
+   * The {@code "Accept-Encoding"} header is then only sent if it has been set (e.g. copied from the request being relayed).
+   *
+   * @param decompressResponse whether to request and decompress compressed responses
+   * @return this
+   */
+  RequestSpec decompressResponse(boolean decompressResponse);
+
   /**
    * The body of the request, used for specifying the body content.
    *
@@ -141,6 +159,32 @@ public interface RequestSpec {
      */
     Body bytes(byte[] bytes);
 
+    /**
+     * Specifies the request body as a stream of byte buffers.
+     * <p>
+     * The buffers are written to the server as they are emitted, using a {@code "Transfer-Encoding"} of {@code "chunked"}
+     * unless a {@code "Content-Length"} header has been set.
+     * More buffers are only requested from the publisher while the connection to the server can be written to,
+     * so the body is never held in memory as a whole.
+     * <p>
+     * The publisher is subscribed to once for each request made, including any made to follow redirects.
+     *
+     * @param publisher the intended request body
+     * @return this
+     */
+    Body publisher(Publisher<? extends ByteBuf> publisher);
+
+    /**
+     * Specifies the request body as the content of a file.
+     * <p>
+     * The {@code "Content-Length"} header is set to the size of the file.
+     * Over plain HTTP, files of the default file system are transferred to the connection without being copied into memory.
+     *
+     * @param file the file whose content is the intended request body
+     * @return this
+     */
+    Body file(Path file);
+
     /**
      * Specifies the request body as a UTF-8 char sequence.
      * <p>
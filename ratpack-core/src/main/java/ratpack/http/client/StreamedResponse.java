@@ -76,4 +76,29 @@ public interface StreamedResponse {
    * @param headerMutator an action that will act on the outgoing response headers
    */
   void send(Response response, Action<? super MutableHeaders> headerMutator);
+
+  /**
+   * @see #forwardTo(ratpack.http.Response, ratpack.func.Action)
+   */
+  void forwardTo(Response response);
+
+  /**
+   * Relay this received response to the given server response, as a reverse proxy would.
+   * <p>
+   * Unlike {@link #send(ratpack.http.Response, ratpack.func.Action)}, the {@code content-length} header is kept when the
+   * received response has one, so the content is sent as is rather than re-chunked.
+   * Hop-by-hop headers (e.g. {@code connection}, {@code keep-alive} and {@code transfer-encoding}) are not copied, as they only apply to the received connection.
+   * Outgoing response headers can be added and modified with the given header mutating {@link ratpack.func.Action}.
+   * <p>
+   * The received content buffers are written to the server response without being copied.
+   * Reading from the connection this response was received on is paused whenever the server response's connection isn't writable,
+   * and resumed when it is, so that a slow client limits how much content is read instead of it being buffered.
+   * <p>
+   * The request body to relay can be given to the outgoing request with {@link RequestSpec.Body#buffer(io.netty.buffer.ByteBuf)},
+   * which uses the received request's buffer without copying it.
+   *
+   * @param response the server response to relay to
+   * @param headerMutator an action that will act on the outgoing response headers
+   */
+  void forwardTo(Response response, Action<? super MutableHeaders> headerMutator);
 }
@@ -28,6 +28,7 @@ import ratpack.exec.Fulfiller;
 import ratpack.func.Action;
 import ratpack.http.Headers;
 import ratpack.http.Status;
+import ratpack.http.client.HttpClientSsl;
 import ratpack.http.client.ReceivedResponse;
 import ratpack.http.client.RequestSpec;
 import ratpack.http.internal.*;
@@ -38,8 +39,8 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   private final int maxContentLengthBytes;
 
-  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  public ContentAggregatingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HostResolver hostResolver, HttpClientSsl ssl, int maxContentLengthBytes) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, hostResolver, ssl);
     this.maxContentLengthBytes = maxContentLengthBytes;
   }
 
@@ -68,7 +69,7 @@ class ContentAggregatingRequestAction extends RequestActionSupport<ReceivedRespo
 
   @Override
   protected RequestActionSupport<ReceivedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, maxContentLengthBytes);
+    return new ContentAggregatingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, hostResolver, ssl, maxContentLengthBytes);
   }
 
   private static ByteBuf initBufferReleaseOnExecutionClose(final ByteBuf responseBuffer, Execution execution) {
@@ -16,12 +16,17 @@
 
 package ratpack.http.client.internal;
 
+import com.google.common.collect.ImmutableList;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.AsciiString;
+import io.netty.handler.codec.PrematureChannelClosureException;
 import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.LastHttpContent;
 import org.reactivestreams.Publisher;
@@ -34,6 +39,7 @@ import ratpack.http.Headers;
 import ratpack.http.MutableHeaders;
 import ratpack.http.Response;
 import ratpack.http.Status;
+import ratpack.http.client.HttpClientSsl;
 import ratpack.http.client.RequestSpec;
 import ratpack.http.client.StreamedResponse;
 import ratpack.http.internal.DefaultStatus;
@@ -43,20 +49,30 @@ import ratpack.stream.Streams;
 import ratpack.stream.TransformablePublisher;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static ratpack.util.ExceptionUtils.uncheck;
 
 class ContentStreamingRequestAction extends RequestActionSupport<StreamedResponse> {
+
+  // RFC 7230, section 6.1
+  private static final List<CharSequence> HOP_BY_HOP_HEADERS = ImmutableList.of(
+    HttpHeaderConstants.CONNECTION, new AsciiString("keep-alive"), HttpHeaderConstants.TRANSFER_ENCODING,
+    HttpHeaderNames.TE, HttpHeaderNames.TRAILER, HttpHeaderNames.UPGRADE, HttpHeaderNames.PROXY_AUTHENTICATE, HttpHeaderNames.PROXY_AUTHORIZATION
+  );
+
   private final AtomicBoolean subscribedTo = new AtomicBoolean();
 
-  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
-    super(requestConfigurer, uri, execution, byteBufAllocator);
+  public ContentStreamingRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HostResolver hostResolver, HttpClientSsl ssl) {
+    super(requestConfigurer, uri, execution, byteBufAllocator, hostResolver, ssl);
   }
 
   @Override
   protected RequestActionSupport<StreamedResponse> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl) {
-    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator);
+    return new ContentStreamingRequestAction(redirectRequestConfig, locationUrl, execution, byteBufAllocator, hostResolver, ssl);
   }
 
   @Override
@@ -135,6 +151,30 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
       response.status(this.status);
       response.sendStream(getBody());
     }
+
+    @Override
+    public void forwardTo(Response response) {
+      forwardTo(response, Action.noop());
+    }
+
+    @Override
+    public void forwardTo(Response response, Action<? super MutableHeaders> headerMutator) {
+      MutableHeaders responseHeaders = response.getHeaders();
+      responseHeaders.copy(this.headers);
+      for (CharSequence name : HOP_BY_HOP_HEADERS) {
+        responseHeaders.remove(name);
+      }
+      try {
+        headerMutator.execute(responseHeaders);
+      } catch (Exception e) {
+        throw uncheck(e);
+      }
+      if (!responseHeaders.contains(HttpHeaderConstants.CONTENT_LENGTH)) {
+        responseHeaders.set(HttpHeaderConstants.TRANSFER_ENCODING, HttpHeaderConstants.CHUNKED);
+      }
+      response.status(this.status);
+      response.sendStream(new ForwardingContentPublisher(channelPipeline));
+    }
   }
 
   private class HttpContentPublisher implements Publisher<ByteBuf> {
@@ -197,4 +237,136 @@ class ContentStreamingRequestAction extends RequestActionSupport<StreamedRespons
     }
   }
 
+  /**
+   * Emits the content buffers as they are read, reading while there is outstanding demand.
+   * <p>
+   * The server response transmitter only requests more while its channel is writable,
+   * so auto reading is switched off when the client's connection backs up and back on when it drains.
+   * A single read may decode more content than was requested, which is held until it is.
+   * All state other than whether the stream has stopped is confined to the channel's event loop.
+   */
+  private class ForwardingContentPublisher implements Publisher<ByteBuf> {
+    private final ChannelPipeline channelPipeline;
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final Deque<ByteBuf> pending = new ArrayDeque<>();
+    private Subscriber<? super ByteBuf> subscriber;
+    private long demand;
+    private boolean received;
+    private boolean draining;
+
+    public ForwardingContentPublisher(ChannelPipeline channelPipeline) {
+      this.channelPipeline = channelPipeline;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super ByteBuf> subscriber) {
+      subscribedTo.compareAndSet(false, true);
+      this.subscriber = subscriber;
+
+      channelPipeline.remove("httpResponseHandler");
+      channelPipeline.addLast("httpContentHandler", new SimpleChannelInboundHandler<HttpContent>(false) {
+        @Override
+        public void channelRead0(ChannelHandlerContext ctx, HttpContent msg) throws Exception {
+          ByteBuf content = msg.content();
+          if (stopped.get() || !content.isReadable()) {
+            content.release();
+          } else {
+            pending.add(content);
+          }
+
+          if (msg instanceof LastHttpContent) {
+            received = true;
+          }
+          drain();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+          if (!received && stopped.compareAndSet(false, true)) {
+            releasePending();
+            subscriber.onError(new PrematureChannelClosureException("Connection closed before the response was fully received"));
+          }
+          super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+          if (stopped.compareAndSet(false, true)) {
+            releasePending();
+            subscriber.onError(cause);
+          }
+
+          if (ctx.channel().isOpen()) {
+            ctx.close();
+          }
+        }
+      });
+
+      subscriber.onSubscribe(new Subscription() {
+        @Override
+        public void request(long n) {
+          if (n < 1) {
+            throw new IllegalArgumentException("3.9 While the Subscription is not cancelled, Subscription.request(long n) MUST throw a java.lang.IllegalArgumentException if the argument is <= 0.");
+          }
+
+          if (!stopped.get()) {
+            onEventLoop(() -> {
+              demand = demand + n < demand ? Long.MAX_VALUE : demand + n;
+              drain();
+            });
+          }
+        }
+
+        @Override
+        public void cancel() {
+          stopped.set(true);
+          onEventLoop(ForwardingContentPublisher.this::releasePending);
+          channelPipeline.channel().close();
+        }
+      });
+    }
+
+    private void onEventLoop(Runnable runnable) {
+      EventLoop eventLoop = channelPipeline.channel().eventLoop();
+      if (eventLoop.inEventLoop()) {
+        runnable.run();
+      } else {
+        eventLoop.execute(runnable);
+      }
+    }
+
+    // Requests made while emitting (i.e. from onNext) are served by the loop already under way
+    private void drain() {
+      if (draining) {
+        return;
+      }
+      draining = true;
+      try {
+        while (demand > 0 && !pending.isEmpty() && !stopped.get()) {
+          --demand;
+          subscriber.onNext(pending.poll());
+        }
+
+        if (stopped.get()) {
+          releasePending();
+        } else if (received) {
+          if (pending.isEmpty() && stopped.compareAndSet(false, true)) {
+            subscriber.onComplete();
+          }
+        } else {
+          channelPipeline.channel().config().setAutoRead(demand > 0);
+        }
+      } finally {
+        draining = false;
+      }
+    }
+
+    private void releasePending() {
+      ByteBuf content;
+      while ((content = pending.poll()) != null) {
+        content.release();
+      }
+    }
+  }
+
 }
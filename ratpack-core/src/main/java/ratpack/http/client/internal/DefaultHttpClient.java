@@ -23,6 +23,7 @@ import ratpack.exec.Execution;
 import ratpack.exec.Promise;
 import ratpack.func.Action;
 import ratpack.http.client.HttpClient;
+import ratpack.http.client.HttpClientSsl;
 import ratpack.http.client.ReceivedResponse;
 import ratpack.http.client.RequestSpec;
 import ratpack.http.client.StreamedResponse;
@@ -36,10 +37,14 @@ public class DefaultHttpClient implements HttpClient {
   private final ExecController execController;
   private final ByteBufAllocator byteBufAllocator;
   private final int maxContentLengthBytes;
+  private final HostResolver hostResolver;
+  private final HttpClientSsl ssl;
 
-  public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes) {
+  public DefaultHttpClient(ExecController execController, ByteBufAllocator byteBufAllocator, int maxContentLengthBytes, HostResolver hostResolver, HttpClientSsl ssl) {
     this.execController = execController;
     this.byteBufAllocator = byteBufAllocator;
+    this.hostResolver = hostResolver;
+    this.ssl = ssl;
     this.maxContentLengthBytes = maxContentLengthBytes;
   }
 
@@ -66,7 +71,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, maxContentLengthBytes);
+      ContentAggregatingRequestAction requestAction = new ContentAggregatingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, hostResolver, ssl, maxContentLengthBytes);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -79,7 +84,7 @@ public class DefaultHttpClient implements HttpClient {
     final Execution execution = execControl.getExecution();
 
     try {
-      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator);
+      ContentStreamingRequestAction requestAction = new ContentStreamingRequestAction(requestConfigurer, uri, execution, byteBufAllocator, hostResolver, ssl);
       return execController.getControl().promise(requestAction);
     } catch (Exception e) {
       throw uncheck(e);
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import io.netty.channel.EventLoop;
+import io.netty.handler.codec.dns.DnsQuestion;
+import io.netty.handler.codec.dns.DnsResource;
+import io.netty.handler.codec.dns.DnsResponse;
+import io.netty.handler.codec.dns.DnsResponseCode;
+import io.netty.handler.codec.dns.DnsType;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsServerAddresses;
+import io.netty.util.NetUtil;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import ratpack.api.Nullable;
+import ratpack.exec.ExecController;
+import ratpack.util.internal.ChannelImplDetector;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Resolves host names for the HTTP client without blocking the event loop.
+ * <p>
+ * Queries are sent to the name servers asynchronously, from the event loop of the requesting execution.
+ * Answers are cached for the TTL of their records, bounded by the minimum and maximum TTL, and failed lookups are cached for the negative TTL.
+ * When a name has several addresses, successive resolutions rotate through them.
+ * <p>
+ * Names the name servers can't answer (e.g. those only defined in the hosts file) are looked up with the JDK resolver on the blocking executor, if one is given.
+ */
+public class HostResolver implements AutoCloseable {
+
+  public static final int DEFAULT_MIN_TTL = 0;
+  public static final int DEFAULT_MAX_TTL = 300;
+  public static final int DEFAULT_NEGATIVE_TTL = 10;
+
+  // The JDK doesn't expose the TTL of its answers, so use its default positive cache time
+  private static final int FALLBACK_TTL = 30;
+
+  private static final ConcurrentMap<ExecController, HostResolver> SHARED = new ConcurrentHashMap<>();
+
+  private final Iterable<InetSocketAddress> nameServers;
+  private final ExecutorService blockingExecutor;
+  private final int minTtl;
+  private final int maxTtl;
+  private final int negativeTtl;
+
+  private final ConcurrentMap<EventLoop, DnsNameResolver> resolvers = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder resolutionNanos = new LongAdder();
+
+  public HostResolver(Iterable<InetSocketAddress> nameServers, @Nullable ExecutorService blockingExecutor, int minTtl, int maxTtl, int negativeTtl) {
+    if (minTtl < 0 || maxTtl < minTtl || negativeTtl < 0) {
+      throw new IllegalArgumentException("invalid TTLs (min: " + minTtl + ", max: " + maxTtl + ", negative: " + negativeTtl + ")");
+    }
+    this.nameServers = nameServers;
+    this.blockingExecutor = blockingExecutor;
+    this.minTtl = minTtl;
+    this.maxTtl = maxTtl;
+    this.negativeTtl = negativeTtl;
+  }
+
+  /**
+   * A resolver that uses the name servers configured for the system, falling back to the JDK resolver on the given executor.
+   *
+   * @param blockingExecutor the executor to perform fallback lookups on
+   * @return a new resolver
+   */
+  public static HostResolver system(ExecutorService blockingExecutor) {
+    return new HostResolver(DnsServerAddresses.defaultAddresses(), blockingExecutor, DEFAULT_MIN_TTL, DEFAULT_MAX_TTL, DEFAULT_NEGATIVE_TTL);
+  }
+
+  /**
+   * The system resolver shared by everything using the given exec controller.
+   * <p>
+   * The resolver is created on first use and closed when the exec controller's event loops terminate,
+   * so that clients created on the fly don't each leak a set of name resolver channels.
+   *
+   * @param execController the exec controller whose blocking executor and event loops the resolver is used with
+   * @return the resolver shared for the exec controller
+   */
+  public static HostResolver system(ExecController execController) {
+    HostResolver shared = SHARED.get(execController);
+    if (shared != null) {
+      return shared;
+    }
+
+    HostResolver resolver = system(execController.getBlockingExecutor());
+    shared = SHARED.putIfAbsent(execController, resolver);
+    if (shared != null) {
+      return shared;
+    }
+
+    execController.getEventLoopGroup().terminationFuture().addListener(future -> {
+      SHARED.remove(execController, resolver);
+      resolver.close();
+    });
+    return resolver;
+  }
+
+  public Future<InetAddress> resolve(String host, EventLoop eventLoop) {
+    String name = host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+    byte[] literal = NetUtil.createByteArrayFromIpAddressString(name);
+    if (literal != null) {
+      try {
+        return eventLoop.newSucceededFuture(InetAddress.getByAddress(literal));
+      } catch (UnknownHostException e) {
+        return eventLoop.newFailedFuture(e);
+      }
+    }
+
+    name = name.toLowerCase(Locale.ENGLISH);
+    if (name.equals("localhost")) {
+      return eventLoop.newSucceededFuture(InetAddress.getLoopbackAddress());
+    }
+
+    Promise<InetAddress> promise = eventLoop.newPromise();
+    Entry entry = cache.get(name);
+    if (entry != null && !entry.isExpired(System.nanoTime())) {
+      cacheHits.increment();
+      entry.complete(promise);
+    } else {
+      lookup(name, eventLoop, promise);
+    }
+    return promise;
+  }
+
+  public void invalidate() {
+    cache.clear();
+  }
+
+  public long getLookups() {
+    return lookups.sum();
+  }
+
+  public long getCacheHits() {
+    return cacheHits.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  /**
+   * The total time spent waiting for lookups, including failed ones.
+   *
+   * @return the total time spent waiting for lookups, in nanoseconds
+   */
+  public long getResolutionTimeNanos() {
+    return resolutionNanos.sum();
+  }
+
+  @Override
+  public void close() {
+    resolvers.values().forEach(DnsNameResolver::close);
+    resolvers.clear();
+  }
+
+  private void lookup(String name, EventLoop eventLoop, Promise<InetAddress> promise) {
+    long start = System.nanoTime();
+    lookups.increment();
+    query(name, eventLoop, DnsType.A, ipv4 -> {
+      if (ipv4.addresses.isEmpty()) {
+        query(name, eventLoop, DnsType.AAAA, ipv6 -> {
+          if (ipv6.addresses.isEmpty()) {
+            fallback(name, start, promise);
+          } else {
+            succeed(name, ipv6, start, promise);
+          }
+        });
+      } else {
+        succeed(name, ipv4, start, promise);
+      }
+    });
+  }
+
+  private void query(String name, EventLoop eventLoop, DnsType type, Consumer<Answer> then) {
+    resolver(eventLoop).query(new DnsQuestion(name, type)).addListener((FutureListener<DnsResponse>) future -> {
+      Answer answer = new Answer();
+      if (future.isSuccess()) {
+        DnsResponse response = future.getNow();
+        try {
+          if (response.header().responseCode().equals(DnsResponseCode.NOERROR)) {
+            answer.read(name, type, response);
+          }
+        } finally {
+          response.release();
+        }
+      }
+      then.accept(answer);
+    });
+  }
+
+  private DnsNameResolver resolver(EventLoop eventLoop) {
+    // Caching is done here, across all of the event loops, instead of by each loop's resolver
+    return resolvers.computeIfAbsent(eventLoop, loop ->
+        new DnsNameResolver(loop, ChannelImplDetector.getDatagramChannelImpl(), nameServers)
+          .setTtl(0, 0)
+          .setNegativeTtl(0)
+    );
+  }
+
+  private void fallback(String name, long start, Promise<InetAddress> promise) {
+    if (blockingExecutor == null) {
+      fail(name, new UnknownHostException(name), start, promise);
+    } else {
+      blockingExecutor.execute(() -> {
+        try {
+          Answer answer = new Answer();
+          answer.addresses.addAll(Arrays.asList(InetAddress.getAllByName(name)));
+          answer.ttl = FALLBACK_TTL;
+          succeed(name, answer, start, promise);
+        } catch (UnknownHostException e) {
+          fail(name, e, start, promise);
+        }
+      });
+    }
+  }
+
+  private void succeed(String name, Answer answer, long start, Promise<InetAddress> promise) {
+    long now = System.nanoTime();
+    resolutionNanos.add(now - start);
+    long ttl = Math.max(minTtl, Math.min(maxTtl, answer.ttl));
+    Entry entry = new Entry(answer.addresses, null, now + TimeUnit.SECONDS.toNanos(ttl));
+    if (ttl > 0) {
+      cache.put(name, entry);
+    }
+    entry.complete(promise);
+  }
+
+  private void fail(String name, UnknownHostException failure, long start, Promise<InetAddress> promise) {
+    long now = System.nanoTime();
+    resolutionNanos.add(now - start);
+    failures.increment();
+    Entry entry = new Entry(null, failure, now + TimeUnit.SECONDS.toNanos(negativeTtl));
+    if (negativeTtl > 0) {
+      cache.put(name, entry);
+    }
+    entry.complete(promise);
+  }
+
+  private static class Answer {
+    final List<InetAddress> addresses = new ArrayList<>(4);
+    long ttl = Long.MAX_VALUE;
+
+    void read(String name, DnsType type, DnsResponse response) throws UnknownHostException {
+      int length = type.equals(DnsType.A) ? 4 : 16;
+      for (DnsResource resource : response.answers()) {
+        if (resource.type().equals(type) && resource.content().readableBytes() == length) {
+          byte[] bytes = new byte[length];
+          resource.content().getBytes(resource.content().readerIndex(), bytes);
+          addresses.add(InetAddress.getByAddress(name, bytes));
+          ttl = Math.min(ttl, resource.timeToLive());
+        }
+      }
+    }
+  }
+
+  private static class Entry {
+    private final List<InetAddress> addresses;
+    private final UnknownHostException failure;
+    private final long expiresAt;
+    private final AtomicInteger next = new AtomicInteger();
+
+    Entry(List<InetAddress> addresses, UnknownHostException failure, long expiresAt) {
+      this.addresses = addresses;
+      this.failure = failure;
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(long now) {
+      return now - expiresAt >= 0;
+    }
+
+    void complete(Promise<InetAddress> promise) {
+      if (failure == null) {
+        promise.trySuccess(addresses.get(Math.floorMod(next.getAndIncrement(), addresses.size())));
+      } else {
+        promise.tryFailure(failure);
+      }
+    }
+  }
+
+}
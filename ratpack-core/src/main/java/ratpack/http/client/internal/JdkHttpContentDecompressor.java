@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.JdkZlibDecoder;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMessage;
+import io.netty.handler.codec.http.HttpObject;
+import ratpack.http.internal.HttpHeaderConstants;
+
+import java.util.List;
+
+/**
+ * Decompresses {@code gzip} and {@code deflate} encoded content using the JDK's zlib support.
+ * <p>
+ * Netty's own decompressor uses JZlib unless the {@code io.netty.noJdkZlibDecoder} system property is {@code false}, and JZlib is not a dependency.
+ * <p>
+ * Decoded messages are left without a {@code Content-Encoding} header, rather than Netty's {@code identity},
+ * as that value stops the server compressing the response if the message is relayed.
+ */
+class JdkHttpContentDecompressor extends HttpContentDecompressor {
+
+  @Override
+  protected EmbeddedChannel newContentDecoder(String contentEncoding) throws Exception {
+    if ("gzip".equalsIgnoreCase(contentEncoding) || "x-gzip".equalsIgnoreCase(contentEncoding)) {
+      return new EmbeddedChannel(new JdkZlibDecoder(ZlibWrapper.GZIP));
+    } else if ("deflate".equalsIgnoreCase(contentEncoding) || "x-deflate".equalsIgnoreCase(contentEncoding)) {
+      return new EmbeddedChannel(new JdkZlibDecoder(ZlibWrapper.ZLIB));
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
+    int first = out.size();
+    super.decode(ctx, msg, out);
+    for (int i = first; i < out.size(); ++i) {
+      Object decoded = out.get(i);
+      if (decoded instanceof HttpMessage) {
+        HttpHeaders headers = ((HttpMessage) decoded).headers();
+        if (HttpHeaderConstants.IDENTITY.toString().equalsIgnoreCase(headers.get(HttpHeaderConstants.CONTENT_ENCODING))) {
+          headers.remove(HttpHeaderConstants.CONTENT_ENCODING);
+        }
+      }
+    }
+  }
+
+}
@@ -17,18 +17,23 @@
 package ratpack.http.client.internal;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.*;
-import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedNioStream;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.concurrent.Future;
+import org.reactivestreams.Publisher;
 import ratpack.exec.Execution;
 import ratpack.exec.Fulfiller;
 import ratpack.func.Action;
 import ratpack.http.Headers;
 import ratpack.http.MutableHeaders;
 import ratpack.http.Status;
+import ratpack.http.client.HttpClientSsl;
 import ratpack.http.client.RequestSpec;
 import ratpack.http.internal.DefaultStatus;
 import ratpack.http.internal.HttpHeaderConstants;
@@ -36,9 +41,15 @@ import ratpack.http.internal.NettyHeadersBackedHeaders;
 import ratpack.http.internal.NettyHeadersBackedMutableHeaders;
 import ratpack.util.internal.ChannelImplDetector;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.SSLEngine;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
@@ -57,13 +68,18 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
   private final RequestSpecBacking requestSpecBacking;
   private final URI uri;
   private final RequestParams requestParams;
+  private final boolean decompressResponse;
   private final AtomicBoolean fired = new AtomicBoolean();
 
   protected final Execution execution;
   protected final ByteBufAllocator byteBufAllocator;
+  protected final HostResolver hostResolver;
+  protected final HttpClientSsl ssl;
 
-  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
+  public RequestActionSupport(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HostResolver hostResolver, HttpClientSsl ssl) {
     this.execution = execution;
+    this.hostResolver = hostResolver;
+    this.ssl = ssl;
     this.requestConfigurer = requestConfigurer;
     this.byteBufAllocator = byteBufAllocator;
     this.uri = uri;
@@ -77,6 +93,9 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
       throw uncheck(e);
     }
 
+    // A caller that asked for an encoding itself gets the response as encoded
+    this.decompressResponse = requestParams.decompressResponse && headers.get(HttpHeaderConstants.ACCEPT_ENCODING) == null;
+
     String scheme = uri.getScheme();
     boolean useSsl = false;
     if (scheme.equals("https")) {
@@ -102,12 +121,13 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
           ChannelPipeline p = ch.pipeline();
 
           if (finalUseSsl) {
-            SSLEngine engine = SSLContext.getDefault().createSSLEngine();
-            engine.setUseClientMode(true);
-            p.addLast("ssl", new SslHandler(engine));
+            p.addLast("ssl", ssl.createHandler(host, port));
           }
 
           p.addLast("codec", new HttpClientCodec());
+          if (decompressResponse) {
+            p.addLast("decompressor", new JdkHttpContentDecompressor());
+          }
           p.addLast("readTimeout", new ReadTimeoutHandler(requestParams.readTimeoutNanos, TimeUnit.NANOSECONDS));
 
           p.addLast("redirectHandler", new SimpleChannelInboundHandler<HttpObject>(false) {
@@ -160,33 +180,57 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
         }
       });
 
-    ChannelFuture connectFuture = b.connect(host, port);
+    Future<InetAddress> resolveFuture = hostResolver.resolve(host, execution.getEventLoop());
+    resolveFuture.addListener(f0 -> {
+      if (resolveFuture.isSuccess()) {
+        connect(b, new InetSocketAddress(resolveFuture.getNow(), port), fulfiller);
+      } else {
+        error(fulfiller, resolveFuture.cause());
+      }
+    });
+  }
+
+  private void connect(Bootstrap b, InetSocketAddress address, Fulfiller<? super T> fulfiller) {
+    ChannelFuture connectFuture = b.connect(address);
     connectFuture.addListener(f1 -> {
       if (connectFuture.isSuccess()) {
+        Channel channel = connectFuture.channel();
         String fullPath = getFullPath(uri);
-        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(requestSpecBacking.getMethod()), fullPath, requestSpecBacking.getBody());
+        HttpMethod method = HttpMethod.valueOf(requestSpecBacking.getMethod());
         if (headers.get(HttpHeaderConstants.HOST) == null) {
           headers.set(HttpHeaderConstants.HOST, host);
         }
         headers.set(HttpHeaderConstants.CONNECTION, HttpHeaderValues.CLOSE);
-        int contentLength = request.content().readableBytes();
-        if (contentLength > 0) {
-          headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
-        }
-
-        HttpHeaders requestHeaders = request.headers();
-
-        for (String name : headers.getNames()) {
-          requestHeaders.set(name, headers.getAll(name));
+        if (decompressResponse) {
+          headers.set(HttpHeaderConstants.ACCEPT_ENCODING, HttpHeaderConstants.GZIP_DEFLATE);
         }
 
-        ChannelFuture writeFuture = connectFuture.channel().writeAndFlush(request);
-        writeFuture.addListener(f2 -> {
-          if (!writeFuture.isSuccess()) {
-            writeFuture.channel().close();
-            error(fulfiller, writeFuture.cause());
+        Publisher<? extends ByteBuf> bodyPublisher = requestSpecBacking.getBodyPublisher();
+        Path bodyFile = requestSpecBacking.getBodyFile();
+        if (bodyPublisher != null) {
+          if (headers.get(HttpHeaderConstants.CONTENT_LENGTH) == null) {
+            headers.set(HttpHeaderConstants.TRANSFER_ENCODING, HttpHeaderConstants.CHUNKED);
+          }
+          HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath);
+          writeRequest(channel, request, fulfiller);
+          StreamedRequestBodyWriter bodyWriter = new StreamedRequestBodyWriter(channel, e -> error(fulfiller, e));
+          channel.pipeline().addLast("requestBodyWriter", bodyWriter);
+          bodyPublisher.subscribe(bodyWriter);
+        } else if (bodyFile != null) {
+          try {
+            writeFile(channel, fullPath, method, bodyFile, fulfiller);
+          } catch (IOException e) {
+            channel.close();
+            error(fulfiller, e);
+          }
+        } else {
+          FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, fullPath, requestSpecBacking.getBody());
+          int contentLength = request.content().readableBytes();
+          if (contentLength > 0) {
+            headers.set(HttpHeaderConstants.CONTENT_LENGTH, Integer.toString(contentLength, 10));
           }
-        });
+          writeRequest(channel, request, fulfiller);
+        }
       } else {
         connectFuture.channel().close();
         error(fulfiller, connectFuture.cause());
@@ -194,6 +238,42 @@ abstract class RequestActionSupport<T> implements RequestAction<T> {
     });
   }
 
+  private void writeFile(Channel channel, String fullPath, HttpMethod method, Path file, Fulfiller<? super T> fulfiller) throws IOException {
+    if (!finalUseSsl && file.getFileSystem().equals(FileSystems.getDefault())) {
+      FileChannel fileChannel = FileChannel.open(file);
+      long size = fileChannel.size();
+      headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(size));
+      writeRequest(channel, new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath), fulfiller);
+      channel.write(new DefaultFileRegion(fileChannel, 0, size));
+      write(channel, LastHttpContent.EMPTY_LAST_CONTENT, fulfiller);
+    } else {
+      // The content has to pass through the SSL engine, so is read in chunks
+      SeekableByteChannel fileChannel = Files.newByteChannel(file);
+      headers.set(HttpHeaderConstants.CONTENT_LENGTH, Long.toString(fileChannel.size()));
+      channel.pipeline().addLast("chunkedWriter", new ChunkedWriteHandler());
+      writeRequest(channel, new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, fullPath), fulfiller);
+      write(channel, new HttpChunkedInput(new ChunkedNioStream(fileChannel)), fulfiller);
+    }
+  }
+
+  private void writeRequest(Channel channel, HttpRequest request, Fulfiller<? super T> fulfiller) {
+    HttpHeaders requestHeaders = request.headers();
+    for (String name : headers.getNames()) {
+      requestHeaders.set(name, headers.getAll(name));
+    }
+    write(channel, request, fulfiller);
+  }
+
+  private void write(Channel channel, Object msg, Fulfiller<? super T> fulfiller) {
+    ChannelFuture writeFuture = channel.writeAndFlush(msg);
+    writeFuture.addListener(f2 -> {
+      if (!writeFuture.isSuccess()) {
+        writeFuture.channel().close();
+        error(fulfiller, writeFuture.cause());
+      }
+    });
+  }
+
   protected abstract RequestAction<T> buildRedirectRequestAction(Action<? super RequestSpec> redirectRequestConfig, URI locationUrl);
 
   protected abstract void addResponseHandlers(ChannelPipeline p, Fulfiller<? super T> fulfiller);
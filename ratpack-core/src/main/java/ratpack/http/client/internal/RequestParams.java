@@ -21,5 +21,6 @@ import java.time.Duration;
 class RequestParams {
 
   long readTimeoutNanos = Duration.ofSeconds(30).toNanos();
+  boolean decompressResponse = true;
 
 }
@@ -22,6 +22,7 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.util.CharsetUtil;
+import org.reactivestreams.Publisher;
 import ratpack.api.Nullable;
 import ratpack.func.Action;
 import ratpack.http.MutableHeaders;
@@ -31,6 +32,7 @@ import ratpack.http.internal.HttpHeaderConstants;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.time.Duration;
 
 class RequestSpecBacking {
@@ -41,6 +43,8 @@ class RequestSpecBacking {
   private final RequestParams requestParams;
 
   private ByteBuf bodyByteBuf;
+  private Publisher<? extends ByteBuf> bodyPublisher;
+  private Path bodyFile;
 
   private String method = "GET";
   private int maxRedirects = 10;
@@ -66,6 +70,16 @@ class RequestSpecBacking {
     return bodyByteBuf;
   }
 
+  @Nullable
+  public Publisher<? extends ByteBuf> getBodyPublisher() {
+    return bodyPublisher;
+  }
+
+  @Nullable
+  public Path getBodyFile() {
+    return bodyFile;
+  }
+
   public RequestSpec asSpec() {
     return new Spec();
   }
@@ -109,11 +123,19 @@ class RequestSpecBacking {
       return this;
     }
 
+    @Override
+    public RequestSpec decompressResponse(boolean decompressResponse) {
+      requestParams.decompressResponse = decompressResponse;
+      return this;
+    }
+
     private void setBodyByteBuf(ByteBuf byteBuf) {
       if (bodyByteBuf != null) {
         bodyByteBuf.release();
       }
       bodyByteBuf = byteBuf;
+      bodyPublisher = null;
+      bodyFile = null;
     }
 
 
@@ -150,6 +172,20 @@ class RequestSpecBacking {
         return this;
       }
 
+      @Override
+      public Body publisher(Publisher<? extends ByteBuf> publisher) {
+        setBodyByteBuf(Unpooled.EMPTY_BUFFER);
+        bodyPublisher = publisher;
+        return this;
+      }
+
+      @Override
+      public Body file(Path file) {
+        setBodyByteBuf(Unpooled.EMPTY_BUFFER);
+        bodyFile = file;
+        return this;
+      }
+
       @Override
       public Body text(CharSequence text) {
         return text(text, CharsetUtil.UTF_8);
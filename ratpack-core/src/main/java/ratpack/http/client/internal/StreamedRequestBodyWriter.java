@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Writes a published request body to the channel, only requesting more while the channel is writable.
+ * <p>
+ * Sits in the pipeline to be notified when the channel becomes writable again.
+ */
+class StreamedRequestBodyWriter extends ChannelInboundHandlerAdapter implements Subscriber<ByteBuf> {
+
+  private final Channel channel;
+  private final Consumer<? super Throwable> onError;
+  private final AtomicBoolean done = new AtomicBoolean();
+  private final ChannelFutureListener cancelOnFailure = future -> {
+    if (!future.isSuccess()) {
+      fail(future.cause());
+    }
+  };
+
+  private volatile Subscription subscription;
+
+  public StreamedRequestBodyWriter(Channel channel, Consumer<? super Throwable> onError) {
+    this.channel = channel;
+    this.onError = onError;
+  }
+
+  @Override
+  public void onSubscribe(Subscription s) {
+    if (subscription != null || done.get()) {
+      s.cancel();
+      return;
+    }
+
+    subscription = s;
+    if (channel.isWritable()) {
+      s.request(1);
+    }
+  }
+
+  @Override
+  public void onNext(ByteBuf byteBuf) {
+    if (done.get() || !channel.isOpen()) {
+      byteBuf.release();
+      return;
+    }
+
+    channel.writeAndFlush(new DefaultHttpContent(byteBuf)).addListener(cancelOnFailure);
+    if (channel.isWritable()) {
+      subscription.request(1);
+    }
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    if (done.compareAndSet(false, true)) {
+      channel.close();
+      onError.accept(t);
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    if (done.compareAndSet(false, true)) {
+      channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+    }
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel().isWritable() && subscription != null && !done.get()) {
+      subscription.request(1);
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (done.compareAndSet(false, true) && subscription != null) {
+      subscription.cancel();
+    }
+    super.channelInactive(ctx);
+  }
+
+  private void fail(Throwable cause) {
+    if (done.compareAndSet(false, true)) {
+      subscription.cancel();
+      channel.close();
+      onError.accept(cause);
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * The message written to the channel for a {@link DefaultConstantResponse}.
+ * <p>
+ * It is a complete response as far as the rest of the pipeline is concerned, but is written as its pre-encoded bytes
+ * by {@link ratpack.server.internal.ConstantResponseEncoder} instead of being encoded again.
+ * The headers are shared by all messages for the same response, so must not be modified.
+ */
+public class ConstantHttpResponse extends DefaultFullHttpResponse {
+
+  private final HttpHeaders headers;
+  private final ByteBuf encoded;
+
+  /**
+   * Constructor.
+   *
+   * @param status the status of the response
+   * @param headers the (shared) headers of the response
+   * @param encoded the encoded response, which is not retained
+   * @param body the body of the response, which is released with this message
+   */
+  public ConstantHttpResponse(HttpResponseStatus status, HttpHeaders headers, ByteBuf encoded, ByteBuf body) {
+    super(HttpVersion.HTTP_1_1, status, body, false);
+    this.headers = headers;
+    this.encoded = encoded;
+  }
+
+  @Override
+  public HttpHeaders headers() {
+    return headers;
+  }
+
+  /**
+   * A retained duplicate of the encoded response, for writing to the channel.
+   *
+   * @return the encoded response
+   */
+  public ByteBuf encoded() {
+    return encoded.duplicate().retain();
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import ratpack.func.Action;
+import ratpack.http.ConstantResponse;
+import ratpack.http.Headers;
+import ratpack.http.MutableHeaders;
+import ratpack.http.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DefaultConstantResponse implements ConstantResponse {
+
+  private final HttpResponseStatus nettyStatus;
+  private final Status status;
+  private final HttpHeaders nettyHeaders;
+  private final Headers headers;
+  private final HttpHeaders keepAliveHeaders;
+  private final int bodyLength;
+  private final ByteBuf encoded;
+  private final ByteBuf keepAliveEncoded;
+
+  private DefaultConstantResponse(HttpResponseStatus status, HttpHeaders headers, byte[] body) {
+    headers.set(HttpHeaderConstants.CONTENT_LENGTH, body.length);
+    this.nettyStatus = status;
+    this.status = new DefaultStatus(status);
+    this.nettyHeaders = headers;
+    this.headers = new NettyHeadersBackedHeaders(headers);
+    this.keepAliveHeaders = new DefaultHttpHeaders(false).set(headers).set(HttpHeaderConstants.CONNECTION, HttpHeaderConstants.KEEP_ALIVE);
+    this.bodyLength = body.length;
+    this.encoded = encode(status, headers, body);
+    this.keepAliveEncoded = encode(status, keepAliveHeaders, body);
+  }
+
+  public static ConstantResponse of(int status, CharSequence contentType, byte[] body) {
+    return new DefaultConstantResponse(HttpResponseStatus.valueOf(status), new DefaultHttpHeaders(false).set(HttpHeaderConstants.CONTENT_TYPE, contentType), body);
+  }
+
+  public static ConstantResponse of(int status, Action<? super MutableHeaders> headers, byte[] body) throws Exception {
+    HttpHeaders nettyHeaders = new DefaultHttpHeaders(false);
+    headers.execute(new NettyHeadersBackedMutableHeaders(nettyHeaders));
+    return new DefaultConstantResponse(HttpResponseStatus.valueOf(status), nettyHeaders, body);
+  }
+
+  // Encodes the response exactly as it would be if sent normally, into a buffer of exactly its size
+  private static ByteBuf encode(HttpResponseStatus status, HttpHeaders headers, byte[] body) {
+    EmbeddedChannel channel = new EmbeddedChannel(new HttpResponseEncoder());
+    channel.writeOutbound(new CustomHttpResponse(status, headers), new DefaultLastHttpContent(Unpooled.wrappedBuffer(body)));
+    channel.finish();
+
+    List<ByteBuf> parts = new ArrayList<>();
+    int length = 0;
+    for (ByteBuf part = channel.readOutbound(); part != null; part = channel.readOutbound()) {
+      parts.add(part);
+      length += part.readableBytes();
+    }
+
+    ByteBuf encoded = Unpooled.directBuffer(length, length);
+    for (ByteBuf part : parts) {
+      encoded.writeBytes(part);
+      part.release();
+    }
+    return encoded;
+  }
+
+  @Override
+  public Status getStatus() {
+    return status;
+  }
+
+  @Override
+  public Headers getHeaders() {
+    return headers;
+  }
+
+  public HttpResponseStatus getNettyStatus() {
+    return nettyStatus;
+  }
+
+  /**
+   * The headers of the response, which must not be modified.
+   *
+   * @return the headers of the response
+   */
+  public HttpHeaders getNettyHeaders() {
+    return nettyHeaders;
+  }
+
+  public int getBodyLength() {
+    return bodyLength;
+  }
+
+  /**
+   * A retained slice of the body of the response.
+   *
+   * @return the body of the response
+   */
+  public ByteBuf getBody() {
+    return body(encoded);
+  }
+
+  /**
+   * A new message for the response, to be written to a connection.
+   *
+   * @param keepAlive whether the connection is to be kept alive
+   * @return a message that writes the pre-encoded response
+   */
+  public ConstantHttpResponse newMessage(boolean keepAlive) {
+    ByteBuf encoded = keepAlive ? keepAliveEncoded : this.encoded;
+    return new ConstantHttpResponse(nettyStatus, keepAlive ? keepAliveHeaders : nettyHeaders, encoded, body(encoded));
+  }
+
+  // The body is the end of the encoded response, as it is neither chunked nor compressed
+  private ByteBuf body(ByteBuf encoded) {
+    return encoded.slice(encoded.readableBytes() - bodyLength, bodyLength).retain();
+  }
+
+}
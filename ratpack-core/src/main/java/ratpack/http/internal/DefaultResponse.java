@@ -260,6 +260,20 @@ public class DefaultResponse implements Response {
     commit(buffer);
   }
 
+  @Override
+  public void send(ConstantResponse response) {
+    DefaultConstantResponse constantResponse = (DefaultConstantResponse) response;
+    status = constantResponse.getNettyStatus();
+    if (responseFinalizers.isEmpty() && (cookies == null || cookies.isEmpty()) && headers.getNames().isEmpty()) {
+      responseTransmitter.transmit(constantResponse);
+    } else {
+      for (String name : response.getHeaders().getNames()) {
+        headers.set(name, response.getHeaders().getAll(name));
+      }
+      commit(constantResponse.getBody());
+    }
+  }
+
   @Override
   public void sendFile(BasicFileAttributes attributes, Path file) {
     finalizeResponse();
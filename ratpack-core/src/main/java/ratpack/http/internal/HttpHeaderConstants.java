@@ -32,6 +32,8 @@ public abstract class HttpHeaderConstants {
   public static final CharSequence CONNECTION = HttpHeaderNames.CONNECTION;
   public static final CharSequence KEEP_ALIVE = HttpHeaderValues.KEEP_ALIVE;
   public static final CharSequence CONTENT_ENCODING = HttpHeaderNames.CONTENT_ENCODING;
+  public static final CharSequence ACCEPT_ENCODING = HttpHeaderNames.ACCEPT_ENCODING;
+  public static final CharSequence GZIP_DEFLATE = new AsciiString(HttpHeaderValues.GZIP + ", " + HttpHeaderValues.DEFLATE);
   public static final CharSequence IDENTITY = HttpHeaderValues.IDENTITY;
   public static final CharSequence TRANSFER_ENCODING = HttpHeaderNames.TRANSFER_ENCODING;
   public static final CharSequence CHUNKED = HttpHeaderValues.CHUNKED;
@@ -42,6 +44,9 @@ public abstract class HttpHeaderConstants {
   public static final CharSequence MAX_AGE = HttpHeaderValues.MAX_AGE;
   public static final CharSequence MUST_REVALIDATE = HttpHeaderValues.MUST_REVALIDATE;
   public static final CharSequence NO_CACHE_FULL = new AsciiString(NO_CACHE + ", " + NO_STORE + ", " + MAX_AGE + "=0, " + MUST_REVALIDATE);
+  public static final CharSequence AGE = HttpHeaderNames.AGE;
+  public static final CharSequence VARY = HttpHeaderNames.VARY;
+  public static final CharSequence AUTHORIZATION = HttpHeaderNames.AUTHORIZATION;
   public static final CharSequence HOST = HttpHeaderNames.HOST;
   public static final CharSequence COOKIE = HttpHeaderNames.COOKIE;
   public static final CharSequence SET_COOKIE = HttpHeaderNames.SET_COOKIE;
@@ -48,6 +48,10 @@ public class DefaultServerConfig implements ServerConfig {
   private final long compressionMinSize;
   private final ImmutableSet<String> compressionMimeTypeWhiteList;
   private final ImmutableSet<String> compressionMimeTypeBlackList;
+  private final int compressionLevel;
+  private final int compressionWindowBits;
+  private final ImmutableList<String> compressionEncodings;
+  private final long compressionBlockingMinSize;
 
   public DefaultServerConfig(
     FileSystemBinding baseDir,
@@ -64,7 +68,11 @@ public class DefaultServerConfig implements ServerConfig {
     boolean compressResponses,
     long compressionMinSize,
     ImmutableSet<String> compressionMimeTypeWhiteList,
-    ImmutableSet<String> compressionMimeTypeBlackList
+    ImmutableSet<String> compressionMimeTypeBlackList,
+    int compressionLevel,
+    int compressionWindowBits,
+    ImmutableList<String> compressionEncodings,
+    long compressionBlockingMinSize
   ) {
     this.baseDir = baseDir;
     this.port = port;
@@ -76,6 +84,10 @@ public class DefaultServerConfig implements ServerConfig {
     this.compressionMinSize = compressionMinSize;
     this.compressionMimeTypeWhiteList = compressionMimeTypeWhiteList;
     this.compressionMimeTypeBlackList = compressionMimeTypeBlackList;
+    this.compressionLevel = compressionLevel;
+    this.compressionWindowBits = compressionWindowBits;
+    this.compressionEncodings = compressionEncodings;
+    this.compressionBlockingMinSize = compressionBlockingMinSize;
     this.publicAddress = publicAddress;
     this.indexFiles = indexFiles;
     this.other = other;
@@ -150,6 +162,26 @@ public class DefaultServerConfig implements ServerConfig {
     return compressionMimeTypeBlackList;
   }
 
+  @Override
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  @Override
+  public int getCompressionWindowBits() {
+    return compressionWindowBits;
+  }
+
+  @Override
+  public ImmutableList<String> getCompressionEncodings() {
+    return compressionEncodings;
+  }
+
+  @Override
+  public long getCompressionBlockingMinSize() {
+    return compressionBlockingMinSize;
+  }
+
   @Override
   public boolean isHasBaseDir() {
     return baseDir != null;
@@ -16,6 +16,7 @@
 
 package ratpack.server;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteSource;
 import ratpack.api.Nullable;
@@ -29,6 +30,7 @@ import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -60,6 +62,21 @@ public interface ServerConfig {
    */
   public long DEFAULT_COMPRESSION_MIN_SIZE = 1024;
 
+  /**
+   * The default compression level, {@value}.
+   */
+  public int DEFAULT_COMPRESSION_LEVEL = 6;
+
+  /**
+   * The default compression window size (as a base 2 logarithm), {@value}.
+   */
+  public int DEFAULT_COMPRESSION_WINDOW_BITS = 15;
+
+  /**
+   * The default content encodings to compress responses with, in order of preference.
+   */
+  public ImmutableList<String> DEFAULT_COMPRESSION_ENCODINGS = ImmutableList.of("gzip", "deflate");
+
   static Builder embedded() {
     return noBaseDir().development(true).port(0);
   }
@@ -208,6 +225,53 @@ public interface ServerConfig {
    */
   public ImmutableSet<String> getCompressionMimeTypeBlackList();
 
+  /**
+   * The level to compress responses at.
+   * <p>
+   * For {@code gzip} and {@code deflate}, this is from 0 (no compression) to 9 (best compression).
+   * The same value is used as the {@code br} quality and the {@code zstd} level (where 0 means 1).
+   *
+   * @return the level to compress responses at
+   */
+  public int getCompressionLevel();
+
+  /**
+   * The size of the compression window (the history used to find repeated content), as a base 2 logarithm.
+   * <p>
+   * From 9 to 15 for {@code gzip} and {@code deflate}, and used as the {@code br} window size (raised to 10 if lower).
+   * Larger windows compress better but use more memory per compressed response.
+   * Values other than 15 require JZlib to be available for {@code gzip} and {@code deflate}, as the JDK's zlib only supports 15.
+   *
+   * @return the size of the compression window
+   */
+  public int getCompressionWindowBits();
+
+  /**
+   * The content encodings that responses may be compressed with, in order of preference.
+   * <p>
+   * The encoding used is the one accepted by the client with the highest quality value (i.e. {@code q} parameter).
+   * If more than one have the same quality value, the earliest in this list is used.
+   * <p>
+   * Supported encodings are {@code gzip}, {@code deflate}, {@code br} and {@code zstd}.
+   * The latter two are only used if <a href="https://github.com/hyperxpro/Brotli4j">Brotli4j</a> and <a href="https://github.com/luben/zstd-jni">zstd-jni</a> respectively are available,
+   * and are otherwise ignored.
+   *
+   * @return the content encodings that responses may be compressed with
+   */
+  public ImmutableList<String> getCompressionEncodings();
+
+  /**
+   * The minimum size at which responses are compressed on a blocking thread, instead of the event loop, in bytes.
+   * <p>
+   * Compressing large responses on the event loop delays the IO of every other connection that the event loop serves.
+   * This only applies to responses sent as a single buffer (e.g. rendered or sent as bytes or text), not files or streams.
+   * A value of {@code 0} (the default) means that responses are always compressed on the event loop.
+   *
+   * @return the minimum size at which responses are compressed on a blocking thread
+   * @see ratpack.exec.ExecControl#blocking(java.util.concurrent.Callable)
+   */
+  public long getCompressionBlockingMinSize();
+
   /**
    * Whether or not the base dir of the application has been set.
    *
@@ -374,6 +438,51 @@ public interface ServerConfig {
      */
     Builder compressionBlackListMimeTypes(List<String> mimeTypes);
 
+    /**
+     * The level to compress responses at.
+     *
+     * @param compressionLevel the level to compress responses at, from 0 to 9
+     * @return this
+     * @see ServerConfig#getCompressionLevel()
+     */
+    Builder compressionLevel(int compressionLevel);
+
+    /**
+     * The size of the compression window, as a base 2 logarithm.
+     *
+     * @param compressionWindowBits the size of the compression window, from 9 to 15
+     * @return this
+     * @see ServerConfig#getCompressionWindowBits()
+     */
+    Builder compressionWindowBits(int compressionWindowBits);
+
+    /**
+     * Sets the content encodings that responses may be compressed with, in order of preference.
+     *
+     * @param encodings the content encodings that responses may be compressed with
+     * @return this
+     * @see ServerConfig#getCompressionEncodings()
+     */
+    Builder compressionEncodings(String... encodings);
+
+    /**
+     * Sets the content encodings that responses may be compressed with, in order of preference.
+     *
+     * @param encodings the content encodings that responses may be compressed with
+     * @return this
+     * @see ServerConfig#getCompressionEncodings()
+     */
+    Builder compressionEncodings(List<String> encodings);
+
+    /**
+     * The minimum size at which responses are compressed on a blocking thread, in bytes.
+     *
+     * @param compressionBlockingMinSize the minimum size at which responses are compressed on a blocking thread, or {@code 0} to never do so
+     * @return this
+     * @see ServerConfig#getCompressionBlockingMinSize()
+     */
+    Builder compressionBlockingMinSize(long compressionBlockingMinSize);
+
     /**
      * Adds the given values as potential index file names.
      *
@@ -402,6 +511,32 @@ public interface ServerConfig {
      */
     Builder ssl(SSLContext sslContext);
 
+    /**
+     * The maximum number of sessions to keep in the SSL context's server session cache, so that clients can resume them.
+     * <p>
+     * If not set, the context's own setting is kept.
+     * The setting is applied to the session context of the {@link #ssl(SSLContext) given SSL context} when the config is built,
+     * so it also applies to anything else that uses the same context.
+     *
+     * @param size the maximum number of sessions, or {@code 0} for no limit
+     * @return this
+     * @see javax.net.ssl.SSLSessionContext#setSessionCacheSize(int)
+     */
+    Builder sslSessionCacheSize(int size);
+
+    /**
+     * How long sessions in the SSL context's server session cache can be resumed for.
+     * <p>
+     * If not set, the context's own setting is kept.
+     * The setting is applied to the session context of the {@link #ssl(SSLContext) given SSL context} when the config is built,
+     * so it also applies to anything else that uses the same context.
+     *
+     * @param timeout how long sessions can be resumed for
+     * @return this
+     * @see javax.net.ssl.SSLSessionContext#setSessionTimeout(int)
+     */
+    Builder sslSessionTimeout(Duration timeout);
+
     /**
      * Add an "other" property.
      *
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import ratpack.http.internal.ConstantHttpResponse;
+
+import java.util.List;
+
+/**
+ * Encodes responses, writing {@link ConstantHttpResponse constant responses} as their pre-encoded bytes.
+ */
+public class ConstantResponseEncoder extends HttpResponseEncoder {
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception {
+    if (msg instanceof ConstantHttpResponse) {
+      // A complete response, so leaves the encoder ready for the next
+      out.add(((ConstantHttpResponse) msg).encoded());
+    } else {
+      super.encode(ctx, msg, out);
+    }
+  }
+
+}
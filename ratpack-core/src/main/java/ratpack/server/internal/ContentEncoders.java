@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.server.ServerConfig;
+
+import java.util.List;
+
+/**
+ * The content encodings that responses are compressed with, as configured by the server config.
+ */
+public class ContentEncoders {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ContentEncoders.class);
+
+  private static final int JDK_ZLIB_WINDOW_BITS = 15;
+
+  private final ImmutableList<ContentEncoding> encodings;
+  private final int level;
+  private final int windowBits;
+  private final int zlibWindowBits;
+
+  public ContentEncoders(ServerConfig serverConfig) {
+    this(serverConfig.getCompressionEncodings(), serverConfig.getCompressionLevel(), serverConfig.getCompressionWindowBits());
+  }
+
+  public ContentEncoders(List<String> encodings, int level, int windowBits) {
+    ImmutableList.Builder<ContentEncoding> available = ImmutableList.builder();
+    for (String name : encodings) {
+      ContentEncoding encoding = ContentEncoding.of(name);
+      if (encoding == null) {
+        throw new IllegalArgumentException("unsupported compression encoding '" + name + "' (supported: " + ContentEncoding.NAMES + ")");
+      } else if (encoding.isAvailable()) {
+        available.add(encoding);
+      } else {
+        LOGGER.debug("Not compressing responses with '{}' as its implementation is not available", name);
+      }
+    }
+
+    this.encodings = available.build();
+    this.level = level;
+    this.windowBits = windowBits;
+
+    if (windowBits != JDK_ZLIB_WINDOW_BITS && !isJZlibAvailable()) {
+      LOGGER.warn("Compression window bits of {} requires JZlib for gzip and deflate, using {} for those encodings", windowBits, JDK_ZLIB_WINDOW_BITS);
+      this.zlibWindowBits = JDK_ZLIB_WINDOW_BITS;
+    } else {
+      this.zlibWindowBits = windowBits;
+    }
+  }
+
+  private static boolean isJZlibAvailable() {
+    try {
+      Class.forName("com.jcraft.jzlib.Deflater", false, ContentEncoders.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * The encodings that are configured and available, in order of preference.
+   *
+   * @return the encodings that are configured and available
+   */
+  public ImmutableList<ContentEncoding> getEncodings() {
+    return encodings;
+  }
+
+  /**
+   * Selects the encoding to compress a response with for the given {@code Accept-Encoding} request header.
+   * <p>
+   * The acceptable encoding with the highest quality value wins, with ties going to the most preferred.
+   *
+   * @param acceptEncoding the value of the request's {@code Accept-Encoding} header, may be {@code null}
+   * @return the encoding to use, or {@code null} if the response should not be compressed
+   */
+  public ContentEncoding select(String acceptEncoding) {
+    if (acceptEncoding == null || encodings.isEmpty()) {
+      return null;
+    }
+
+    float[] qualities = new float[encodings.size()];
+    float wildcard = -1;
+    for (String coding : acceptEncoding.split(",")) {
+      String name = coding;
+      float quality = 1;
+      int semicolon = coding.indexOf(';');
+      if (semicolon >= 0) {
+        name = coding.substring(0, semicolon);
+        quality = quality(coding.substring(semicolon + 1));
+      }
+      name = name.trim();
+      if (name.equals("*")) {
+        wildcard = quality;
+      } else {
+        ContentEncoding encoding = ContentEncoding.of(name.equalsIgnoreCase("x-gzip") ? ContentEncoding.GZIP.getName() : name);
+        int index = encodings.indexOf(encoding);
+        if (index >= 0) {
+          // Stored offset by one so that 0 means unspecified
+          qualities[index] = quality + 1;
+        }
+      }
+    }
+
+    ContentEncoding selected = null;
+    float selectedQuality = 0;
+    for (int i = 0; i < qualities.length; ++i) {
+      float quality = qualities[i] > 0 ? qualities[i] - 1 : wildcard;
+      if (quality > selectedQuality) {
+        selected = encodings.get(i);
+        selectedQuality = quality;
+      }
+    }
+    return selected;
+  }
+
+  private static float quality(String parameters) {
+    for (String parameter : parameters.split(";")) {
+      int equals = parameter.indexOf('=');
+      if (equals > 0 && parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+        try {
+          return Float.parseFloat(parameter.substring(equals + 1).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Creates an encoder for the given encoding, with the configured level and window size.
+   *
+   * @param encoding the encoding
+   * @return a new encoder
+   */
+  public ChannelHandler newEncoder(ContentEncoding encoding) {
+    boolean zlib = encoding == ContentEncoding.GZIP || encoding == ContentEncoding.DEFLATE;
+    return encoding.newEncoder(level, zlib ? zlibWindowBits : windowBits);
+  }
+
+  /**
+   * Compresses the given body in full, on the calling thread.
+   * <p>
+   * The body is not released.
+   *
+   * @param encoding the encoding to compress with
+   * @param body the body to compress
+   * @param allocator the allocator for the compressed body
+   * @return the compressed body
+   */
+  public ByteBuf encode(ContentEncoding encoding, ByteBuf body, ByteBufAllocator allocator) {
+    EmbeddedChannel channel = new EmbeddedChannel(newEncoder(encoding));
+    ByteBuf encoded = allocator.buffer(Math.max(64, body.readableBytes() / 4));
+    try {
+      channel.writeOutbound(body.retain());
+      channel.finish();
+      ByteBuf chunk;
+      while ((chunk = channel.readOutbound()) != null) {
+        encoded.writeBytes(chunk);
+        chunk.release();
+      }
+      return encoded;
+    } catch (RuntimeException | Error e) {
+      encoded.release();
+      for (Object chunk = channel.readOutbound(); chunk != null; chunk = channel.readOutbound()) {
+        ((ByteBuf) chunk).release();
+      }
+      throw e;
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import com.google.common.collect.ImmutableList;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * A content encoding that responses can be compressed with.
+ */
+public abstract class ContentEncoding {
+
+  public static final ContentEncoding GZIP = new ZlibContentEncoding("gzip", ZlibWrapper.GZIP);
+  public static final ContentEncoding DEFLATE = new ZlibContentEncoding("deflate", ZlibWrapper.ZLIB);
+  public static final ContentEncoding BROTLI = new BrotliContentEncoding();
+  public static final ContentEncoding ZSTD = new ZstdContentEncoding();
+
+  private static final ImmutableList<ContentEncoding> ALL = ImmutableList.of(GZIP, DEFLATE, BROTLI, ZSTD);
+
+  public static final ImmutableList<String> NAMES = ImmutableList.of(GZIP.getName(), DEFLATE.getName(), BROTLI.getName(), ZSTD.getName());
+
+  private final String name;
+
+  private ContentEncoding(String name) {
+    this.name = name;
+  }
+
+  /**
+   * The encoding with the given name (case insensitive).
+   *
+   * @param name the name of the encoding
+   * @return the encoding, or {@code null} if it isn't supported
+   */
+  public static ContentEncoding of(String name) {
+    for (ContentEncoding encoding : ALL) {
+      if (encoding.name.equalsIgnoreCase(name)) {
+        return encoding;
+      }
+    }
+    return null;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Whether the library that implements this encoding is available.
+   *
+   * @return whether this encoding can be used
+   */
+  public abstract boolean isAvailable();
+
+  /**
+   * Creates an encoder that compresses {@link io.netty.buffer.ByteBuf} messages, and writes any trailer when its channel is closed.
+   *
+   * @param level the compression level (0 - 9)
+   * @param windowBits the compression window size as a base 2 logarithm (9 - 15)
+   * @return a new encoder
+   */
+  public abstract ChannelHandler newEncoder(int level, int windowBits);
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static class ZlibContentEncoding extends ContentEncoding {
+    private static final int MEM_LEVEL = 8;
+
+    private final ZlibWrapper wrapper;
+
+    private ZlibContentEncoding(String name, ZlibWrapper wrapper) {
+      super(name);
+      this.wrapper = wrapper;
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    public ChannelHandler newEncoder(int level, int windowBits) {
+      return ZlibCodecFactory.newZlibEncoder(wrapper, level, windowBits, MEM_LEVEL);
+    }
+  }
+
+  /**
+   * Uses <a href="https://github.com/hyperxpro/Brotli4j">Brotli4j</a> if it is available, via reflection as it is optional.
+   */
+  private static class BrotliContentEncoding extends ContentEncoding {
+    private final Constructor<?> streamConstructor;
+    private final Constructor<?> parametersConstructor;
+    private final Method setQuality;
+    private final Method setWindow;
+
+    private BrotliContentEncoding() {
+      super("br");
+      Constructor<?> streamConstructor = null;
+      Constructor<?> parametersConstructor = null;
+      Method setQuality = null;
+      Method setWindow = null;
+      try {
+        Class<?> loader = Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader");
+        if ((Boolean) loader.getMethod("isAvailable").invoke(null)) {
+          Class<?> parameters = Class.forName("com.aayushatharva.brotli4j.encoder.Encoder$Parameters");
+          Class<?> stream = Class.forName("com.aayushatharva.brotli4j.encoder.BrotliOutputStream");
+          streamConstructor = stream.getConstructor(OutputStream.class, parameters);
+          parametersConstructor = parameters.getConstructor();
+          setQuality = parameters.getMethod("setQuality", int.class);
+          setWindow = parameters.getMethod("setWindow", int.class);
+        }
+      } catch (ReflectiveOperationException | LinkageError ignore) {
+        streamConstructor = null;
+      }
+      this.streamConstructor = streamConstructor;
+      this.parametersConstructor = parametersConstructor;
+      this.setQuality = setQuality;
+      this.setWindow = setWindow;
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return streamConstructor != null;
+    }
+
+    @Override
+    public ChannelHandler newEncoder(int level, int windowBits) {
+      return new OutputStreamEncoder(out -> {
+        Object parameters = parametersConstructor.newInstance();
+        setQuality.invoke(parameters, level);
+        setWindow.invoke(parameters, Math.max(10, windowBits));
+        return (OutputStream) streamConstructor.newInstance(out, parameters);
+      });
+    }
+  }
+
+  /**
+   * Uses <a href="https://github.com/luben/zstd-jni">zstd-jni</a> if it is available, via reflection as it is optional.
+   */
+  private static class ZstdContentEncoding extends ContentEncoding {
+    private final Constructor<?> streamConstructor;
+
+    private ZstdContentEncoding() {
+      super("zstd");
+      Constructor<?> streamConstructor;
+      try {
+        streamConstructor = Class.forName("com.github.luben.zstd.ZstdOutputStream").getConstructor(OutputStream.class, int.class);
+      } catch (ReflectiveOperationException | LinkageError ignore) {
+        streamConstructor = null;
+      }
+      this.streamConstructor = streamConstructor;
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return streamConstructor != null;
+    }
+
+    @Override
+    public ChannelHandler newEncoder(int level, int windowBits) {
+      return new OutputStreamEncoder(out -> (OutputStream) streamConstructor.newInstance(out, Math.max(1, level)));
+    }
+  }
+
+}
@@ -61,6 +61,8 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   private final DefaultEventController<RequestOutcome> requestOutcomeEventController;
   private final boolean compressionEnabled;
   private final Predicate<? super Pair<Long, String>> shouldCompress;
+  private final ContentEncoders contentEncoders;
+  private final long compressionBlockingMinSize;
   private final long startTime;
   private final boolean isKeepAlive;
   private final boolean isSsl;
@@ -69,12 +71,14 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
 
   private Runnable onWritabilityChanged = NOOP_RUNNABLE;
 
-  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, FullHttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController, boolean compressionEnabled, Predicate<? super Pair<Long, String>> shouldCompress, long startTime) {
+  public DefaultResponseTransmitter(AtomicBoolean transmitted, ExecControl execControl, Channel channel, FullHttpRequest nettyRequest, Request ratpackRequest, HttpHeaders responseHeaders, DefaultEventController<RequestOutcome> requestOutcomeEventController, boolean compressionEnabled, Predicate<? super Pair<Long, String>> shouldCompress, ContentEncoders contentEncoders, long compressionBlockingMinSize, long startTime) {
     this.transmitted = transmitted;
     this.execControl = execControl;
     this.channel = channel;
     this.compressionEnabled = compressionEnabled;
     this.shouldCompress = shouldCompress;
+    this.contentEncoders = contentEncoders;
+    this.compressionBlockingMinSize = compressionBlockingMinSize;
     this.nettyRequest = nettyRequest.retain();
     this.ratpackRequest = ratpackRequest;
     this.responseHeaders = responseHeaders;
@@ -84,12 +88,20 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
     this.isSsl = channel.pipeline().get(SslHandler.class) != null;
   }
 
-  private ChannelFuture pre(HttpResponseStatus responseStatus) {
+  private boolean markTransmitted() {
     if (transmitted.compareAndSet(false, true)) {
       stopTime = System.nanoTime();
+      nettyRequest.release();
+      return true;
+    } else {
+      LOGGER.warn("attempt at double transmission for: " + ratpackRequest.getRawUri(), new InternalRatpackError(""));
+      return false;
+    }
+  }
 
+  private ChannelFuture pre(HttpResponseStatus responseStatus) {
+    if (markTransmitted()) {
       HttpResponse headersResponse = new CustomHttpResponse(responseStatus, responseHeaders);
-      nettyRequest.release();
 
       if (isKeepAlive) {
         headersResponse.headers().set(HttpHeaderConstants.CONNECTION, HttpHeaderConstants.KEEP_ALIVE);
@@ -105,13 +117,56 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
         return null;
       }
     } else {
-      LOGGER.warn("attempt at double transmission for: " + ratpackRequest.getRawUri(), new InternalRatpackError(""));
       return null;
     }
   }
 
+  @Override
+  public void transmit(DefaultConstantResponse response) {
+    if (markTransmitted()) {
+      if (channel.isOpen()) {
+        // The whole response is written at once, as is
+        ChannelFuture future = channel.writeAndFlush(response.newMessage(isKeepAlive));
+        future.addListener(isKeepAlive ? ChannelFutureListener.CLOSE_ON_FAILURE : ChannelFutureListener.CLOSE);
+        notifyListeners(response.getNettyStatus(), response.getNettyHeaders(), future);
+      } else {
+        notifyListeners(response.getNettyStatus(), response.getNettyHeaders(), channel.newSucceededFuture());
+      }
+    }
+  }
+
   @Override
   public void transmit(final HttpResponseStatus responseStatus, final ByteBuf body) {
+    ContentEncoding encoding = blockingEncoding(body);
+    if (encoding == null) {
+      transmitBody(responseStatus, body);
+    } else {
+      // Compress large bodies off the event loop, the compressor passes through bodies that are already encoded
+      execControl.blocking(() -> contentEncoders.encode(encoding, body, channel.alloc()))
+        .onError(throwable -> {
+          LOGGER.warn("Failed to compress response with " + encoding + ", sending it uncompressed", throwable);
+          transmitBody(responseStatus, body);
+        })
+        .then(encoded -> {
+          body.release();
+          responseHeaders.set(HttpHeaderConstants.CONTENT_ENCODING, encoding.getName());
+          if (!responseHeaders.contains(HttpHeaderConstants.VARY, HttpHeaderConstants.ACCEPT_ENCODING, true)) {
+            responseHeaders.add(HttpHeaderConstants.VARY, HttpHeaderConstants.ACCEPT_ENCODING);
+          }
+          transmitBody(responseStatus, encoded);
+        });
+    }
+  }
+
+  private ContentEncoding blockingEncoding(ByteBuf body) {
+    if (!compressionEnabled || compressionBlockingMinSize <= 0 || body.readableBytes() < compressionBlockingMinSize || responseHeaders.contains(HttpHeaderConstants.CONTENT_ENCODING)) {
+      return null;
+    } else {
+      return contentEncoders.select(nettyRequest.headers().get(HttpHeaderConstants.ACCEPT_ENCODING));
+    }
+  }
+
+  private void transmitBody(HttpResponseStatus responseStatus, ByteBuf body) {
     responseHeaders.set(HttpHeaderConstants.CONTENT_LENGTH, body.readableBytes());
     transmit(responseStatus, new DefaultHttpContent(body));
   }
@@ -244,9 +299,13 @@ public class DefaultResponseTransmitter implements ResponseTransmitter {
   }
 
   private void notifyListeners(final HttpResponseStatus responseStatus, ChannelFuture future) {
+    notifyListeners(responseStatus, responseHeaders, future);
+  }
+
+  private void notifyListeners(final HttpResponseStatus responseStatus, HttpHeaders headers, ChannelFuture future) {
     if (requestOutcomeEventController.isHasListeners()) {
       future.addListener(ignore -> {
-        SentResponse sentResponse = new DefaultSentResponse(new NettyHeadersBackedHeaders(responseHeaders), new DefaultStatus(responseStatus));
+        SentResponse sentResponse = new DefaultSentResponse(new NettyHeadersBackedHeaders(headers), new DefaultStatus(responseStatus));
         RequestOutcome requestOutcome = new DefaultRequestOutcome(ratpackRequest, sentResponse, stopTime);
         requestOutcomeEventController.fire(requestOutcome);
       });
@@ -36,6 +36,7 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -55,12 +56,18 @@ public class DefaultServerConfigBuilder implements ServerConfig.Builder {
   private ImmutableList.Builder<String> indexFiles = ImmutableList.builder();
   private ImmutableMap.Builder<String, String> other = ImmutableMap.builder();
   private SSLContext sslContext;
+  private Integer sslSessionCacheSize;
+  private Duration sslSessionTimeout;
   private int maxContentLength = ServerConfig.DEFAULT_MAX_CONTENT_LENGTH;
   private boolean timeResponses;
   private boolean compressResponses;
   private long compressionMinSize = ServerConfig.DEFAULT_COMPRESSION_MIN_SIZE;
   private final ImmutableSet.Builder<String> compressionMimeTypeWhiteList = ImmutableSet.builder();
   private final ImmutableSet.Builder<String> compressionMimeTypeBlackList = ImmutableSet.builder();
+  private int compressionLevel = ServerConfig.DEFAULT_COMPRESSION_LEVEL;
+  private int compressionWindowBits = ServerConfig.DEFAULT_COMPRESSION_WINDOW_BITS;
+  private ImmutableList<String> compressionEncodings = ServerConfig.DEFAULT_COMPRESSION_ENCODINGS;
+  private long compressionBlockingMinSize;
 
   public DefaultServerConfigBuilder() {
   }
@@ -150,6 +157,46 @@ public class DefaultServerConfigBuilder implements ServerConfig.Builder {
     return this;
   }
 
+  @Override
+  public ServerConfig.Builder compressionLevel(int compressionLevel) {
+    if (compressionLevel < 0 || compressionLevel > 9) {
+      throw new IllegalArgumentException("'compressionLevel' must be between 0 and 9");
+    }
+    this.compressionLevel = compressionLevel;
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder compressionWindowBits(int compressionWindowBits) {
+    if (compressionWindowBits < 9 || compressionWindowBits > 15) {
+      throw new IllegalArgumentException("'compressionWindowBits' must be between 9 and 15");
+    }
+    this.compressionWindowBits = compressionWindowBits;
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder compressionEncodings(String... encodings) {
+    return compressionEncodings(Arrays.asList(encodings));
+  }
+
+  @Override
+  public ServerConfig.Builder compressionEncodings(List<String> encodings) {
+    for (String encoding : encodings) {
+      if (ContentEncoding.of(encoding) == null) {
+        throw new IllegalArgumentException("unsupported compression encoding '" + encoding + "' (supported: " + ContentEncoding.NAMES + ")");
+      }
+    }
+    this.compressionEncodings = ImmutableList.copyOf(encodings);
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder compressionBlockingMinSize(long compressionBlockingMinSize) {
+    this.compressionBlockingMinSize = compressionBlockingMinSize;
+    return this;
+  }
+
   @Override
   public ServerConfig.Builder indexFiles(String... indexFiles) {
     this.indexFiles.add(indexFiles);
@@ -168,6 +215,18 @@ public class DefaultServerConfigBuilder implements ServerConfig.Builder {
     return this;
   }
 
+  @Override
+  public ServerConfig.Builder sslSessionCacheSize(int size) {
+    this.sslSessionCacheSize = size;
+    return this;
+  }
+
+  @Override
+  public ServerConfig.Builder sslSessionTimeout(Duration timeout) {
+    this.sslSessionTimeout = timeout;
+    return this;
+  }
+
   @Override
   public ServerConfig.Builder other(String key, String value) {
     other.put(key, value);
@@ -184,10 +243,20 @@ public class DefaultServerConfigBuilder implements ServerConfig.Builder {
 
   @Override
   public ServerConfig build() {
+    if (sslContext != null) {
+      // An SSL context can't be copied, so these change the caller's context
+      if (sslSessionCacheSize != null) {
+        sslContext.getServerSessionContext().setSessionCacheSize(sslSessionCacheSize);
+      }
+      if (sslSessionTimeout != null) {
+        sslContext.getServerSessionContext().setSessionTimeout((int) sslSessionTimeout.getSeconds());
+      }
+    }
     return new DefaultServerConfig(baseDir, port, address, development, threads,
       publicAddress, indexFiles.build(), other.build(), sslContext, maxContentLength,
       timeResponses, compressResponses, compressionMinSize,
-      compressionMimeTypeWhiteList.build(), compressionMimeTypeBlackList.build());
+      compressionMimeTypeWhiteList.build(), compressionMimeTypeBlackList.build(),
+      compressionLevel, compressionWindowBits, compressionEncodings, compressionBlockingMinSize);
   }
 
   @Override
@@ -325,6 +394,10 @@ public class DefaultServerConfigBuilder implements ServerConfig.Builder {
       .put("compressionMinSize", new BuilderAction<>(Long::parseLong, DefaultServerConfigBuilder.this::compressionMinSize))
       .put("compressionWhiteListMimeTypes", new BuilderAction<>(DefaultServerConfigBuilder::split, DefaultServerConfigBuilder.this::compressionWhiteListMimeTypes))
       .put("compressionBlackListMimeTypes", new BuilderAction<>(DefaultServerConfigBuilder::split, DefaultServerConfigBuilder.this::compressionBlackListMimeTypes))
+      .put("compressionLevel", new BuilderAction<>(Integer::parseInt, DefaultServerConfigBuilder.this::compressionLevel))
+      .put("compressionWindowBits", new BuilderAction<>(Integer::parseInt, DefaultServerConfigBuilder.this::compressionWindowBits))
+      .put("compressionEncodings", new BuilderAction<>(DefaultServerConfigBuilder::split, DefaultServerConfigBuilder.this::compressionEncodings))
+      .put("compressionBlockingMinSize", new BuilderAction<>(Long::parseLong, DefaultServerConfigBuilder.this::compressionBlockingMinSize))
       .put("indexFiles", new BuilderAction<>(DefaultServerConfigBuilder::split, DefaultServerConfigBuilder.this::indexFiles))
         //TODO-JOHN add support for SSLContext somehow
       .build();
@@ -69,13 +69,15 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
   private final DefaultContext.ApplicationConstants applicationConstants;
   private final ExecController execController;
   private final Predicate<Pair<Long, String>> shouldCompress;
+  private final ContentEncoders contentEncoders;
+  private final long compressionBlockingMinSize;
 
   private Registry rootRegistry;
 
   private final boolean addResponseTimeHeader;
   private final ExecControl execControl;
 
-  public NettyHandlerAdapter(ServerConfig serverConfig, Registry registry, Handler handler) throws Exception {
+  public NettyHandlerAdapter(ServerConfig serverConfig, Registry registry, Handler handler, ContentEncoders contentEncoders) throws Exception {
     super(false);
 
     this.handlers = ChainHandler.unpack(handler);
@@ -84,6 +86,8 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     this.applicationConstants = new DefaultContext.ApplicationConstants(this.rootRegistry, new DefaultRenderController(), Handlers.notFound());
     this.execController = registry.get(ExecController.class);
     this.execControl = execController.getControl();
+    this.contentEncoders = contentEncoders;
+    this.compressionBlockingMinSize = serverConfig.getCompressionBlockingMinSize();
 
     if (serverConfig.isCompressResponses()) {
       ImmutableSet<String> blacklist = serverConfig.getCompressionMimeTypeBlackList();
@@ -129,7 +133,7 @@ public class NettyHandlerAdapter extends SimpleChannelInboundHandler<FullHttpReq
     final DefaultEventController<RequestOutcome> requestOutcomeEventController = new DefaultEventController<>();
     final AtomicBoolean transmitted = new AtomicBoolean(false);
 
-    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, nettyRequest, request, nettyHeaders, requestOutcomeEventController, serverConfig.isCompressResponses(), shouldCompress, startTime);
+    final DefaultResponseTransmitter responseTransmitter = new DefaultResponseTransmitter(transmitted, execControl, channel, nettyRequest, request, nettyHeaders, requestOutcomeEventController, serverConfig.isCompressResponses(), shouldCompress, contentEncoders, compressionBlockingMinSize, startTime);
 
     final Response response = new DefaultResponse(execControl, responseHeaders, ctx.alloc(), responseTransmitter);
     ctx.attr(RESPONSE_TRANSMITTER_ATTRIBUTE_KEY).set(responseTransmitter);
@@ -25,7 +25,6 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
-import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.util.ResourceLeakDetector;
@@ -91,16 +90,11 @@ public class NettyRatpackServer implements RatpackServer {
     }
 
     Handler rootHandler = buildRootHandler();
-    NettyHandlerAdapter handlerAdapter = new NettyHandlerAdapter(getServerConfig(), rootRegistry, rootHandler);
+    final ContentEncoders contentEncoders = new ContentEncoders(getServerConfig());
+    NettyHandlerAdapter handlerAdapter = new NettyHandlerAdapter(getServerConfig(), rootRegistry, rootHandler, contentEncoders);
 
-    SSLContext sslContext = getServerConfig().getSSLContext();
-    SSLEngine sslEngine = null;
-    if (sslContext != null) {
-      sslEngine = sslContext.createSSLEngine();
-      sslEngine.setUseClientMode(false);
-    }
-
-    final SSLEngine finalSslEngine = sslEngine;
+    final SSLContext sslContext = getServerConfig().getSSLContext();
+    final ConnectionCounter connectionCounter = rootRegistry.get(ConnectionCounter.class);
 
     channel = new ServerBootstrap()
       .group(rootRegistry.get(ExecController.class).getEventLoopGroup())
@@ -110,16 +104,20 @@ public class NettyRatpackServer implements RatpackServer {
         @Override
         protected void initChannel(SocketChannel ch) throws Exception {
           ChannelPipeline pipeline = ch.pipeline();
+          pipeline.addLast("connectionCounter", connectionCounter);
 
-          if (finalSslEngine != null) {
-            pipeline.addLast("ssl", new SslHandler(finalSslEngine));
+          if (sslContext != null) {
+            // Engines hold the state of a single connection, so can't be shared
+            SSLEngine sslEngine = new ServerSslEngine(sslContext.createSSLEngine());
+            sslEngine.setUseClientMode(false);
+            pipeline.addLast("ssl", new SslHandler(sslEngine));
           }
 
           pipeline.addLast("decoder", new HttpRequestDecoder(4096, 8192, 8192, false));
           pipeline.addLast("aggregator", new HttpObjectAggregator(getServerConfig().getMaxContentLength()));
-          pipeline.addLast("encoder", new HttpResponseEncoder());
+          pipeline.addLast("encoder", new ConstantResponseEncoder());
           if (getServerConfig().isCompressResponses()) {
-            pipeline.addLast("deflater", new SmartHttpContentCompressor());
+            pipeline.addLast("deflater", new SmartHttpContentCompressor(contentEncoders));
           }
           pipeline.addLast("chunkedWriter", new ChunkedWriteHandler());
           pipeline.addLast("rootHandler", handlerAdapter);
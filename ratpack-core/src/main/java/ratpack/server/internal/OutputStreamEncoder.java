@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.MessageToByteEncoder;
+import ratpack.func.Function;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes buffers with a compressing output stream, flushing it after each buffer and closing it (writing any trailer) when the channel is closed.
+ */
+public class OutputStreamEncoder extends MessageToByteEncoder<ByteBuf> {
+
+  private final Function<? super OutputStream, ? extends OutputStream> streamFactory;
+  private final BufferOutputStream sink = new BufferOutputStream();
+  private OutputStream stream;
+  private boolean finished;
+
+  public OutputStreamEncoder(Function<? super OutputStream, ? extends OutputStream> streamFactory) {
+    this.streamFactory = streamFactory;
+  }
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
+    sink.buffer = out;
+    try {
+      msg.readBytes(stream(), msg.readableBytes());
+      stream.flush();
+    } finally {
+      sink.buffer = null;
+    }
+  }
+
+  @Override
+  public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+    if (finished) {
+      ctx.close(promise);
+      return;
+    }
+
+    finished = true;
+    ByteBuf trailer = ctx.alloc().buffer();
+    sink.buffer = trailer;
+    try {
+      stream().close();
+    } catch (Exception e) {
+      trailer.release();
+      throw e;
+    } finally {
+      sink.buffer = null;
+    }
+    ctx.writeAndFlush(trailer).addListener((ChannelFutureListener) future -> ctx.close(promise));
+  }
+
+  private OutputStream stream() throws Exception {
+    if (stream == null) {
+      stream = streamFactory.apply(sink);
+    }
+    return stream;
+  }
+
+  private static class BufferOutputStream extends OutputStream {
+    private ByteBuf buffer;
+
+    @Override
+    public void write(int b) throws IOException {
+      buffer.writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      buffer.writeBytes(b, off, len);
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import ratpack.http.MutableHeaders;
+import ratpack.http.Response;
+import ratpack.http.internal.HttpHeaderConstants;
+import ratpack.http.internal.NettyHeadersBackedHeaders;
+
+/**
+ * A complete response, as recorded by a {@link ResponseRecorder}.
+ * <p>
+ * The body is reference counted.
+ */
+public class RecordedResponse {
+
+  private static final CharSequence X_RESPONSE_TIME = "X-Response-Time";
+
+  private final HttpResponseStatus status;
+  private final HttpHeaders headers;
+  private final ByteBuf body;
+
+  public RecordedResponse(HttpResponseStatus status, HttpHeaders headers, ByteBuf body) {
+    this.status = status;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  public HttpResponseStatus getStatus() {
+    return status;
+  }
+
+  public HttpHeaders getHeaders() {
+    return headers;
+  }
+
+  public ByteBuf getBody() {
+    return body;
+  }
+
+  /**
+   * Sends this response as the given response.
+   * <p>
+   * Headers that describe the connection the response was recorded from, rather than the response, are not copied.
+   * The body is sent without being retained, so the caller must have retained it for this use.
+   *
+   * @param response the response to send
+   */
+  public void send(Response response) {
+    MutableHeaders responseHeaders = response.getHeaders();
+    responseHeaders.copy(new NettyHeadersBackedHeaders(headers));
+    responseHeaders.remove(HttpHeaderConstants.CONNECTION);
+    responseHeaders.remove(HttpHeaderConstants.CONTENT_LENGTH);
+    responseHeaders.remove(HttpHeaderConstants.TRANSFER_ENCODING);
+    responseHeaders.remove(X_RESPONSE_TIME);
+    response.status(status.code());
+    response.send(body.duplicate());
+  }
+
+  public void release() {
+    body.release();
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.exec.Result;
+import ratpack.file.internal.ResponseTransmitter;
+import ratpack.http.internal.DefaultConstantResponse;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Consumer;
+
+/**
+ * Records a response instead of transmitting it, for responses to requests that didn't come from a connection.
+ */
+public class RecordingResponseTransmitter implements ResponseTransmitter {
+
+  private final HttpHeaders headers;
+  private final ByteBufAllocator allocator;
+  private final long maxLength;
+  private final Consumer<? super Result<RecordedResponse>> onComplete;
+
+  private boolean transmitted;
+
+  /**
+   * Constructor.
+   *
+   * @param headers the headers of the response, as they will be when it is transmitted
+   * @param allocator the allocator for streamed response bodies
+   * @param maxLength the maximum number of body bytes to record
+   * @param onComplete receives the recorded response, or why it couldn't be recorded
+   */
+  public RecordingResponseTransmitter(HttpHeaders headers, ByteBufAllocator allocator, long maxLength, Consumer<? super Result<RecordedResponse>> onComplete) {
+    this.headers = headers;
+    this.allocator = allocator;
+    this.maxLength = maxLength;
+    this.onComplete = onComplete;
+  }
+
+  @Override
+  public void transmit(HttpResponseStatus status, ByteBuf body) {
+    transmitted = true;
+    if (body.readableBytes() > maxLength) {
+      body.release();
+      onComplete.accept(Result.failure(tooLong()));
+    } else {
+      onComplete.accept(Result.success(new RecordedResponse(status, new DefaultHttpHeaders(false).set(headers), body)));
+    }
+  }
+
+  @Override
+  public void transmit(DefaultConstantResponse response) {
+    transmitted = true;
+    if (response.getBodyLength() > maxLength) {
+      onComplete.accept(Result.failure(tooLong()));
+    } else {
+      onComplete.accept(Result.success(new RecordedResponse(response.getNettyStatus(), new DefaultHttpHeaders(false).set(response.getNettyHeaders()), response.getBody())));
+    }
+  }
+
+  @Override
+  public void transmit(HttpResponseStatus responseStatus, BasicFileAttributes basicFileAttributes, Path file) {
+    transmitted = true;
+    onComplete.accept(Result.failure(new UnsupportedOperationException("can't record file response " + file)));
+  }
+
+  @Override
+  public Subscriber<ByteBuf> transmitter(HttpResponseStatus status) {
+    transmitted = true;
+    return new Subscriber<ByteBuf>() {
+      private final ByteBuf body = allocator.buffer();
+      private Subscription subscription;
+      private boolean done;
+
+      @Override
+      public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+      }
+
+      @Override
+      public void onNext(ByteBuf item) {
+        try {
+          if (done) {
+            return;
+          }
+          if (body.readableBytes() + item.readableBytes() > maxLength) {
+            subscription.cancel();
+            fail(tooLong());
+          } else {
+            body.writeBytes(item);
+          }
+        } finally {
+          item.release();
+        }
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        if (!done) {
+          fail(t);
+        }
+      }
+
+      @Override
+      public void onComplete() {
+        if (!done) {
+          done = true;
+          onComplete.accept(Result.success(new RecordedResponse(status, new DefaultHttpHeaders(false).set(headers), body)));
+        }
+      }
+
+      private void fail(Throwable cause) {
+        done = true;
+        body.release();
+        onComplete.accept(Result.failure(cause));
+      }
+    };
+  }
+
+  /**
+   * Whether a response has been transmitted (i.e. recorded, or attempted to be).
+   *
+   * @return whether a response has been transmitted
+   */
+  public boolean isTransmitted() {
+    return transmitted;
+  }
+
+  private IllegalStateException tooLong() {
+    return new IllegalStateException("response body is longer than " + maxLength + " bytes");
+  }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.*;
+import ratpack.exec.Result;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.function.Consumer;
+
+/**
+ * Records the response written to a channel, so that it can be sent again.
+ * <p>
+ * It is added to the end of the pipeline, so sees the response as it is transmitted (i.e. before any compression),
+ * and removes itself once the response is complete.
+ * Responses sent from files can't be recorded, nor can those of connections closed before the response is complete.
+ */
+public class ResponseRecorder extends ChannelDuplexHandler {
+
+  private final long maxLength;
+  private final Consumer<? super Result<RecordedResponse>> onComplete;
+
+  private HttpResponseStatus status;
+  private HttpHeaders headers;
+  private ByteBuf body;
+  private boolean done;
+
+  private ResponseRecorder(long maxLength, Consumer<? super Result<RecordedResponse>> onComplete) {
+    this.maxLength = maxLength;
+    this.onComplete = onComplete;
+  }
+
+  /**
+   * Records the next response written to the given channel.
+   *
+   * @param channel the channel the response will be written to
+   * @param onComplete receives the recorded response, or why it couldn't be recorded
+   */
+  public static void record(Channel channel, Consumer<? super Result<RecordedResponse>> onComplete) {
+    record(channel, Long.MAX_VALUE, onComplete);
+  }
+
+  /**
+   * Records the next response written to the given channel, unless its body is longer than the given length.
+   *
+   * @param channel the channel the response will be written to
+   * @param maxLength the maximum number of body bytes to record
+   * @param onComplete receives the recorded response, or why it couldn't be recorded
+   */
+  public static void record(Channel channel, long maxLength, Consumer<? super Result<RecordedResponse>> onComplete) {
+    channel.pipeline().addLast(new ResponseRecorder(maxLength, onComplete));
+  }
+
+  @Override
+  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+    if (!done) {
+      try {
+        record(ctx, msg);
+      } catch (Throwable e) {
+        fail(ctx, e);
+      }
+    }
+    ctx.write(msg, promise);
+  }
+
+  private void record(ChannelHandlerContext ctx, Object msg) {
+    if (msg instanceof HttpResponse) {
+      HttpResponse response = (HttpResponse) msg;
+      status = response.status();
+      headers = new DefaultHttpHeaders(false).set(response.headers());
+      body = ctx.alloc().buffer();
+    }
+
+    if (msg instanceof HttpContent) {
+      if (body == null) {
+        fail(ctx, new IllegalStateException("response content written before response headers"));
+        return;
+      }
+      ByteBuf content = ((HttpContent) msg).content();
+      if (body.readableBytes() + content.readableBytes() > maxLength) {
+        fail(ctx, new IllegalStateException("response body is longer than " + maxLength + " bytes"));
+        return;
+      }
+      body.writeBytes(content, content.readerIndex(), content.readableBytes());
+      if (msg instanceof LastHttpContent) {
+        done = true;
+        ctx.pipeline().remove(this);
+        onComplete.accept(Result.success(new RecordedResponse(status, headers, body)));
+      }
+    } else if (!(msg instanceof HttpResponse)) {
+      fail(ctx, new IllegalStateException("can't record response content of type " + msg.getClass().getName()));
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (!done) {
+      fail(ctx, new ClosedChannelException());
+    }
+    super.channelInactive(ctx);
+  }
+
+  private void fail(ChannelHandlerContext ctx, Throwable cause) {
+    done = true;
+    if (body != null) {
+      body.release();
+    }
+    ctx.pipeline().remove(this);
+    onComplete.accept(Result.failure(cause));
+  }
+
+}
@@ -33,7 +33,9 @@ import ratpack.form.internal.FormParser;
 import ratpack.handling.Redirector;
 import ratpack.handling.internal.DefaultRedirector;
 import ratpack.http.client.HttpClient;
-import ratpack.http.client.HttpClients;
+import ratpack.http.client.HttpClientSsl;
+import ratpack.http.client.internal.DefaultHttpClient;
+import ratpack.http.client.internal.HostResolver;
 import ratpack.registry.Registries;
 import ratpack.registry.Registry;
 import ratpack.registry.RegistryBuilder;
@@ -56,6 +58,8 @@ public abstract class ServerRegistry {
     ErrorHandler errorHandler = serverConfig.isDevelopment() ? new DefaultDevelopmentErrorHandler() : new DefaultProductionErrorHandler();
     ExecController execController = new DefaultExecController(serverConfig.getThreads());
     PooledByteBufAllocator byteBufAllocator = PooledByteBufAllocator.DEFAULT;
+    HostResolver hostResolver = HostResolver.system(execController);
+    HttpClientSsl httpClientSsl = HttpClientSsl.defaults();
 
     RegistryBuilder baseRegistry;
     try {
@@ -63,6 +67,7 @@ public abstract class ServerRegistry {
         .add(ServerConfig.class, serverConfig)
         .add(ByteBufAllocator.class, byteBufAllocator)
         .add(ExecController.class, execController)
+        .add(ConnectionCounter.class, new ConnectionCounter())
         .add(MimeTypes.class, new ActivationBackedMimeTypes())
         .add(PublicAddress.class, new DefaultPublicAddress(serverConfig.getPublicAddress(), serverConfig.getSSLContext() == null ? HTTP_SCHEME : HTTPS_SCHEME))
         .add(Redirector.class, new DefaultRedirector())
@@ -81,7 +86,9 @@ public abstract class ServerRegistry {
           ratpackServer.stop();
           return null;
         }))
-        .add(HttpClient.class, HttpClients.httpClient(execController, byteBufAllocator, serverConfig.getMaxContentLength()));
+        .add(HostResolver.class, hostResolver)
+        .add(HttpClientSsl.class, httpClientSsl)
+        .add(HttpClient.class, new DefaultHttpClient(execController, byteBufAllocator, serverConfig.getMaxContentLength(), hostResolver, httpClientSsl));
     } catch (Exception e) {
       // Uncheck because it really shouldn't happen
       throw uncheck(e);
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal;
+
+import javax.net.ssl.*;
+import java.nio.ByteBuffer;
+
+/**
+ * An engine for a server connection that keeps its session resumable when the server closes the connection.
+ * <p>
+ * Netty closes the inbound side of the engine when the channel becomes inactive.
+ * The JDK treats that as a possible truncation attack unless the peer's close_notify was received, and invalidates the session.
+ * The server is usually the side that closes (e.g. after a {@code Connection: close} response), and TLS doesn't require it to wait for the client's close_notify.
+ * So once this side has sent its close_notify, closing the inbound side is a no-op.
+ */
+public class ServerSslEngine extends SSLEngine {
+
+  private final SSLEngine delegate;
+
+  public ServerSslEngine(SSLEngine delegate) {
+    super(delegate.getPeerHost(), delegate.getPeerPort());
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void closeInbound() throws SSLException {
+    if (!delegate.isOutboundDone()) {
+      delegate.closeInbound();
+    }
+  }
+
+  @Override
+  public SSLEngineResult wrap(ByteBuffer[] srcs, int offset, int length, ByteBuffer dst) throws SSLException {
+    return delegate.wrap(srcs, offset, length, dst);
+  }
+
+  @Override
+  public SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, int offset, int length) throws SSLException {
+    return delegate.unwrap(src, dsts, offset, length);
+  }
+
+  @Override
+  public Runnable getDelegatedTask() {
+    return delegate.getDelegatedTask();
+  }
+
+  @Override
+  public boolean isInboundDone() {
+    return delegate.isInboundDone();
+  }
+
+  @Override
+  public void closeOutbound() {
+    delegate.closeOutbound();
+  }
+
+  @Override
+  public boolean isOutboundDone() {
+    return delegate.isOutboundDone();
+  }
+
+  @Override
+  public String[] getSupportedCipherSuites() {
+    return delegate.getSupportedCipherSuites();
+  }
+
+  @Override
+  public String[] getEnabledCipherSuites() {
+    return delegate.getEnabledCipherSuites();
+  }
+
+  @Override
+  public void setEnabledCipherSuites(String[] suites) {
+    delegate.setEnabledCipherSuites(suites);
+  }
+
+  @Override
+  public String[] getSupportedProtocols() {
+    return delegate.getSupportedProtocols();
+  }
+
+  @Override
+  public String[] getEnabledProtocols() {
+    return delegate.getEnabledProtocols();
+  }
+
+  @Override
+  public void setEnabledProtocols(String[] protocols) {
+    delegate.setEnabledProtocols(protocols);
+  }
+
+  @Override
+  public SSLSession getSession() {
+    return delegate.getSession();
+  }
+
+  @Override
+  public SSLSession getHandshakeSession() {
+    return delegate.getHandshakeSession();
+  }
+
+  @Override
+  public void beginHandshake() throws SSLException {
+    delegate.beginHandshake();
+  }
+
+  @Override
+  public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+    return delegate.getHandshakeStatus();
+  }
+
+  @Override
+  public void setUseClientMode(boolean mode) {
+    delegate.setUseClientMode(mode);
+  }
+
+  @Override
+  public boolean getUseClientMode() {
+    return delegate.getUseClientMode();
+  }
+
+  @Override
+  public void setNeedClientAuth(boolean need) {
+    delegate.setNeedClientAuth(need);
+  }
+
+  @Override
+  public boolean getNeedClientAuth() {
+    return delegate.getNeedClientAuth();
+  }
+
+  @Override
+  public void setWantClientAuth(boolean want) {
+    delegate.setWantClientAuth(want);
+  }
+
+  @Override
+  public boolean getWantClientAuth() {
+    return delegate.getWantClientAuth();
+  }
+
+  @Override
+  public void setEnableSessionCreation(boolean flag) {
+    delegate.setEnableSessionCreation(flag);
+  }
+
+  @Override
+  public boolean getEnableSessionCreation() {
+    return delegate.getEnableSessionCreation();
+  }
+
+  @Override
+  public SSLParameters getSSLParameters() {
+    return delegate.getSSLParameters();
+  }
+
+  @Override
+  public void setSSLParameters(SSLParameters params) {
+    delegate.setSSLParameters(params);
+  }
+
+}
@@ -17,9 +17,11 @@
 package ratpack.server.internal;
 
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpContentEncoder;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import ratpack.http.internal.ConstantHttpResponse;
 import ratpack.http.internal.HttpHeaderConstants;
 
 import java.util.List;
@@ -28,11 +30,19 @@ import java.util.List;
  * Adapted from https://github.com/scireum/sirius/blob/develop/web/src/sirius/web/http/SmartHttpContentCompressor.java
  *
  * Credit to Andreas Haufler (aha@scireum.de).
+ *
+ * Compresses with the configured encodings, level and window size rather than Netty's defaults.
  */
-public class SmartHttpContentCompressor extends HttpContentCompressor {
+public class SmartHttpContentCompressor extends HttpContentEncoder {
+
+  private final ContentEncoders encoders;
 
   private boolean passThrough;
 
+  public SmartHttpContentCompressor(ContentEncoders encoders) {
+    this.encoders = encoders;
+  }
+
   @Override
   protected void encode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
     if (msg instanceof HttpResponse) {
@@ -40,8 +50,11 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
       HttpResponse res = (HttpResponse) msg;
       // by default compression is on (passThrough bypasses compression)
       passThrough = false;
-      // If an "Content-Encoding: Identity" header was set, we do not compress
-      if (res.headers().contains(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY, false)) {
+      // Constant responses are already encoded, and their headers are shared
+      if (msg instanceof ConstantHttpResponse) {
+        passThrough = true;
+      } else if (res.headers().contains(HttpHeaderConstants.CONTENT_ENCODING, HttpHeaderConstants.IDENTITY, true)) {
+        // If an "Content-Encoding: Identity" header was set, we do not compress
         passThrough = true;
         // Remove header as one SHOULD NOT send Identity as content encoding.
         res.headers().remove(HttpHeaderConstants.CONTENT_ENCODING);
@@ -56,6 +69,17 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
     if (passThrough) {
       return null;
     }
-    return super.beginEncode(headers, acceptEncoding);
+
+    // Already encoded (e.g. compressed off the event loop)
+    String contentEncoding = headers.headers().get(HttpHeaderConstants.CONTENT_ENCODING);
+    if (contentEncoding != null && !HttpHeaderConstants.IDENTITY.toString().equalsIgnoreCase(contentEncoding)) {
+      return null;
+    }
+
+    ContentEncoding encoding = encoders.select(acceptEncoding);
+    if (encoding == null) {
+      return null;
+    }
+    return new Result(encoding.getName(), new EmbeddedChannel(encoders.newEncoder(encoding)));
   }
 }
@@ -16,65 +16,123 @@
 
 package ratpack.sse.internal;
 
-import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
-import io.netty.buffer.ByteBufOutputStream;
 import ratpack.sse.ServerSentEvents;
 
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static io.netty.util.CharsetUtil.UTF_8;
 
+/**
+ * Encodes events straight into a buffer as UTF-8, without intermediate writers or strings.
+ * <p>
+ * The “event” line is encoded once per distinct event type and shared by all streams and subscribers,
+ * as a stream typically only uses a handful of event types.
+ */
 public class ServerSentEventEncoder {
 
   public static final ServerSentEventEncoder INSTANCE = new ServerSentEventEncoder();
 
+  private static final int MAX_CACHED_EVENT_TYPES = 256;
+
   private static final byte[] EVENT_TYPE_PREFIX = "event: ".getBytes(UTF_8);
   private static final byte[] EVENT_DATA_PREFIX = "data: ".getBytes(UTF_8);
+  private static final byte[] EVENT_DATA_CONTINUATION = "\ndata: ".getBytes(UTF_8);
   private static final byte[] EVENT_ID_PREFIX = "id: ".getBytes(UTF_8);
-  private static final byte[] NEWLINE = "\n".getBytes(UTF_8);
+  private static final byte NEWLINE = '\n';
+
+  private final ConcurrentMap<String, byte[]> eventTypeLines = new ConcurrentHashMap<>();
 
   public ByteBuf encode(ServerSentEvents.Event<?> event, ByteBufAllocator bufferAllocator) throws Exception {
-    ByteBuf buffer = bufferAllocator.buffer();
+    String eventType = event.getEvent();
+    String eventData = event.getData();
+    String eventId = event.getId();
 
-    OutputStream outputStream = new ByteBufOutputStream(buffer);
-    Writer writer = new OutputStreamWriter(outputStream, UTF_8);
+    byte[] eventTypeLine = eventType == null ? null : eventTypeLine(eventType);
 
-    String eventType = event.getEvent();
-    if (eventType != null) {
-      outputStream.write(EVENT_TYPE_PREFIX);
-      writer.append(eventType).flush();
-      outputStream.write(NEWLINE);
+    // exact for ASCII content, the buffer grows if needed otherwise
+    int size = 1;
+    if (eventTypeLine != null) {
+      size += eventTypeLine.length;
+    }
+    if (eventData != null) {
+      size += EVENT_DATA_PREFIX.length + eventData.length() + 1;
+    }
+    if (eventId != null) {
+      size += EVENT_ID_PREFIX.length + eventId.length() + 1;
+    }
+
+    ByteBuf buffer = bufferAllocator.buffer(size);
+
+    if (eventTypeLine != null) {
+      buffer.writeBytes(eventTypeLine);
     }
 
-    String eventData = event.getData();
     if (eventData != null) {
-      outputStream.write(EVENT_DATA_PREFIX);
-      for (Character character : Lists.charactersOf(eventData)) {
-        if (character == '\n') {
-          outputStream.write(NEWLINE);
-          outputStream.write(EVENT_DATA_PREFIX);
-        } else {
-          writer.append(character).flush();
-        }
+      buffer.writeBytes(EVENT_DATA_PREFIX);
+      int start = 0;
+      int newline = eventData.indexOf(NEWLINE);
+      while (newline != -1) {
+        writeUtf8(buffer, eventData, start, newline);
+        buffer.writeBytes(EVENT_DATA_CONTINUATION);
+        start = newline + 1;
+        newline = eventData.indexOf(NEWLINE, start);
       }
-      outputStream.write(NEWLINE);
+      writeUtf8(buffer, eventData, start, eventData.length());
+      buffer.writeByte(NEWLINE);
     }
 
-
-    String eventId = event.getId();
     if (eventId != null) {
-      outputStream.write(EVENT_ID_PREFIX);
-      writer.append(eventId).flush();
-      outputStream.write(NEWLINE);
+      buffer.writeBytes(EVENT_ID_PREFIX);
+      writeUtf8(buffer, eventId, 0, eventId.length());
+      buffer.writeByte(NEWLINE);
     }
 
-    outputStream.write(NEWLINE);
-    writer.flush();
-    writer.close();
+    buffer.writeByte(NEWLINE);
     return buffer;
   }
+
+  private byte[] eventTypeLine(String eventType) {
+    byte[] line = eventTypeLines.get(eventType);
+    if (line == null) {
+      byte[] type = eventType.getBytes(UTF_8);
+      line = new byte[EVENT_TYPE_PREFIX.length + type.length + 1];
+      System.arraycopy(EVENT_TYPE_PREFIX, 0, line, 0, EVENT_TYPE_PREFIX.length);
+      System.arraycopy(type, 0, line, EVENT_TYPE_PREFIX.length, type.length);
+      line[line.length - 1] = NEWLINE;
+      if (eventTypeLines.size() < MAX_CACHED_EVENT_TYPES) {
+        eventTypeLines.putIfAbsent(eventType, line);
+      }
+    }
+    return line;
+  }
+
+  private static void writeUtf8(ByteBuf buffer, String string, int start, int end) {
+    for (int i = start; i < end; ++i) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.writeByte(c);
+      } else if (c < 0x800) {
+        buffer.writeByte(0xc0 | (c >> 6));
+        buffer.writeByte(0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(string.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, string.charAt(++i));
+          buffer.writeByte(0xf0 | (codePoint >> 18));
+          buffer.writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+          buffer.writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+          buffer.writeByte(0x80 | (codePoint & 0x3f));
+        } else {
+          buffer.writeByte('?');
+        }
+      } else {
+        buffer.writeByte(0xe0 | (c >> 12));
+        buffer.writeByte(0x80 | ((c >> 6) & 0x3f));
+        buffer.writeByte(0x80 | (c & 0x3f));
+      }
+    }
+  }
+
 }
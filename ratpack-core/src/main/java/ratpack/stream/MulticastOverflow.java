@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream;
+
+/**
+ * What a bounded multicast publisher does when a subscriber falls too far behind.
+ *
+ * @see Streams#multicast(org.reactivestreams.Publisher, int, MulticastOverflow)
+ */
+public enum MulticastOverflow {
+
+  /**
+   * Discard the oldest items the subscriber has not yet received, to make room for new items.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Keep the items the subscriber has not yet received, and discard new items until it has caught up.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Signal an error to the subscriber and cancel its subscription.
+   */
+  DISCONNECT,
+
+  /**
+   * Only ever deliver the most recent item, discarding all older items the subscriber has not yet received.
+   * <p>
+   * This is suitable for streams where each item supersedes the previous, such as periodic snapshots.
+   */
+  LATEST
+
+}
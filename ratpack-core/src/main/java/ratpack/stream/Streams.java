@@ -310,6 +310,7 @@ public class Streams {
    * Each subscriber can signal its own demand.  If the given publisher emits far faster than the downstream subscribers request, the intermediate
    * queue of each subscriber will grow large and consume substantial memory. However, given this publisher is likely to be used with a periodic
    * publisher or a regular indefinite stream it is unlikely to be a problem.
+   * If subscribers may be arbitrarily slow, use {@link #multicast(Publisher, int, MulticastOverflow)} instead.
    * <p>
    * When a subscriber subscribes to the return publisher then it will not receive any events that have been emitted before it subscribed.
    *
@@ -321,6 +322,29 @@ public class Streams {
     return transformable(new MulticastPublisher<>(publisher));
   }
 
+  /**
+   * Returns a publisher that will stream events emitted from the given publisher to all of its subscribers, holding at most {@code capacity} items for slow subscribers.
+   * <p>
+   * The return publisher allows the given publisher to emit as fast as it can, while applying flow control downstream to multiple subscribers.
+   * Unlike {@link #multicast(Publisher)}, the items are held in a single ring buffer of the given capacity that is shared by all subscribers,
+   * with each subscriber keeping its own position in the buffer.
+   * A subscriber that has not yet received {@code capacity} items when another item arrives has overflowed, and the given {@link MulticastOverflow} strategy decides what happens to it.
+   * Memory use is therefore bounded regardless of how slow any subscriber is.
+   * <p>
+   * When a subscriber subscribes to the return publisher then it will not receive any events that have been emitted before it subscribed.
+   * <p>
+   * Items are shared between subscribers and discarded items are not released, so this publisher should not be used directly with reference counted items.
+   *
+   * @param publisher a data source
+   * @param capacity the maximum number of items held for a subscriber
+   * @param overflow what to do when a subscriber falls more than {@code capacity} items behind
+   * @param <T> the type of item
+   * @return a publisher that respects back pressure for each of it's Subscribers, within a bounded amount of memory
+   */
+  public static <T> TransformablePublisher<T> multicast(Publisher<T> publisher, int capacity, MulticastOverflow overflow) {
+    return transformable(new BoundedMulticastPublisher<>(publisher, capacity, overflow));
+  }
+
   /**
    * Returns a publisher that publishes each element from Collections that are produced from the given input publisher.
    * <p>
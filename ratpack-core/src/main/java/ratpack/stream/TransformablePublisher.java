@@ -91,6 +91,17 @@ public interface TransformablePublisher<T> extends Publisher<T> {
     return Streams.multicast(this);
   }
 
+  /**
+   * See {@link ratpack.stream.Streams#multicast(Publisher, int, MulticastOverflow)}.
+   *
+   * @param capacity the maximum number of items held for a subscriber
+   * @param overflow what to do when a subscriber falls more than {@code capacity} items behind
+   * @return a publisher that respects back pressure for each of its subscribers, within a bounded amount of memory
+   */
+  default TransformablePublisher<T> multicast(int capacity, MulticastOverflow overflow) {
+    return Streams.multicast(this, capacity, overflow);
+  }
+
   /**
    * See {@link ratpack.stream.Streams#toPromise(Publisher)}.
    *
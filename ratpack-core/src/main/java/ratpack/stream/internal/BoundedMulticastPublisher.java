@@ -0,0 +1,240 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.stream.internal;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import ratpack.stream.MulticastOverflow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multicast publisher that holds emitted items in a single bounded ring buffer.
+ * <p>
+ * Each subscriber has its own cursor into the ring.
+ * When a subscriber falls behind by more than the capacity of the ring, the overflow strategy decides what happens to it.
+ * The upstream publisher is never slowed down by a slow subscriber, and memory use does not depend on subscriber speed.
+ */
+public class BoundedMulticastPublisher<T> implements Publisher<T> {
+
+  private final Publisher<T> upstreamPublisher;
+  private final MulticastOverflow overflow;
+  private final int capacity;
+
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean requestedUpstream = new AtomicBoolean();
+  private final AtomicBoolean upstreamFinished = new AtomicBoolean();
+  private volatile Throwable upstreamError;
+
+  // guarded by ring
+  private final Object[] ring;
+  private long head;
+
+  public BoundedMulticastPublisher(Publisher<T> publisher, int capacity, MulticastOverflow overflow) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    this.upstreamPublisher = publisher;
+    this.capacity = capacity;
+    this.overflow = overflow;
+    this.ring = new Object[capacity];
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (upstreamFinished.get()) {
+      subscriber.onError(new IllegalStateException("The upstream publisher has completed, either successfully or with error.  No further subscriptions will be accepted"));
+    } else {
+      new Subscription(subscriber);
+    }
+  }
+
+  private void tryUpstreamSubscribe() {
+    if (requestedUpstream.compareAndSet(false, true)) {
+      upstreamPublisher.subscribe(new Subscriber<T>() {
+        @Override
+        public void onSubscribe(org.reactivestreams.Subscription s) {
+          s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T t) {
+          publish(t);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+          upstreamError = t;
+          upstreamFinished.set(true);
+          for (Subscription subscription : subscriptions) {
+            subscription.onError(t);
+          }
+        }
+
+        @Override
+        public void onComplete() {
+          upstreamFinished.set(true);
+          for (Subscription subscription : subscriptions) {
+            subscription.tryDrain();
+          }
+        }
+      });
+    }
+  }
+
+  private void publish(T item) {
+    List<Subscription> overflowed = null;
+    synchronized (ring) {
+      for (Subscription subscription : subscriptions) {
+        if (subscription.backlog != null) {
+          // dropping newest until the backlog is drained
+          continue;
+        }
+        if (head - subscription.cursor >= capacity) {
+          switch (overflow) {
+            case DROP_OLDEST:
+              ++subscription.cursor;
+              break;
+            case DROP_NEWEST:
+              subscription.backlog = new ArrayDeque<>(capacity);
+              for (long i = subscription.cursor; i < head; ++i) {
+                subscription.backlog.add(item(i));
+              }
+              break;
+            case LATEST:
+              subscription.cursor = head;
+              break;
+            case DISCONNECT:
+            default:
+              subscription.cursor = head;
+              if (overflowed == null) {
+                overflowed = new ArrayList<>();
+              }
+              overflowed.add(subscription);
+              break;
+          }
+        }
+      }
+      ring[(int) (head % capacity)] = item;
+      ++head;
+    }
+
+    if (overflowed != null) {
+      for (Subscription subscription : overflowed) {
+        subscriptions.remove(subscription);
+        subscription.onError(new IllegalStateException("Subscriber fell more than " + capacity + " items behind the multicast stream"));
+      }
+    }
+
+    for (Subscription subscription : subscriptions) {
+      subscription.tryDrain();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T item(long sequence) {
+    return (T) ring[(int) (sequence % capacity)];
+  }
+
+  private class Subscription extends SubscriptionSupport<T> {
+
+    private final AtomicLong wanted = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // guarded by ring
+    private long cursor;
+    private ArrayDeque<T> backlog;
+
+    public Subscription(Subscriber<? super T> subscriber) {
+      super(subscriber);
+      synchronized (ring) {
+        cursor = head;
+      }
+      subscriptions.add(this);
+      start();
+    }
+
+    @Override
+    protected void doRequest(long n) {
+      wanted.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+      tryUpstreamSubscribe();
+      tryDrain();
+    }
+
+    @Override
+    protected void doCancel() {
+      subscriptions.remove(this);
+    }
+
+    private T next() {
+      synchronized (ring) {
+        if (backlog != null) {
+          T item = backlog.poll();
+          if (backlog.isEmpty()) {
+            backlog = null;
+            cursor = head;
+          }
+          return item;
+        }
+        if (cursor == head) {
+          return null;
+        }
+        if (overflow == MulticastOverflow.LATEST) {
+          cursor = head - 1;
+        }
+        return item(cursor++);
+      }
+    }
+
+    void tryDrain() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          while (wanted.get() > 0 && !isStopped()) {
+            T item = next();
+            if (item == null) {
+              break;
+            }
+            wanted.decrementAndGet();
+            onNext(item);
+          }
+          if (upstreamFinished.get() && upstreamError == null && !hasNext()) {
+            subscriptions.remove(this);
+            onComplete();
+            return;
+          }
+        } finally {
+          draining.set(false);
+        }
+        if (wanted.get() > 0 && hasNext()) {
+          tryDrain();
+        }
+      }
+    }
+
+    private boolean hasNext() {
+      synchronized (ring) {
+        return backlog != null || cursor != head;
+      }
+    }
+  }
+
+}
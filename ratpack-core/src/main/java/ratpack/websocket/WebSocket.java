@@ -35,4 +35,27 @@ public interface WebSocket {
   @NonBlocking
   void send(ByteBuf text);
 
+  @NonBlocking
+  void sendBinary(ByteBuf data);
+
+  /**
+   * Whether the connection can accept more messages without them being buffered in memory.
+   * <p>
+   * Messages sent while this returns {@code false} are still sent, but are held until the client catches up.
+   *
+   * @return whether the connection can currently accept more messages without buffering
+   */
+  boolean isWritable();
+
+  /**
+   * Runs the given action once the connection is writable.
+   * <p>
+   * If the connection is writable, the action runs immediately.
+   * Otherwise it runs once, the next time the connection becomes writable.
+   *
+   * @param action the action to run when the connection is writable
+   */
+  @NonBlocking
+  void whenWritable(Runnable action);
+
 }
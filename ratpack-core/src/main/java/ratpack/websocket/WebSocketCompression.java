@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket;
+
+/**
+ * Enables <a href="https://tools.ietf.org/html/rfc7692">permessage-deflate</a> compression of websocket messages.
+ * <p>
+ * Compression is negotiated with each client that offers it when an instance of this type is available in the context registry.
+ * Clients that do not offer it, or that request parameters that can't be honoured, are served uncompressed.
+ * <p>
+ * Compression can be enabled for a group of handlers by {@link ratpack.handling.Chain#register(ratpack.registry.Registry) registering} an instance of this type for them.
+ *
+ * <pre class="java">{@code
+ * import ratpack.websocket.WebSocketCompression;
+ *
+ * public class Example {
+ *   public static void main(String... args) {
+ *     WebSocketCompression compression = WebSocketCompression.deflate()
+ *       .serverNoContextTakeover()
+ *       .clientMaxWindowBits(10);
+ *
+ *     assert compression.isServerNoContextTakeover();
+ *     assert compression.getClientMaxWindowBits() == 10;
+ *   }
+ * }
+ * }</pre>
+ * <p>
+ * With {@link #serverNoContextTakeover() server context takeover} disabled, each message is compressed on its own.
+ * This compresses repetitive streams less well, but means that {@link WebSockets#websocketBroadcast broadcasts} only compress each message once,
+ * instead of once per connected client.
+ * <p>
+ * Messages are always compressed with a 32KB window, so offers that restrict the server window size are declined.
+ */
+public final class WebSocketCompression {
+
+  public static final int MAX_WINDOW_BITS = 15;
+  public static final int MIN_WINDOW_BITS = 8;
+
+  private final int clientMaxWindowBits;
+  private final boolean serverNoContextTakeover;
+  private final boolean clientNoContextTakeover;
+
+  private WebSocketCompression(int clientMaxWindowBits, boolean serverNoContextTakeover, boolean clientNoContextTakeover) {
+    this.clientMaxWindowBits = clientMaxWindowBits;
+    this.serverNoContextTakeover = serverNoContextTakeover;
+    this.clientNoContextTakeover = clientNoContextTakeover;
+  }
+
+  /**
+   * Compression with the default parameters: full window sizes and context takeover in both directions.
+   *
+   * @return compression with the default parameters
+   */
+  public static WebSocketCompression deflate() {
+    return new WebSocketCompression(MAX_WINDOW_BITS, false, false);
+  }
+
+  /**
+   * Asks clients that support it to limit the window they compress with to {@code 2^bits} bytes.
+   * <p>
+   * A smaller window reduces the memory a client needs per connection.
+   *
+   * @param bits the base 2 logarithm of the window size, between {@value #MIN_WINDOW_BITS} and {@value #MAX_WINDOW_BITS}
+   * @return a copy of this configuration with the given client window size
+   */
+  public WebSocketCompression clientMaxWindowBits(int bits) {
+    if (bits < MIN_WINDOW_BITS || bits > MAX_WINDOW_BITS) {
+      throw new IllegalArgumentException("window bits must be between " + MIN_WINDOW_BITS + " and " + MAX_WINDOW_BITS + " (was " + bits + ")");
+    }
+    return new WebSocketCompression(bits, serverNoContextTakeover, clientNoContextTakeover);
+  }
+
+  /**
+   * Compresses each outbound message on its own, instead of referring back to previous messages.
+   *
+   * @return a copy of this configuration without server context takeover
+   */
+  public WebSocketCompression serverNoContextTakeover() {
+    return new WebSocketCompression(clientMaxWindowBits, true, clientNoContextTakeover);
+  }
+
+  /**
+   * Asks clients to compress each inbound message on its own, instead of referring back to previous messages.
+   *
+   * @return a copy of this configuration without client context takeover
+   */
+  public WebSocketCompression clientNoContextTakeover() {
+    return new WebSocketCompression(clientMaxWindowBits, serverNoContextTakeover, true);
+  }
+
+  public int getClientMaxWindowBits() {
+    return clientMaxWindowBits;
+  }
+
+  public boolean isServerNoContextTakeover() {
+    return serverNoContextTakeover;
+  }
+
+  public boolean isClientNoContextTakeover() {
+    return clientNoContextTakeover;
+  }
+
+}
@@ -16,12 +16,30 @@
 
 package ratpack.websocket;
 
+import io.netty.buffer.ByteBuf;
+
 public interface WebSocketMessage<T> {
 
   WebSocket getConnection();
 
+  /**
+   * The text of the message, or {@code null} if this is a binary message.
+   *
+   * @return the text of the message
+   */
   String getText();
 
+  boolean isBinary();
+
+  /**
+   * The payload of a binary message, or {@code null} if this is a text message.
+   * <p>
+   * The buffer is released once the message handler returns, and must be {@link ByteBuf#retain() retained} to be used after that.
+   *
+   * @return the payload of a binary message
+   */
+  ByteBuf getData();
+
   T getOpenResult();
 
 }
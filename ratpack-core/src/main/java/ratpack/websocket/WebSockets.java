@@ -49,7 +49,7 @@ public abstract class WebSockets {
   }
 
   public static void websocketByteBufBroadcast(final Context context, final Publisher<ByteBuf> broadcaster) {
-    websocket(context, new AutoCloseWebSocketHandler<AutoCloseable>() {
+    WebSocketEngine.connect(context, "/", context.get(ServerConfig.class).getMaxContentLength(), true, new AutoCloseWebSocketHandler<AutoCloseable>() {
       @Override
       public AutoCloseable onOpen(final WebSocket webSocket) throws Exception {
         WebsocketBroadcastSubscriber subscriber = new WebsocketBroadcastSubscriber(webSocket);
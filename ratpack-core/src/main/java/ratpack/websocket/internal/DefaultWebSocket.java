@@ -18,10 +18,15 @@ package ratpack.websocket.internal;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import ratpack.websocket.WebSocket;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DefaultWebSocket implements WebSocket {
@@ -30,10 +35,18 @@ public class DefaultWebSocket implements WebSocket {
   private final Runnable onClose;
   private final AtomicBoolean open;
 
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final Runnable flush;
+  private final Queue<Runnable> writableActions = new ConcurrentLinkedQueue<>();
+
   public DefaultWebSocket(Channel channel, AtomicBoolean open, Runnable onClose) {
     this.channel = channel;
     this.onClose = onClose;
     this.open = open;
+    this.flush = () -> {
+      flushScheduled.set(false);
+      channel.flush();
+    };
   }
 
   @Override
@@ -55,12 +68,53 @@ public class DefaultWebSocket implements WebSocket {
 
   @Override
   public void send(String text) {
-    channel.writeAndFlush(new TextWebSocketFrame(text));
+    write(new TextWebSocketFrame(text));
   }
 
   @Override
   public void send(ByteBuf text) {
-    channel.writeAndFlush(new TextWebSocketFrame(text));
+    write(new TextWebSocketFrame(text));
+  }
+
+  @Override
+  public void sendBinary(ByteBuf data) {
+    write(new BinaryWebSocketFrame(data));
+  }
+
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable();
+  }
+
+  @Override
+  public void whenWritable(Runnable action) {
+    if (channel.isWritable()) {
+      action.run();
+    } else {
+      writableActions.add(action);
+      // The channel may have become writable between the check and the add
+      if (channel.isWritable()) {
+        writabilityChanged();
+      }
+    }
+  }
+
+  void writabilityChanged() {
+    Runnable action;
+    while (channel.isWritable() && (action = writableActions.poll()) != null) {
+      action.run();
+    }
+  }
+
+  /**
+   * Writes the frame, flushing once per event loop cycle instead of once per frame.
+   */
+  ChannelFuture write(WebSocketFrame frame) {
+    ChannelFuture future = channel.write(frame);
+    if (flushScheduled.compareAndSet(false, true)) {
+      channel.eventLoop().execute(flush);
+    }
+    return future;
   }
 
 }
@@ -16,6 +16,7 @@
 
 package ratpack.websocket.internal;
 
+import io.netty.buffer.ByteBuf;
 import ratpack.websocket.WebSocket;
 import ratpack.websocket.WebSocketMessage;
 
@@ -23,11 +24,21 @@ public class DefaultWebSocketMessage<T> implements WebSocketMessage<T> {
 
   private final WebSocket webSocket;
   private final String text;
+  private final ByteBuf data;
   private final T openResult;
 
   public DefaultWebSocketMessage(WebSocket webSocket, String text, T openResult) {
+    this(webSocket, text, null, openResult);
+  }
+
+  public DefaultWebSocketMessage(WebSocket webSocket, ByteBuf data, T openResult) {
+    this(webSocket, null, data, openResult);
+  }
+
+  private DefaultWebSocketMessage(WebSocket webSocket, String text, ByteBuf data, T openResult) {
     this.webSocket = webSocket;
     this.text = text;
+    this.data = data;
     this.openResult = openResult;
   }
 
@@ -41,6 +52,16 @@ public class DefaultWebSocketMessage<T> implements WebSocketMessage<T> {
     return text;
   }
 
+  @Override
+  public boolean isBinary() {
+    return data != null;
+  }
+
+  @Override
+  public ByteBuf getData() {
+    return data;
+  }
+
   @Override
   public T getOpenResult() {
     return openResult;
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket.internal;
+
+import io.netty.channel.ChannelHandler;
+import ratpack.websocket.WebSocketCompression;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static ratpack.websocket.WebSocketCompression.MAX_WINDOW_BITS;
+import static ratpack.websocket.WebSocketCompression.MIN_WINDOW_BITS;
+
+/**
+ * The outcome of negotiating permessage-deflate (RFC 7692) with a client.
+ */
+public class PerMessageDeflate {
+
+  public static final String EXTENSION_NAME = "permessage-deflate";
+
+  private static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+  private static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+  private static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+  private static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+
+  private final boolean serverNoContextTakeover;
+  private final boolean clientNoContextTakeover;
+  private final String responseHeader;
+
+  private PerMessageDeflate(boolean serverNoContextTakeover, boolean clientNoContextTakeover, String responseHeader) {
+    this.serverNoContextTakeover = serverNoContextTakeover;
+    this.clientNoContextTakeover = clientNoContextTakeover;
+    this.responseHeader = responseHeader;
+  }
+
+  /**
+   * Selects the first acceptable permessage-deflate offer from the client's {@code Sec-WebSocket-Extensions} header.
+   *
+   * @param config the server's compression configuration
+   * @param extensionsHeader the value of the request's {@code Sec-WebSocket-Extensions} header, may be null
+   * @return the agreed parameters, or null if the client made no acceptable offer
+   */
+  public static PerMessageDeflate negotiate(WebSocketCompression config, String extensionsHeader) {
+    if (extensionsHeader == null) {
+      return null;
+    }
+    for (String offer : extensionsHeader.split(",")) {
+      PerMessageDeflate accepted = accept(config, offer.split(";"));
+      if (accepted != null) {
+        return accepted;
+      }
+    }
+    return null;
+  }
+
+  private static PerMessageDeflate accept(WebSocketCompression config, String[] offer) {
+    if (!offer[0].trim().equalsIgnoreCase(EXTENSION_NAME)) {
+      return null;
+    }
+
+    boolean serverNoContextTakeover = config.isServerNoContextTakeover();
+    boolean clientMaxWindowBitsSupported = false;
+    int clientMaxWindowBits = MAX_WINDOW_BITS;
+    Set<String> seen = new HashSet<>();
+
+    for (int i = 1; i < offer.length; ++i) {
+      String param = offer[i].trim();
+      String value = null;
+      int equals = param.indexOf('=');
+      if (equals >= 0) {
+        value = param.substring(equals + 1).trim();
+        if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+          value = value.substring(1, value.length() - 1);
+        }
+        param = param.substring(0, equals).trim();
+      }
+      param = param.toLowerCase();
+      if (!seen.add(param)) {
+        return null;
+      }
+
+      switch (param) {
+        case SERVER_NO_CONTEXT_TAKEOVER:
+          if (value != null) {
+            return null;
+          }
+          serverNoContextTakeover = true;
+          break;
+        case CLIENT_NO_CONTEXT_TAKEOVER:
+          if (value != null) {
+            return null;
+          }
+          break;
+        case SERVER_MAX_WINDOW_BITS:
+          // The JDK deflater always uses the largest window, so we can't agree to a smaller one
+          if (windowBits(value) != MAX_WINDOW_BITS) {
+            return null;
+          }
+          break;
+        case CLIENT_MAX_WINDOW_BITS:
+          clientMaxWindowBitsSupported = true;
+          if (value != null) {
+            clientMaxWindowBits = windowBits(value);
+            if (clientMaxWindowBits < 0) {
+              return null;
+            }
+          }
+          break;
+        default:
+          return null;
+      }
+    }
+
+    StringBuilder response = new StringBuilder(EXTENSION_NAME);
+    if (serverNoContextTakeover) {
+      response.append("; ").append(SERVER_NO_CONTEXT_TAKEOVER);
+    }
+    if (config.isClientNoContextTakeover()) {
+      response.append("; ").append(CLIENT_NO_CONTEXT_TAKEOVER);
+    }
+    if (clientMaxWindowBitsSupported && config.getClientMaxWindowBits() < clientMaxWindowBits) {
+      response.append("; ").append(CLIENT_MAX_WINDOW_BITS).append('=').append(config.getClientMaxWindowBits());
+    }
+
+    return new PerMessageDeflate(serverNoContextTakeover, config.isClientNoContextTakeover(), response.toString());
+  }
+
+  private static int windowBits(String value) {
+    if (value == null) {
+      return -1;
+    }
+    try {
+      int bits = Integer.parseInt(value);
+      return bits >= MIN_WINDOW_BITS && bits <= MAX_WINDOW_BITS ? bits : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  public String getResponseHeader() {
+    return responseHeader;
+  }
+
+  public boolean isServerNoContextTakeover() {
+    return serverNoContextTakeover;
+  }
+
+  public boolean isClientNoContextTakeover() {
+    return clientNoContextTakeover;
+  }
+
+  public ChannelHandler newEncoder(boolean broadcast) {
+    return new PerMessageDeflateEncoder(serverNoContextTakeover, broadcast && serverNoContextTakeover);
+  }
+
+  public ChannelHandler newDecoder(int maxLength) {
+    return new PerMessageDeflateDecoder(clientNoContextTakeover, maxLength);
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static ratpack.websocket.internal.PerMessageDeflateEncoder.RSV1;
+
+/**
+ * Inflates compressed messages, which must already have been aggregated from their fragments.
+ */
+public class PerMessageDeflateDecoder extends MessageToMessageDecoder<WebSocketFrame> {
+
+  private static final byte[] TAIL = {0x00, 0x00, (byte) 0xff, (byte) 0xff};
+
+  private final boolean noContextTakeover;
+  private final int maxLength;
+  private final Inflater inflater = new Inflater(true);
+
+  public PerMessageDeflateDecoder(boolean noContextTakeover, int maxLength) {
+    this.noContextTakeover = noContextTakeover;
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public boolean acceptInboundMessage(Object msg) throws Exception {
+    return (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) && (((WebSocketFrame) msg).rsv() & RSV1) != 0;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) throws Exception {
+    ByteBuf content = frame.content();
+    int length = content.readableBytes();
+    byte[] input = new byte[length + TAIL.length];
+    content.getBytes(content.readerIndex(), input, 0, length);
+    System.arraycopy(TAIL, 0, input, length, TAIL.length);
+    inflater.setInput(input);
+
+    ByteBuf inflated = ctx.alloc().heapBuffer(length * 2 + 16);
+    try {
+      while (true) {
+        if (!inflated.isWritable()) {
+          if (inflated.readableBytes() >= maxLength) {
+            throw new TooLongFrameException("inflated message is larger than " + maxLength + " bytes");
+          }
+          inflated.ensureWritable(Math.min(inflated.capacity(), maxLength + 1 - inflated.readableBytes()));
+        }
+        int written = inflater.inflate(inflated.array(), inflated.arrayOffset() + inflated.writerIndex(), inflated.writableBytes());
+        inflated.writerIndex(inflated.writerIndex() + written);
+        if (written == 0) {
+          if (inflater.needsDictionary()) {
+            throw new CorruptedFrameException("compressed message requires a preset dictionary");
+          } else if (inflater.needsInput() || inflater.finished()) {
+            break;
+          }
+        }
+      }
+      if (inflated.readableBytes() > maxLength) {
+        throw new TooLongFrameException("inflated message is larger than " + maxLength + " bytes");
+      }
+    } catch (DataFormatException e) {
+      inflated.release();
+      throw new CorruptedFrameException(e);
+    } catch (Exception e) {
+      inflated.release();
+      throw e;
+    }
+
+    if (noContextTakeover) {
+      inflater.reset();
+    }
+
+    int rsv = frame.rsv() & ~RSV1;
+    if (frame instanceof TextWebSocketFrame) {
+      out.add(new TextWebSocketFrame(true, rsv, inflated));
+    } else {
+      out.add(new BinaryWebSocketFrame(true, rsv, inflated));
+    }
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    inflater.end();
+    super.handlerRemoved(ctx);
+  }
+
+}
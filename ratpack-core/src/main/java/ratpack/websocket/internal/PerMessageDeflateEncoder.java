@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+public class PerMessageDeflateEncoder extends MessageToMessageEncoder<WebSocketFrame> {
+
+  static final int RSV1 = 0x04;
+
+  // Broadcasts send the same messages to every connection, and without context takeover a message always compresses to the same bytes
+  private static final Cache<ByteBuf, byte[]> BROADCAST_CACHE = CacheBuilder.newBuilder().maximumSize(256).build();
+
+  private final boolean noContextTakeover;
+  private final boolean shareCompressed;
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+  public PerMessageDeflateEncoder(boolean noContextTakeover, boolean shareCompressed) {
+    this.noContextTakeover = noContextTakeover;
+    this.shareCompressed = shareCompressed;
+  }
+
+  @Override
+  public boolean acceptOutboundMessage(Object msg) throws Exception {
+    if (msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame) {
+      WebSocketFrame frame = (WebSocketFrame) msg;
+      return frame.isFinalFragment() && frame.rsv() == 0;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) throws Exception {
+    ByteBuf content = frame.content();
+    ByteBuf compressed;
+    if (shareCompressed) {
+      byte[] bytes = BROADCAST_CACHE.getIfPresent(content);
+      if (bytes == null) {
+        ByteBuf buffer = deflate(content, Unpooled.buffer(content.readableBytes() / 2 + 16));
+        bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        BROADCAST_CACHE.put(Unpooled.copiedBuffer(content), bytes);
+      }
+      compressed = Unpooled.wrappedBuffer(bytes);
+    } else {
+      compressed = deflate(content, ctx.alloc().heapBuffer(content.readableBytes() / 2 + 16));
+    }
+
+    if (frame instanceof TextWebSocketFrame) {
+      out.add(new TextWebSocketFrame(true, frame.rsv() | RSV1, compressed));
+    } else {
+      out.add(new BinaryWebSocketFrame(true, frame.rsv() | RSV1, compressed));
+    }
+  }
+
+  private ByteBuf deflate(ByteBuf content, ByteBuf out) {
+    if (!content.isReadable()) {
+      // The deflater produces nothing for empty input if it has already been flushed, so write an empty block ourselves
+      return out.writeByte(0);
+    }
+
+    if (content.hasArray()) {
+      deflater.setInput(content.array(), content.arrayOffset() + content.readerIndex(), content.readableBytes());
+    } else {
+      byte[] input = new byte[content.readableBytes()];
+      content.getBytes(content.readerIndex(), input);
+      deflater.setInput(input);
+    }
+
+    int written;
+    do {
+      out.ensureWritable(Math.max(64, out.writableBytes()));
+      written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes(), Deflater.SYNC_FLUSH);
+      out.writerIndex(out.writerIndex() + written);
+    } while (written > 0 && !out.isWritable());
+
+    // A sync flush always ends with an empty stored block (0x00 0x00 0xff 0xff), which the protocol leaves implicit
+    out.writerIndex(out.writerIndex() - 4);
+
+    if (noContextTakeover) {
+      deflater.reset();
+    }
+    return out;
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+    deflater.end();
+    super.handlerRemoved(ctx);
+  }
+
+}
@@ -16,35 +16,40 @@
 
 package ratpack.websocket.internal;
 
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
-import io.netty.handler.codec.http.DefaultFullHttpRequest;
-import io.netty.handler.codec.http.FullHttpRequest;
-import io.netty.handler.codec.http.HttpMethod;
-import io.netty.handler.codec.http.HttpVersion;
+import io.netty.channel.*;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.websocketx.*;
 import ratpack.handling.Context;
 import ratpack.handling.direct.DirectChannelAccess;
 import ratpack.http.Request;
 import ratpack.server.PublicAddress;
 import ratpack.websocket.WebSocket;
+import ratpack.websocket.WebSocketCompression;
 import ratpack.websocket.WebSocketHandler;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_EXTENSIONS;
 import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_KEY;
 import static io.netty.handler.codec.http.HttpHeaderNames.SEC_WEBSOCKET_VERSION;
 import static io.netty.handler.codec.http.HttpMethod.valueOf;
+import static io.netty.util.ReferenceCountUtil.release;
 import static ratpack.util.ExceptionUtils.toException;
 import static ratpack.util.ExceptionUtils.uncheck;
 
 public class WebSocketEngine {
 
   public static <T> void connect(final Context context, String path, int maxLength, final WebSocketHandler<T> handler) {
+    connect(context, path, maxLength, false, handler);
+  }
+
+  public static <T> void connect(final Context context, String path, int maxLength, boolean broadcast, final WebSocketHandler<T> handler) {
     PublicAddress publicAddress = context.get(PublicAddress.class);
     URI address = publicAddress.getAddress(context);
     URI httpPath = address.resolve(path);
@@ -56,9 +61,13 @@ public class WebSocketEngine {
       throw uncheck(e);
     }
 
-    WebSocketServerHandshakerFactory factory = new WebSocketServerHandshakerFactory(wsPath.toString(), null, false, maxLength);
-
     Request request = context.getRequest();
+    PerMessageDeflate deflate = context.maybeGet(WebSocketCompression.class)
+      .map(compression -> PerMessageDeflate.negotiate(compression, request.getHeaders().get(SEC_WEBSOCKET_EXTENSIONS)))
+      .orElse(null);
+
+    WebSocketServerHandshakerFactory factory = new WebSocketServerHandshakerFactory(wsPath.toString(), null, deflate != null, maxLength);
+
     HttpMethod method = valueOf(request.getMethod().getName());
     FullHttpRequest nettyRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, request.getUri());
     nettyRequest.headers().add(SEC_WEBSOCKET_VERSION, request.getHeaders().get(SEC_WEBSOCKET_VERSION));
@@ -69,7 +78,14 @@ public class WebSocketEngine {
     final DirectChannelAccess directChannelAccess = context.getDirectChannelAccess();
     final Channel channel = directChannelAccess.getChannel();
 
-    handshaker.handshake(channel, nettyRequest).addListener(new HandshakeFutureListener<>(context, handshaker, handler));
+    HttpHeaders responseHeaders = null;
+    if (deflate != null) {
+      responseHeaders = new DefaultHttpHeaders();
+      responseHeaders.set(SEC_WEBSOCKET_EXTENSIONS, deflate.getResponseHeader());
+    }
+
+    handshaker.handshake(channel, nettyRequest, responseHeaders, channel.newPromise())
+      .addListener(new HandshakeFutureListener<>(context, handshaker, handler, maxLength, deflate, broadcast));
   }
 
   private static class HandshakeFutureListener<T> implements ChannelFutureListener {
@@ -77,20 +93,30 @@ public class WebSocketEngine {
     private final Context context;
     private final WebSocketServerHandshaker handshaker;
     private final WebSocketHandler<T> handler;
+    private final int maxLength;
+    private final PerMessageDeflate deflate;
+    private final boolean broadcast;
 
     private volatile T openResult;
-    private final CountDownLatch openLatch = new CountDownLatch(1);
 
-    public HandshakeFutureListener(Context context, WebSocketServerHandshaker handshaker, WebSocketHandler<T> handler) {
+    // Frames that arrive before onOpen() returns, dispatched once it has
+    private final Queue<Object> pending = new ArrayDeque<>();
+    private boolean opened;
+
+    public HandshakeFutureListener(Context context, WebSocketServerHandshaker handshaker, WebSocketHandler<T> handler, int maxLength, PerMessageDeflate deflate, boolean broadcast) {
       this.context = context;
       this.handshaker = handshaker;
       this.handler = handler;
+      this.maxLength = maxLength;
+      this.deflate = deflate;
+      this.broadcast = broadcast;
     }
 
     public void operationComplete(ChannelFuture future) throws Exception {
       if (future.isSuccess()) {
+        final Channel channel = context.getDirectChannelAccess().getChannel();
         final AtomicBoolean open = new AtomicBoolean(true);
-        final WebSocket webSocket = new DefaultWebSocket(context.getDirectChannelAccess().getChannel(), open, () -> {
+        final DefaultWebSocket webSocket = new DefaultWebSocket(channel, open, () -> {
           try {
             handler.onClose(new DefaultWebSocketClose<>(false, openResult));
           } catch (Exception e) {
@@ -98,38 +124,87 @@ public class WebSocketEngine {
           }
         });
 
+        ChannelPipeline pipeline = channel.pipeline();
+        pipeline.addAfter("wsdecoder", "wsaggregator", new WebSocketFrameAggregator(maxLength));
+        pipeline.addAfter("wsaggregator", "wsconnection", new ConnectionHandler(webSocket));
+        if (deflate != null) {
+          pipeline.addAfter("wsaggregator", "wsinflater", deflate.newDecoder(maxLength));
+          pipeline.addAfter("wsencoder", "wsdeflater", deflate.newEncoder(broadcast));
+        }
+
         context.getDirectChannelAccess().takeOwnership(msg -> {
-          openLatch.await();
-          Channel channel = context.getDirectChannelAccess().getChannel();
-          if (channel.isOpen()) {
-            if (msg instanceof WebSocketFrame) {
-              WebSocketFrame frame = (WebSocketFrame) msg;
-              if (frame instanceof CloseWebSocketFrame) {
-                open.set(false);
-                handshaker.close(channel, (CloseWebSocketFrame) frame.retain()).addListener(future1 -> handler.onClose(new DefaultWebSocketClose<>(true, openResult)));
-                return;
-              }
-              if (frame instanceof PingWebSocketFrame) {
-                channel.write(new PongWebSocketFrame(frame.content().retain()));
-                return;
-              }
-              if (frame instanceof TextWebSocketFrame) {
-                TextWebSocketFrame textWebSocketFrame = (TextWebSocketFrame) frame;
-                handler.onMessage(new DefaultWebSocketMessage<>(webSocket, textWebSocketFrame.text(), openResult));
-              }
+          synchronized (pending) {
+            if (!opened) {
+              pending.add(msg);
+              return;
             }
           }
+          dispatch(channel, open, webSocket, msg);
         });
 
         try {
           openResult = handler.onOpen(webSocket);
         } catch (Exception e) {
-          handshaker.close(context.getDirectChannelAccess().getChannel(), new CloseWebSocketFrame(1011, e.getMessage()));
+          handshaker.close(channel, new CloseWebSocketFrame(1011, e.getMessage()));
+        }
+
+        synchronized (pending) {
+          Object msg = pending.poll();
+          while (msg != null) {
+            dispatch(channel, open, webSocket, msg);
+            msg = pending.poll();
+          }
+          opened = true;
         }
-        openLatch.countDown();
       } else {
         context.error(toException(future.cause()));
       }
     }
+
+    private void dispatch(Channel channel, AtomicBoolean open, DefaultWebSocket webSocket, Object msg) throws Exception {
+      try {
+        if (channel.isOpen() && msg instanceof WebSocketFrame) {
+          WebSocketFrame frame = (WebSocketFrame) msg;
+          if (frame instanceof CloseWebSocketFrame) {
+            open.set(false);
+            handshaker.close(channel, (CloseWebSocketFrame) frame.retain()).addListener(future1 -> handler.onClose(new DefaultWebSocketClose<>(true, openResult)));
+          } else if (frame instanceof PingWebSocketFrame) {
+            webSocket.write(new PongWebSocketFrame(frame.content().retain()));
+          } else if (frame instanceof TextWebSocketFrame) {
+            handler.onMessage(new DefaultWebSocketMessage<>(webSocket, ((TextWebSocketFrame) frame).text(), openResult));
+          } else if (frame instanceof BinaryWebSocketFrame) {
+            handler.onMessage(new DefaultWebSocketMessage<>(webSocket, frame.content(), openResult));
+          }
+        }
+      } finally {
+        release(msg);
+      }
+    }
+  }
+
+  private static class ConnectionHandler extends ChannelInboundHandlerAdapter {
+
+    private final DefaultWebSocket webSocket;
+
+    public ConnectionHandler(DefaultWebSocket webSocket) {
+      this.webSocket = webSocket;
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+      webSocket.writabilityChanged();
+      ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+      if (cause instanceof TooLongFrameException) {
+        webSocket.close(1009, "Message too big");
+      } else if (cause instanceof CorruptedFrameException) {
+        webSocket.close(1007, "Invalid compressed data");
+      } else {
+        ctx.fireExceptionCaught(cause);
+      }
+    }
   }
 }
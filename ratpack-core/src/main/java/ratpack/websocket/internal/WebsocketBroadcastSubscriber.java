@@ -53,7 +53,12 @@ public class WebsocketBroadcastSubscriber implements Subscriber<ByteBuf>, AutoCl
   public void onNext(ByteBuf s) {
     if (!terminated) {
       webSocket.send(s);
-      this.subscription.request(1);
+      // Only ask for more while the client keeps up, so that a slow client slows (or overflows) the stream instead of filling the outbound buffer
+      webSocket.whenWritable(() -> {
+        if (!terminated) {
+          this.subscription.request(1);
+        }
+      });
     }
   }
 
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.exec
+
+import ratpack.test.exec.ExecHarness
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class SingleFlightSpec extends Specification {
+
+  @AutoCleanup
+  ExecHarness execHarness = ExecHarness.harness()
+
+  PollingConditions polling = new PollingConditions(timeout: 5)
+
+  def "can use single flight"() {
+    def s = SingleFlight.<String, String> create()
+    def v = execHarness.yield {
+      s.join("a") { execHarness.control.promise { it.success("foo") } }
+    }
+
+    expect:
+    v.value == "foo"
+    s.inFlight == 0
+  }
+
+  def "concurrent joins for the same key share one operation"() {
+    def q = new LinkedBlockingQueue<Fulfiller<Integer>>()
+    def s = SingleFlight.<String, Integer> create()
+    def e = new ConcurrentLinkedQueue<Result<Integer>>()
+    def jobs = 100
+    def latch = new CountDownLatch(jobs)
+
+    when:
+    jobs.times {
+      execHarness.exec().onComplete { latch.countDown() }.start {
+        def exec = it
+        s.join("a") { execHarness.control.promise { q << it } }.asResult {
+          assert execHarness.control.execution.is(exec)
+          e << it
+        }
+      }
+    }
+
+    then:
+    polling.eventually {
+      s.joined == jobs - 1
+    }
+    q.size() == 1
+    s.inFlight == 1
+
+    when:
+    q.take().success(1)
+
+    then:
+    latch.await(5, TimeUnit.SECONDS)
+    e.size() == jobs
+    e.every { it.value == 1 }
+    s.inFlight == 0
+  }
+
+  def "operations for different keys are performed separately"() {
+    def s = SingleFlight.<String, String> create()
+    def calls = []
+
+    when:
+    def v = execHarness.yield {
+      s.join("a") { calls << "a"; execHarness.control.promise { it.success("a") } }.flatMap { a ->
+        s.join("b") { calls << "b"; execHarness.control.promise { it.success(a + "b") } }
+      }.flatMap { ab ->
+        s.join("a") { calls << "a"; execHarness.control.promise { it.success(ab + "a") } }
+      }
+    }
+
+    then:
+    v.value == "aba"
+    calls == ["a", "b", "a"]
+  }
+
+  def "errors are shared with joined promises"() {
+    def q = new LinkedBlockingQueue<Fulfiller<Integer>>()
+    def s = SingleFlight.<String, Integer> create()
+    def e = new ConcurrentLinkedQueue<Result<Integer>>()
+    def latch = new CountDownLatch(2)
+
+    when:
+    2.times {
+      execHarness.exec().onComplete { latch.countDown() }.start {
+        s.join("a") { execHarness.control.promise { q << it } }.asResult { e << it }
+      }
+    }
+
+    then:
+    polling.eventually {
+      s.joined == 1
+    }
+
+    when:
+    def error = new RuntimeException("!")
+    q.take().error(error)
+
+    then:
+    latch.await(5, TimeUnit.SECONDS)
+    e*.throwable == [error, error]
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.file.internal
+
+import ratpack.exec.ExecController
+import ratpack.exec.internal.DefaultExecController
+import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class DirectoryWatcherSpec extends RatpackGroovyDslSpec {
+
+  def polling = new PollingConditions(timeout: 10)
+
+  def "notifies of changes until the server stops"() {
+    given:
+    def dir = temporaryFolder.newFolder("watched").toPath()
+    def changes = new AtomicInteger()
+    DirectoryWatcher watcher
+
+    when:
+    handlers {
+      get {
+        watcher = DirectoryWatcher.watch(dir, get(ExecController), { changes.incrementAndGet() })
+        render "watching"
+      }
+    }
+
+    then:
+    getText() == "watching"
+    watcher.watching
+
+    when:
+    dir.resolve("file.txt").text = "foo"
+
+    then:
+    polling.eventually {
+      assert changes.get() > 0
+    }
+
+    when:
+    application.server.stop()
+
+    then:
+    polling.eventually {
+      assert !watcher.watching
+    }
+  }
+
+  def "stops watching when closed"() {
+    given:
+    def execController = new DefaultExecController(1)
+    def watcher = DirectoryWatcher.watch(temporaryFolder.newFolder("watched").toPath(), execController, {})
+
+    when:
+    watcher.close()
+
+    then:
+    polling.eventually {
+      assert !watcher.watching
+    }
+
+    cleanup:
+    execController?.close()
+  }
+
+}
@@ -183,6 +183,27 @@ class InjectionHandlerSpec extends RatpackGroovyDslSpec {
     text == "10:bar"
   }
 
+  static class ThrowingHandler extends InjectionHandler {
+    @SuppressWarnings("GroovyUnusedDeclaration")
+    protected handle(Context context, String string) {
+      throw new IOException(string)
+    }
+  }
+
+  def "exceptions thrown by handle method are not wrapped"() {
+    when:
+    handlers {
+      register {
+        add "foo"
+        add ServerErrorHandler, new DefaultDevelopmentErrorHandler()
+      }
+      handler new ThrowingHandler()
+    }
+
+    then:
+    text =~ "java\\.io\\.IOException: foo"
+  }
+
   @Unroll
   def "injection handler accessibility #injectionHandler.class"() {
     when:
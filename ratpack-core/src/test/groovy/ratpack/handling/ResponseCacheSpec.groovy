@@ -0,0 +1,306 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling
+
+import ratpack.http.client.RequestSpec
+import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPInputStream
+
+class ResponseCacheSpec extends RatpackGroovyDslSpec {
+
+  def handled = new AtomicInteger()
+
+  Handler respond(String cacheControl, Closure<?> extra = {}) {
+    { Context ctx ->
+      if (cacheControl) {
+        ctx.response.headers.set("Cache-Control", cacheControl)
+      }
+      extra.call(ctx)
+      ctx.render "${ctx.request.path}:${handled.incrementAndGet()}"
+    } as Handler
+  }
+
+  def "fresh responses are served from the cache"() {
+    given:
+    def cache = ResponseCache.of {}
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=60")))
+    }
+
+    then:
+    getText("a") == "a:1"
+    getText("a") == "a:1"
+    getText("a?b=c") == "a:2"
+    response.headers.get("Age") == null
+    getText("a") == "a:1"
+    response.headers.get("Age") == "0"
+    response.headers.get("Cache-Control") == "max-age=60"
+    getText("b") == "b:3"
+
+    and:
+    cache.hits == 2
+    cache.misses == 3
+    cache.hitRatio == 0.4d
+    cache.entries == 3
+    cache.size == 9
+  }
+
+  def "responses without a max age use the default"() {
+    given:
+    def cache = ResponseCache.of { it.defaultMaxAge(defaultMaxAge) }
+
+    when:
+    handlers {
+      handler(cache.cache(respond(null)))
+    }
+
+    then:
+    getText() == ":1"
+    getText() == ":${expected}"
+
+    where:
+    defaultMaxAge          | expected
+    Duration.ZERO          | 2
+    Duration.ofMinutes(1)  | 1
+  }
+
+  def "responses that can't be shared are not cached"() {
+    given:
+    def cache = ResponseCache.of { it.defaultMaxAge(Duration.ofMinutes(1)) }
+
+    when:
+    handlers {
+      handler(cache.cache(respond(cacheControl) { Context ctx ->
+        if (cookie) {
+          ctx.response.cookie("a", "b")
+        }
+        if (vary) {
+          ctx.response.headers.set("Vary", vary)
+        }
+      }))
+    }
+
+    then:
+    getText() == ":1"
+    getText() == ":2"
+    cache.entries == 0
+
+    where:
+    cacheControl               | cookie | vary
+    "private, max-age=60"      | false  | null
+    "no-store"                 | false  | null
+    "no-cache"                 | false  | null
+    "max-age=60"               | true   | null
+    "max-age=60"               | false  | "*"
+  }
+
+  def "only successful get and head requests are cached"() {
+    given:
+    def cache = ResponseCache.of { it.defaultMaxAge(Duration.ofMinutes(1)) }
+
+    when:
+    handlers {
+      handler(cache.cache { Context ctx ->
+        ctx.response.status(ctx.request.path == "error" ? 500 : 200)
+        ctx.render "${ctx.request.method.name}:${handled.incrementAndGet()}"
+      })
+    }
+
+    then:
+    postText() == "POST:1"
+    postText() == "POST:2"
+    getText("error") == "GET:3"
+    getText("error") == "GET:4"
+    getText() == "GET:5"
+    getText() == "GET:5"
+    head().statusCode == 200
+    head().statusCode == 200
+    handled.get() == 6
+  }
+
+  def "responses are cached by vary headers"() {
+    given:
+    def cache = ResponseCache.of {}
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=60") { Context ctx ->
+        ctx.response.headers.set("Vary", "Accept-Language")
+      }))
+    }
+
+    and:
+    def language = { String value -> requestSpec { RequestSpec r -> r.headers.set("Accept-Language", value) } }
+
+    then:
+    language("en")
+    getText() == ":1"
+    getText() == ":1"
+    language("fr")
+    getText() == ":2"
+    getText() == ":2"
+    language("en")
+    getText() == ":1"
+    cache.entries == 2
+  }
+
+  def "compressed responses are only served to clients that accept the encoding"() {
+    given:
+    def cache = ResponseCache.of {}
+    def acceptEncoding = { String value -> requestSpec { RequestSpec r -> r.decompressResponse(false).headers.set("Accept-Encoding", value) } }
+
+    when:
+    serverConfig {
+      compressResponses(true)
+      compressionBlockingMinSize(1)
+    }
+    handlers {
+      handler(cache.cache(respond("max-age=60")))
+    }
+
+    then:
+    acceptEncoding("gzip")
+    (1..2).every {
+      def response = get()
+      response.headers.get("Content-Encoding") == "gzip" &&
+        response.headers.get("Vary") == "accept-encoding" &&
+        new GZIPInputStream(new ByteArrayInputStream(response.body.bytes)).text == ":1"
+    }
+
+    and:
+    acceptEncoding("identity")
+    def response = get()
+    response.headers.get("Content-Encoding") == null
+    response.body.text == ":2"
+
+    and:
+    cache.hits == 1
+    cache.misses == 2
+  }
+
+  def "requests can bypass the cache"() {
+    given:
+    def cache = ResponseCache.of {}
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=60")))
+    }
+
+    then:
+    getText() == ":1"
+
+    when:
+    requestSpec { RequestSpec r -> r.headers.set("Cache-Control", "no-cache") }
+
+    then:
+    getText() == ":2"
+
+    when:
+    resetRequest()
+
+    then:
+    getText() == ":2"
+
+    when:
+    requestSpec { RequestSpec r -> r.headers.set("Authorization", "foo") }
+
+    then:
+    getText() == ":3"
+  }
+
+  def "least recently used responses are evicted when the cache is full"() {
+    given:
+    def cache = ResponseCache.of { it.maxSize(9) }
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=60")))
+    }
+
+    then:
+    getText("a") == "a:1"
+    getText("b") == "b:2"
+    getText("c") == "c:3"
+    getText("a") == "a:1"
+    getText("d") == "d:4"
+    cache.evictions == 1
+    cache.size == 9
+    getText("a") == "a:1"
+    getText("b") == "b:5"
+    getText("c") == "c:6"
+
+    when:
+    cache.clear()
+
+    then:
+    cache.entries == 0
+    cache.size == 0
+    getText("a") == "a:7"
+  }
+
+  def "stale responses are served while revalidating"() {
+    given:
+    def cache = ResponseCache.of {}
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=1, stale-while-revalidate=60")))
+    }
+
+    then:
+    getText() == ":1"
+
+    when:
+    sleep 1100
+
+    then:
+    getText() == ":1"
+    new PollingConditions().eventually {
+      assert getText() == ":2"
+    }
+    handled.get() == 2
+    cache.staleHits >= 1
+  }
+
+  def "responses that must revalidate are not served stale"() {
+    given:
+    def cache = ResponseCache.of { it.staleWhileRevalidate(Duration.ofMinutes(1)) }
+
+    when:
+    handlers {
+      handler(cache.cache(respond("max-age=1, must-revalidate")))
+    }
+
+    then:
+    getText() == ":1"
+
+    when:
+    sleep 1100
+
+    then:
+    getText() == ":2"
+    cache.staleHits == 0
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handling
+
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import static ratpack.handling.Handlers.singleFlight
+
+class SingleFlightHandlerSpec extends RatpackGroovyDslSpec {
+
+  def "concurrent identical requests are handled once"() {
+    given:
+    def handled = new AtomicInteger()
+    def release = new CountDownLatch(1)
+    def requests = 10
+    def executor = Executors.newFixedThreadPool(requests)
+
+    when:
+    handlers {
+      handler(singleFlight())
+      get("foo") {
+        handled.incrementAndGet()
+        blocking { release.await(5, TimeUnit.SECONDS) } then {
+          response.headers.set("x-foo", "bar")
+          response.status(201)
+          render "foo"
+        }
+      }
+    }
+
+    def url = new URL(applicationUnderTest.address.toString() + "foo?a=b")
+    def responses = (1..requests).collect {
+      executor.submit({
+        HttpURLConnection connection = url.openConnection() as HttpURLConnection
+        [connection.responseCode, connection.getHeaderField("x-foo"), connection.inputStream.text]
+      } as java.util.concurrent.Callable)
+    }
+    sleep 1000
+    release.countDown()
+
+    then:
+    responses*.get() == [[201, "bar", "foo"]] * requests
+    handled.get() == 1
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "responses that are private to a request are not shared"() {
+    given:
+    def handled = new AtomicInteger()
+    def release = new CountDownLatch(1)
+    def requests = 5
+    def executor = Executors.newFixedThreadPool(requests)
+
+    when:
+    handlers {
+      handler(singleFlight())
+      get("foo") {
+        def id = handled.incrementAndGet()
+        blocking { release.await(5, TimeUnit.SECONDS) } then {
+          response.cookie("id", id.toString())
+          render "foo"
+        }
+      }
+    }
+
+    def url = new URL(applicationUnderTest.address.toString() + "foo")
+    def responses = (1..requests).collect {
+      executor.submit({
+        HttpURLConnection connection = url.openConnection() as HttpURLConnection
+        [connection.getHeaderField("Set-Cookie"), connection.inputStream.text]
+      } as java.util.concurrent.Callable)
+    }
+    sleep 1000
+    release.countDown()
+
+    then:
+    responses*.get()*.last() == ["foo"] * requests
+    responses*.get()*.first().unique().size() == requests
+    handled.get() == requests
+
+    cleanup:
+    executor.shutdownNow()
+  }
+
+  def "requests after the response are handled again"() {
+    given:
+    def handled = new AtomicInteger()
+
+    when:
+    handlers {
+      handler(singleFlight())
+      get("foo") {
+        render "foo${handled.incrementAndGet()}"
+      }
+    }
+
+    then:
+    getText("foo") == "foo1"
+    getText("foo") == "foo2"
+  }
+
+  def "requests with other methods are not coalesced"() {
+    when:
+    handlers {
+      handler(singleFlight())
+      post("foo") {
+        render "foo"
+      }
+    }
+
+    then:
+    postText("foo") == "foo"
+  }
+
+}
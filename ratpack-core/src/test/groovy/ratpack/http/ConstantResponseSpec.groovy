@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http
+
+import ratpack.handling.Handlers
+import ratpack.handling.ResponseCache
+import ratpack.http.client.RequestSpec
+import ratpack.test.internal.RatpackGroovyDslSpec
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.zip.GZIPInputStream
+
+class ConstantResponseSpec extends RatpackGroovyDslSpec {
+
+  static final ConstantResponse OK = ConstantResponse.of(200, "text/plain", "OK")
+
+  def "can send constant response"() {
+    given:
+    def response = ConstantResponse.of(202, { it.set("X-Foo", "bar").set("Cache-Control", "no-cache") }, "accepted".bytes)
+
+    when:
+    handlers {
+      handler(Handlers.constant(response))
+    }
+
+    then:
+    def received = get()
+    received.statusCode == 202
+    received.body.text == "accepted"
+    received.headers.get("X-Foo") == "bar"
+    received.headers.get("Cache-Control") == "no-cache"
+    received.headers.get("Content-Length") == "8"
+
+    and:
+    response.status.code == 202
+    response.headers.get("Content-Length") == "8"
+  }
+
+  def "can send the same constant response many times"() {
+    when:
+    handlers {
+      get { response.send(OK) }
+    }
+
+    then:
+    (1..100).every { getText() == "OK" }
+  }
+
+  def "constant responses can be interleaved with other responses on a connection"() {
+    when:
+    handlers {
+      get("constant") { response.send(OK) }
+      get("other") { render "other" }
+    }
+
+    then:
+    def socket = new Socket(getAddress().host, getAddress().port)
+    try {
+      def input = new BufferedInputStream(socket.inputStream)
+      ["constant", "other", "constant", "other"].collect { path ->
+        socket.outputStream.write("GET /$path HTTP/1.1\r\nHost: localhost\r\n\r\n".bytes)
+        socket.outputStream.flush()
+        readBody(input)
+      } == ["OK", "other", "OK", "other"]
+    } finally {
+      socket.close()
+    }
+  }
+
+  def "connection is closed after constant response if not keep alive"() {
+    when:
+    handlers {
+      get { response.send(OK) }
+    }
+
+    then:
+    def socket = new Socket(getAddress().host, getAddress().port)
+    try {
+      socket.outputStream.write("GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".bytes)
+      socket.outputStream.flush()
+      def response = new String(socket.inputStream.bytes, "UTF-8")
+      response.startsWith("HTTP/1.1 200 OK\r\n")
+      response.endsWith("\r\n\r\nOK")
+      !response.toLowerCase().contains("connection:")
+    } finally {
+      socket.close()
+    }
+  }
+
+  def "constant responses are not compressed, while other responses are"() {
+    given:
+    def large = "foo" * 10000
+
+    when:
+    serverConfig {
+      compressResponses(true)
+    }
+    handlers {
+      get("constant") { response.send(ConstantResponse.of(200, "text/plain", large)) }
+      get("other") { render large }
+    }
+    requestSpec { RequestSpec r -> r.decompressResponse(false).headers.set("Accept-Encoding", "gzip") }
+
+    then:
+    (1..2).every {
+      def constant = get("constant")
+      def other = get("other")
+      constant.headers.get("Content-Encoding") == null && constant.body.text == large &&
+        other.headers.get("Content-Encoding") == "gzip" && new GZIPInputStream(new ByteArrayInputStream(other.body.bytes)).text == large
+    }
+  }
+
+  def "headers set on the response are applied to constant responses"() {
+    when:
+    handlers {
+      get {
+        response.headers.set("X-Foo", "bar")
+        response.cookie("a", "1")
+        response.status(500)
+        response.send(OK)
+      }
+    }
+
+    then:
+    def received = get()
+    received.statusCode == 200
+    received.body.text == "OK"
+    received.headers.get("X-Foo") == "bar"
+    received.headers.get("Content-Type") == "text/plain"
+    received.headers.get("Set-Cookie").startsWith("a=1")
+  }
+
+  def "before send actions are applied to constant responses"() {
+    when:
+    handlers {
+      get {
+        response.beforeSend { it.headers.set("X-Foo", "bar") }
+        response.send(OK)
+      }
+    }
+
+    then:
+    def received = get()
+    received.body.text == "OK"
+    received.headers.get("X-Foo") == "bar"
+  }
+
+  def "request outcome has status and headers of constant response"() {
+    given:
+    def outcome
+
+    when:
+    handlers {
+      get {
+        onClose { outcome = it }
+        response.send(OK)
+      }
+    }
+
+    then:
+    getText() == "OK"
+    new PollingConditions().eventually {
+      outcome.response.status.code == 200
+      outcome.response.headers.get("Content-Type") == "text/plain"
+    }
+  }
+
+  def "constant responses can be cached"() {
+    given:
+    def cache = ResponseCache.of { it.defaultMaxAge(Duration.ofMinutes(1)) }
+
+    when:
+    handlers {
+      handler(cache.cache(Handlers.constant(OK)))
+    }
+
+    then:
+    getText() == "OK"
+    getText() == "OK"
+    cache.hits == 1
+    cache.misses == 1
+  }
+
+  private static String readBody(InputStream input) {
+    def headers = new StringBuilder()
+    while (!headers.toString().endsWith("\r\n\r\n")) {
+      headers.append((char) input.read())
+    }
+    def length = (headers =~ /(?i)content-length: (\d+)/)[0][1] as int
+    def body = new byte[length]
+    new DataInputStream(input).readFully(body)
+    new String(body, "UTF-8")
+  }
+
+}
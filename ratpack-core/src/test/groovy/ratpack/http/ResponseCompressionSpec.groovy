@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http
+
+import ratpack.http.client.ReceivedResponse
+import ratpack.http.client.RequestSpec
+import ratpack.test.internal.RatpackGroovyDslSpec
+
+import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
+
+class ResponseCompressionSpec extends RatpackGroovyDslSpec {
+
+  static final String LARGE = "foo" * 10000
+
+  def setup() {
+    requestSpec { RequestSpec r -> r.decompressResponse(false).headers.set("Accept-Encoding", "gzip, deflate") }
+  }
+
+  String decompress(ReceivedResponse response) {
+    def input = new ByteArrayInputStream(response.body.bytes)
+    switch (response.headers.get("Content-Encoding")) {
+      case "gzip":
+        return new GZIPInputStream(input).text
+      case "deflate":
+        return new InflaterInputStream(input).text
+      default:
+        return response.body.text
+    }
+  }
+
+  def "responses are compressed with the most preferred encoding"() {
+    when:
+    serverConfig {
+      compressResponses(true)
+      compressionEncodings(encodings)
+    }
+    handlers {
+      get { render LARGE }
+    }
+
+    then:
+    def response = get()
+    response.headers.get("Content-Encoding") == expected
+    decompress(response) == LARGE
+
+    where:
+    encodings             | expected
+    ["gzip", "deflate"]   | "gzip"
+    ["deflate", "gzip"]   | "deflate"
+    ["br", "deflate"]     | "deflate"
+  }
+
+  def "responses are compressed at the configured level"() {
+    when:
+    serverConfig {
+      compressResponses(true)
+      compressionLevel(level)
+    }
+    handlers {
+      get { render LARGE }
+    }
+
+    then:
+    def response = get()
+    response.headers.get("Content-Encoding") == "gzip"
+    decompress(response) == LARGE
+    (response.body.bytes.length < LARGE.length()) == compressed
+
+    where:
+    level | compressed
+    0     | false
+    9     | true
+  }
+
+  def "large responses can be compressed on a blocking thread"() {
+    when:
+    serverConfig {
+      compressResponses(true)
+      compressionBlockingMinSize(1024)
+    }
+    handlers {
+      get("large") { render LARGE }
+      get("small") { render "foo" }
+      get("encoded") {
+        response.headers.set("Content-Encoding", "identity")
+        render LARGE
+      }
+    }
+
+    then:
+    def large = get("large")
+    large.headers.get("Content-Encoding") == "gzip"
+    large.headers.get("Content-Length") as int == large.body.bytes.length
+    decompress(large) == LARGE
+
+    and:
+    def small = get("small")
+    small.headers.get("Content-Encoding") == "gzip"
+    decompress(small) == "foo"
+
+    and:
+    def encoded = get("encoded")
+    encoded.headers.get("Content-Encoding") == null
+    encoded.body.text == LARGE
+  }
+
+  def "responses are not compressed for clients that don't accept a configured encoding"() {
+    when:
+    serverConfig {
+      compressResponses(true)
+      compressionEncodings("deflate")
+      compressionBlockingMinSize(1)
+    }
+    handlers {
+      get { render LARGE }
+    }
+    requestSpec { RequestSpec r -> r.headers.set("Accept-Encoding", "gzip") }
+
+    then:
+    def response = get()
+    response.headers.get("Content-Encoding") == null
+    response.body.text == LARGE
+  }
+
+}
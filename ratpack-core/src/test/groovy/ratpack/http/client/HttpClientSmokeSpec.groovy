@@ -20,6 +20,7 @@ import io.netty.buffer.Unpooled
 import io.netty.handler.codec.http.HttpHeaders
 import io.netty.handler.timeout.ReadTimeoutException
 import io.netty.util.CharsetUtil
+import ratpack.groovy.test.embed.GroovyEmbeddedApp
 import ratpack.http.internal.HttpHeaderConstants
 import ratpack.stream.Streams
 
@@ -243,6 +244,59 @@ class HttpClientSmokeSpec extends HttpClientSpec {
     text == "foo"
   }
 
+  def "can write body using publisher"() {
+    given:
+    otherApp {
+      post {
+        render request.body.text
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body {
+            it.publisher(publish(["foo", "bar"]).map { Unpooled.copiedBuffer(it, CharsetUtil.UTF_8) })
+          }
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "foobar"
+  }
+
+  def "can write body using file"() {
+    given:
+    def file = temporaryFolder.newFile("body.txt").toPath()
+    file.text = "foo" * 10000
+
+    otherApp {
+      post {
+        render "${request.headers.get("content-length")}:${request.body.text}"
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl()) {
+          it.body {
+            it.file(file)
+          }
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "30000:${"foo" * 10000}"
+  }
+
   def "can write body using bytes"() {
     given:
     otherApp {
@@ -517,4 +571,108 @@ BAR
     text == "bar"
   }
 
+  def "asks for and decompresses compressed responses"() {
+    given:
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig { compressResponses(true) }
+      handlers {
+        get {
+          render "${request.headers.get("accept-encoding")}:${"a" * 2000}"
+        }
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl()) then {
+          render "${it.headers.get("content-encoding")}:${it.body.text}"
+        }
+      }
+    }
+
+    then:
+    text == "null:gzip, deflate:${"a" * 2000}"
+  }
+
+  def "decompresses compressed streamed responses"() {
+    given:
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig { compressResponses(true) }
+      handlers {
+        get {
+          render "a" * 2000
+        }
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.requestStream(otherAppUrl()) {
+        } then { StreamedResponse responseStream ->
+          responseStream.forwardTo(response)
+        }
+      }
+    }
+
+    then:
+    with(get()) {
+      headers.get("content-encoding") == null
+      body.text == "a" * 2000
+    }
+  }
+
+  def "can receive compressed responses as they were sent"() {
+    given:
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig { compressResponses(true) }
+      handlers {
+        get {
+          render "a" * 2000
+        }
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl()) {
+          it.decompressResponse(false).headers.set("accept-encoding", "gzip")
+        } then {
+          render "${it.headers.get("content-encoding")}:${it.body.bytes.length < 2000}"
+        }
+      }
+    }
+
+    then:
+    text == "gzip:true"
+  }
+
+  def "does not decompress responses in an encoding that was explicitly accepted"() {
+    given:
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig { compressResponses(true) }
+      handlers {
+        get {
+          render "a" * 2000
+        }
+      }
+    }
+
+    when:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl()) {
+          it.headers.set("accept-encoding", "deflate")
+        } then {
+          render "${it.headers.get("content-encoding")}:${it.body.bytes.length < 2000}"
+        }
+      }
+    }
+
+    then:
+    text == "deflate:true"
+  }
+
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client
+
+import ratpack.groovy.test.embed.GroovyEmbeddedApp
+import ratpack.ssl.SSLContexts
+import ratpack.test.internal.ssl.client.NonValidatingSSLClientContext
+
+import javax.net.ssl.SNIHostName
+import javax.net.ssl.SSLContext
+import javax.net.ssl.TrustManager
+import java.time.Duration
+
+class HttpClientSslSpec extends HttpClientSpec {
+
+  static SSLContext trustAll() {
+    def sslContext = SSLContext.getInstance("TLS")
+    sslContext.init(null, [NonValidatingSSLClientContext.TRUST_ALL_TRUST_MANAGER] as TrustManager[], null)
+    sslContext
+  }
+
+  def "engines are created for the peer with the configured parameters"() {
+    given:
+    def ssl = HttpClientSsl.of(trustAll()).protocols("TLSv1.2")
+
+    when:
+    def engine = ssl.createEngine("ratpack.io", 8443)
+
+    then:
+    engine.useClientMode
+    engine.peerHost == "ratpack.io"
+    engine.peerPort == 8443
+    engine.enabledProtocols.toList() == ["TLSv1.2"]
+    engine.SSLParameters.serverNames == [new SNIHostName("ratpack.io")]
+
+    and:
+    ssl.createEngine("127.0.0.1", 443).SSLParameters.serverNames.empty
+    ssl.createEngine("[::1]", 443).SSLParameters.serverNames.empty
+    ssl.sni(false).createEngine("ratpack.io", 443).SSLParameters.serverNames.empty
+  }
+
+  def "session settings of the defaults do not change the jvm default context"() {
+    given:
+    def sessionContext = SSLContext.default.clientSessionContext
+    def cacheSize = sessionContext.sessionCacheSize
+    def timeout = sessionContext.sessionTimeout
+
+    when:
+    def ssl = HttpClientSsl.defaults().sessionCacheSize(cacheSize + 1).sessionTimeout(Duration.ofSeconds(timeout + 1))
+
+    then:
+    !ssl.sslContext.is(SSLContext.default)
+    ssl.sslContext.clientSessionContext.sessionCacheSize == cacheSize + 1
+    sessionContext.sessionCacheSize == cacheSize
+    sessionContext.sessionTimeout == timeout
+  }
+
+  def "https requests use the client ssl configuration"() {
+    given:
+    def clientSsl = HttpClientSsl.of(trustAll())
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig {
+        ssl SSLContexts.sslContext(HttpClientSslSpec.getResource("/ratpack/ssl/dummy.keystore"), "password")
+      }
+      handlers {
+        get("foo") {
+          render "bar"
+        }
+      }
+    }
+
+    when:
+    bindings {
+      bindInstance HttpClientSsl, clientSsl
+    }
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl("foo")) {
+        } then { ReceivedResponse response ->
+          render response.body.text
+        }
+      }
+    }
+
+    then:
+    otherApp.address.scheme == "https"
+    text == "bar"
+    clientSsl.handshakes == 1
+  }
+
+  def "later connections to the same server resume the session"() {
+    given:
+    def clientSsl = HttpClientSsl.of(trustAll()).protocols("TLSv1.2")
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig {
+        ssl SSLContexts.sslContext(HttpClientSslSpec.getResource("/ratpack/ssl/dummy.keystore"), "password")
+      }
+      handlers {
+        get("foo") {
+          render "bar"
+        }
+      }
+    }
+
+    when:
+    bindings {
+      bindInstance HttpClientSsl, clientSsl
+    }
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.get(otherAppUrl("foo")) {
+        } flatMap {
+          httpClient.get(otherAppUrl("foo"))
+        } then { ReceivedResponse response ->
+          render response.body.text
+        }
+      }
+    }
+
+    then:
+    text == "bar"
+    clientSsl.handshakes == 2
+    clientSsl.resumedHandshakes == 1
+  }
+
+  def "can write a file body over https"() {
+    given:
+    def file = temporaryFolder.newFile("body.txt").toPath()
+    file.text = "foo" * 10000
+    otherApp = GroovyEmbeddedApp.build {
+      serverConfig {
+        ssl SSLContexts.sslContext(HttpClientSslSpec.getResource("/ratpack/ssl/dummy.keystore"), "password")
+      }
+      handlers {
+        post("foo") {
+          render "${request.headers.get("content-length")}:${request.body.text}"
+        }
+      }
+    }
+
+    when:
+    bindings {
+      bindInstance HttpClientSsl, HttpClientSsl.of(trustAll())
+    }
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.post(otherAppUrl("foo")) {
+          it.body.file(file)
+        } then { ReceivedResponse response ->
+          render response.body.text
+        }
+      }
+    }
+
+    then:
+    text == "30000:${"foo" * 10000}"
+  }
+
+}
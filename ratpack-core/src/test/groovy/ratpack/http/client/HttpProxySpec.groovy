@@ -193,4 +193,125 @@ transfer-encoding: chunked
     }
   }
 
+  def "can forward a client response keeping its content length"() {
+    given:
+    otherApp {
+      get("foo") {
+        response.headers.add("x-foo-header", "foo")
+        render "bar"
+      }
+    }
+
+    and:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.requestStream(otherAppUrl("foo")) {
+        } then { StreamedResponse responseStream ->
+          responseStream.forwardTo(response)
+        }
+      }
+    }
+
+    expect:
+    rawResponse() == """HTTP/1.1 200 OK
+x-foo-header: foo
+content-type: text/plain;charset=UTF-8
+content-length: 3
+
+bar
+"""
+  }
+
+  def "can forward a client chunked response"() {
+    given:
+    otherApp {
+      get("foo") {
+        render stringChunks(
+          publish(["bar"] * 3)
+        )
+      }
+    }
+
+    and:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.requestStream(otherAppUrl("foo")) {
+        } then { StreamedResponse responseStream ->
+          responseStream.forwardTo(response) { MutableHeaders headers ->
+            headers.add("x-bar-header", "bar")
+          }
+        }
+      }
+    }
+
+    expect:
+    rawResponse() == """HTTP/1.1 200 OK
+content-type: text/plain;charset=UTF-8
+x-bar-header: bar
+transfer-encoding: chunked
+
+3
+bar
+3
+bar
+3
+bar
+0
+
+"""
+  }
+
+  def "can forward a client response of many small chunks"() {
+    given:
+    otherApp {
+      get("foo") {
+        render stringChunks(
+          publish((1..5000).collect { it.toString().padLeft(5, "0") })
+        )
+      }
+    }
+
+    and:
+    handlers {
+      get { HttpClient httpClient ->
+        httpClient.requestStream(otherAppUrl("foo")) {
+        } then { StreamedResponse responseStream ->
+          responseStream.forwardTo(response)
+        }
+      }
+    }
+
+    expect:
+    getText() == (1..5000).collect { it.toString().padLeft(5, "0") }.join("")
+  }
+
+  def "can forward a large client response to a request body"() {
+    given:
+    otherApp {
+      post("foo") {
+        render request.body.text * (1024 * 1024)
+      }
+    }
+
+    and:
+    handlers {
+      post { HttpClient httpClient ->
+        httpClient.requestStream(otherAppUrl("foo")) {
+          it.method("POST").body.buffer(request.body.buffer)
+        } then { StreamedResponse responseStream ->
+          responseStream.forwardTo(response)
+        }
+      }
+    }
+
+    when:
+    requestSpec { it.body.text("ab") }
+
+    then:
+    with(post()) {
+      headers.get("content-length") == (2 * 1024 * 1024).toString()
+      body.text == "ab" * (1024 * 1024)
+    }
+  }
+
 }
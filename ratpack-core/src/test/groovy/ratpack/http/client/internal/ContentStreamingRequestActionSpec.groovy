@@ -26,6 +26,7 @@ import ratpack.exec.Execution
 import ratpack.exec.Fulfiller
 import ratpack.func.Action
 import ratpack.http.client.HttpClientSpec
+import ratpack.http.client.HttpClientSsl
 import ratpack.http.client.RequestSpec
 import ratpack.http.client.StreamedResponse
 
@@ -43,7 +44,7 @@ class ContentStreamingRequestActionSpec extends HttpClientSpec {
         ExecController execController = get(ExecController)
         ByteBufAllocator byteBufAllocator = get(ByteBufAllocator)
 
-        requestAction = new ChannelSpyRequestAction({}, otherAppUrl("foo"), execution, byteBufAllocator)
+        requestAction = new ChannelSpyRequestAction({}, otherAppUrl("foo"), execution, byteBufAllocator, get(HostResolver), get(HttpClientSsl))
         execController.control.promise(requestAction).then {
           render 'foo'
         }
@@ -58,8 +59,8 @@ class ContentStreamingRequestActionSpec extends HttpClientSpec {
   static class ChannelSpyRequestAction extends ContentStreamingRequestAction {
     private Channel channel
 
-    ChannelSpyRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator) {
-      super(requestConfigurer, uri, execution, byteBufAllocator)
+    ChannelSpyRequestAction(Action<? super RequestSpec> requestConfigurer, URI uri, Execution execution, ByteBufAllocator byteBufAllocator, HostResolver hostResolver, HttpClientSsl ssl) {
+      super(requestConfigurer, uri, execution, byteBufAllocator, hostResolver, ssl)
     }
 
     @Override
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.http.client.internal
+
+import io.netty.buffer.ByteBufAllocator
+import io.netty.channel.nio.NioEventLoopGroup
+import ratpack.exec.ExecController
+import ratpack.exec.internal.DefaultExecController
+import ratpack.http.client.HttpClient
+import ratpack.http.client.HttpClientSpec
+import ratpack.http.client.HttpClientSsl
+import spock.lang.AutoCleanup
+
+import java.nio.ByteBuffer
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+
+class HostResolverSpec extends HttpClientSpec {
+
+  @AutoCleanup
+  StubNameServer nameServer = new StubNameServer()
+
+  @AutoCleanup("shutdownGracefully")
+  NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(1)
+
+  @AutoCleanup
+  HostResolver resolver = new HostResolver([nameServer.address], null, 0, 300, 10)
+
+  InetAddress resolve(String host) {
+    resolver.resolve(host, eventLoopGroup.next()).get()
+  }
+
+  def "rotates through the cached addresses of a name"() {
+    given:
+    nameServer.records["ratpack.test"] = ["10.0.0.1", "10.0.0.2"]
+
+    expect:
+    (1..4).collect { resolve("ratpack.test").hostAddress } == ["10.0.0.1", "10.0.0.2", "10.0.0.1", "10.0.0.2"]
+    resolve("RATPACK.test").hostName == "ratpack.test"
+    nameServer.queries.get() == 1
+    resolver.lookups == 1
+    resolver.cacheHits == 4
+  }
+
+  def "looks up a name again once its TTL has passed"() {
+    given:
+    nameServer.ttl = 1
+    nameServer.records["ratpack.test"] = ["10.0.0.1"]
+
+    when:
+    resolve("ratpack.test")
+    resolve("ratpack.test")
+
+    then:
+    nameServer.queries.get() == 1
+
+    when:
+    sleep 1100
+    resolve("ratpack.test")
+
+    then:
+    nameServer.queries.get() == 2
+  }
+
+  def "caches failed lookups"() {
+    when:
+    resolve("unknown.test")
+
+    then:
+    def e = thrown ExecutionException
+    e.cause instanceof UnknownHostException
+
+    when:
+    resolve("unknown.test")
+
+    then:
+    thrown ExecutionException
+    nameServer.queries.get() == 2 // A and AAAA
+    resolver.failures == 1
+  }
+
+  def "does not look up literal addresses or localhost"() {
+    expect:
+    resolve("127.0.0.1").hostAddress == "127.0.0.1"
+    resolve("[::1]").hostAddress == "0:0:0:0:0:0:0:1"
+    resolve("localhost").loopbackAddress
+    nameServer.queries.get() == 0
+  }
+
+  def "http client connects to the resolved address"() {
+    given:
+    nameServer.records["ratpack.test"] = ["127.0.0.1"]
+    otherApp {
+      get("foo") {
+        render request.headers.get("Host")
+      }
+    }
+
+    when:
+    handlers {
+      get {
+        HttpClient httpClient = new DefaultHttpClient(get(ExecController), get(ByteBufAllocator), 1024, resolver, get(HttpClientSsl))
+        httpClient.get(new URI("http://ratpack.test:${otherApp.address.port}/foo")) {
+        } then {
+          render it.body.text
+        }
+      }
+    }
+
+    then:
+    text == "ratpack.test"
+    nameServer.queries.get() == 1
+  }
+
+  def "system resolver is shared per exec controller until it terminates"() {
+    given:
+    def execController = new DefaultExecController(1)
+    def shared = HostResolver.system(execController)
+
+    expect:
+    HostResolver.system(execController).is(shared)
+
+    when:
+    execController.close()
+    execController.eventLoopGroup.terminationFuture().await()
+
+    then:
+    !HostResolver.system(execController).is(shared)
+  }
+
+  static class StubNameServer implements Closeable {
+
+    final DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())
+    final Map<String, List<String>> records = [:]
+    final AtomicInteger queries = new AtomicInteger()
+    int ttl = 60
+
+    StubNameServer() {
+      Thread.start {
+        while (!socket.closed) {
+          def packet = new DatagramPacket(new byte[512], 512)
+          try {
+            socket.receive(packet)
+          } catch (SocketException ignore) {
+            return
+          }
+          queries.incrementAndGet()
+          def response = answer(ByteBuffer.wrap(packet.data, 0, packet.length))
+          socket.send(new DatagramPacket(response, response.length, packet.socketAddress))
+        }
+      }
+    }
+
+    InetSocketAddress getAddress() {
+      socket.localSocketAddress as InetSocketAddress
+    }
+
+    private byte[] answer(ByteBuffer query) {
+      short id = query.getShort(0)
+      query.position(12)
+      def labels = []
+      for (int length = query.get(); length > 0; length = query.get()) {
+        def label = new byte[length]
+        query.get(label)
+        labels << new String(label, "US-ASCII")
+      }
+      short type = query.getShort()
+      query.getShort() // class
+      def question = Arrays.copyOfRange(query.array(), 12, query.position())
+
+      def addresses = records[labels.join(".")]
+      def answers = type == 1 && addresses ? addresses.collect { InetAddress.getByName(it).address } : []
+
+      def response = ByteBuffer.allocate(512)
+      response.putShort(id)
+      response.putShort((addresses == null ? 0x8183 : 0x8180) as short)
+      response.putShort(1 as short).putShort(answers.size() as short).putShort(0 as short).putShort(0 as short)
+      response.put(question)
+      answers.each { byte[] address ->
+        response.putShort(0xC00C as short).putShort(1 as short).putShort(1 as short).putInt(ttl)
+        response.putShort(address.length as short).put(address)
+      }
+      Arrays.copyOf(response.array(), response.position())
+    }
+
+    @Override
+    void close() {
+      socket.close()
+    }
+  }
+
+}
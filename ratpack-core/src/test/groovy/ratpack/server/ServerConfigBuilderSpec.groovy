@@ -17,8 +17,11 @@
 package ratpack.server
 
 import ratpack.launch.NoBaseDirException
+import ratpack.ssl.SSLContexts
 import spock.lang.Specification
 
+import java.time.Duration
+
 class ServerConfigBuilderSpec extends Specification {
 
   ServerConfig.Builder builder
@@ -188,6 +191,53 @@ class ServerConfigBuilderSpec extends Specification {
     blackList == ['json', 'xml'] as Set
   }
 
+  def "new builder has default compression engine settings"() {
+    when:
+    def config = builder.build()
+
+    then:
+    config.compressionLevel == ServerConfig.DEFAULT_COMPRESSION_LEVEL
+    config.compressionWindowBits == ServerConfig.DEFAULT_COMPRESSION_WINDOW_BITS
+    config.compressionEncodings == ['gzip', 'deflate']
+    config.compressionBlockingMinSize == 0
+  }
+
+  def "set compression engine settings"() {
+    when:
+    def config = builder
+      .compressionLevel(1)
+      .compressionWindowBits(12)
+      .compressionEncodings('br', 'gzip')
+      .compressionBlockingMinSize(65536)
+      .build()
+
+    then:
+    config.compressionLevel == 1
+    config.compressionWindowBits == 12
+    config.compressionEncodings == ['br', 'gzip']
+    config.compressionBlockingMinSize == 65536
+  }
+
+  def "compression engine settings are validated"() {
+    when:
+    builder.compressionLevel(10)
+
+    then:
+    thrown IllegalArgumentException
+
+    when:
+    builder.compressionWindowBits(8)
+
+    then:
+    thrown IllegalArgumentException
+
+    when:
+    builder.compressionEncodings('lzma')
+
+    then:
+    thrown IllegalArgumentException
+  }
+
   def "new builder has default index files"() {
     expect:
     builder.build().indexFiles.size() == 0
@@ -200,4 +250,17 @@ class ServerConfigBuilderSpec extends Specification {
     then:
     indexFiles == ['home.html', 'index.html'] as Set
   }
+
+  def "set ssl session cache options"() {
+    when:
+    def sslContext = builder
+      .ssl(SSLContexts.sslContext(ServerConfigBuilderSpec.getResource("/ratpack/ssl/dummy.keystore"), "password"))
+      .sslSessionCacheSize(10)
+      .sslSessionTimeout(Duration.ofMinutes(5))
+      .build().SSLContext
+
+    then:
+    sslContext.serverSessionContext.sessionCacheSize == 10
+    sslContext.serverSessionContext.sessionTimeout == 300
+  }
 }
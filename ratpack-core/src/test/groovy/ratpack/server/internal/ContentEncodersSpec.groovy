@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.server.internal
+
+import io.netty.buffer.Unpooled
+import io.netty.buffer.UnpooledByteBufAllocator
+import io.netty.util.CharsetUtil
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.zip.GZIPInputStream
+import java.util.zip.InflaterInputStream
+
+class ContentEncodersSpec extends Specification {
+
+  @Unroll
+  def "selects #expected for '#acceptEncoding' with #encodings"() {
+    given:
+    def encoders = new ContentEncoders(encodings, 6, 15)
+
+    expect:
+    encoders.select(acceptEncoding)?.name == expected
+
+    where:
+    encodings             | acceptEncoding                  | expected
+    ["gzip", "deflate"]   | null                            | null
+    ["gzip", "deflate"]   | ""                              | null
+    ["gzip", "deflate"]   | "gzip, deflate"                 | "gzip"
+    ["deflate", "gzip"]   | "gzip, deflate"                 | "deflate"
+    ["gzip", "deflate"]   | "deflate"                       | "deflate"
+    ["gzip", "deflate"]   | "gzip;q=0.5, deflate"           | "deflate"
+    ["gzip", "deflate"]   | "gzip;q=0, deflate;q=0"         | null
+    ["gzip", "deflate"]   | "*"                             | "gzip"
+    ["gzip", "deflate"]   | "gzip;q=0, *;q=0.1"             | "deflate"
+    ["gzip", "deflate"]   | "x-gzip"                        | "gzip"
+    ["gzip", "deflate"]   | "GZIP ; Q=1"                    | "gzip"
+    ["gzip"]              | "deflate"                       | null
+    ["gzip", "deflate"]   | "identity"                      | null
+  }
+
+  def "encodings without an available implementation are ignored"() {
+    expect:
+    new ContentEncoders(["br", "zstd", "gzip"], 6, 15).encodings*.name == ["gzip"]
+  }
+
+  @Unroll
+  def "can encode a body with #encoding"() {
+    given:
+    def encoders = new ContentEncoders([encoding], 9, 15)
+    def text = "foo" * 1000
+    def body = Unpooled.copiedBuffer(text, CharsetUtil.UTF_8)
+
+    when:
+    def encoded = encoders.encode(ContentEncoding.of(encoding), body, UnpooledByteBufAllocator.DEFAULT)
+    def bytes = new byte[encoded.readableBytes()]
+    encoded.readBytes(bytes)
+
+    then:
+    bytes.length < 100
+    body.refCnt() == 1
+    stream.call(new ByteArrayInputStream(bytes)).text == text
+
+    cleanup:
+    encoded?.release()
+    body.release()
+
+    where:
+    encoding  | stream
+    "gzip"    | { new GZIPInputStream(it) }
+    "deflate" | { new InflaterInputStream(it) }
+  }
+
+}
@@ -55,6 +55,8 @@ class ServerSentEventStreamEncoderSpec extends RatpackGroovyDslSpec {
     serverSentEvent { it.id("fooId") }                                                              | "id: fooId\n\n"
     serverSentEvent { it.id("fooId").event("fooType") }                                             | "event: fooType\nid: fooId\n\n"
     serverSentEvent { it.event("fooType") }                                                         | "event: fooType\n\n"
+    serverSentEvent { it.data("foo\nbar\n") }                                                       | "data: foo\ndata: bar\ndata: \n\n"
+    serverSentEvent { it.event("f\u00f6\u00f6").data("\u20ac \ud83d\ude00").id("\u00e9") }                 | "event: f\u00f6\u00f6\ndata: \u20ac \ud83d\ude00\nid: \u00e9\n\n"
   }
 
   public <T> ServerSentEvents.Event serverSentEvent(T t, Action<? super ServerSentEvents.Event> action) {
@@ -361,6 +361,52 @@ class StreamsSpec extends Specification {
     error.message == 'The upstream publisher has completed, either successfully or with error.  No further subscriptions will be accepted'
   }
 
+  def "bounded multicast applies overflow strategy to slow subscribers"() {
+    given:
+    def received = []
+    def complete = false
+    Subscription subscription
+    def stream = publish(1..10).multicast(3, overflow)
+
+    when:
+    stream.subscribe(new Subscriber<Integer>() {
+      @Override
+      void onSubscribe(Subscription s) {
+        subscription = s
+        s.request(1)
+      }
+
+      @Override
+      void onNext(Integer integer) {
+        received << integer
+      }
+
+      @Override
+      void onError(Throwable t) {
+        received << t.class
+      }
+
+      @Override
+      void onComplete() {
+        complete = true
+      }
+    })
+
+    and:
+    subscription.request(10)
+
+    then:
+    received == expected
+    complete == (overflow != MulticastOverflow.DISCONNECT)
+
+    where:
+    overflow                       | expected
+    MulticastOverflow.DROP_OLDEST  | [1, 8, 9, 10]
+    MulticastOverflow.DROP_NEWEST  | [1, 2, 3, 4]
+    MulticastOverflow.LATEST       | [1, 10]
+    MulticastOverflow.DISCONNECT   | [1, IllegalStateException]
+  }
+
   def "can fan out with back pressure"() {
     given:
     Runnable runnable = null
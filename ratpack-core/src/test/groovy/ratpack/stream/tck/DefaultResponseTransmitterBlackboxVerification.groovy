@@ -64,7 +64,7 @@ class DefaultResponseTransmitterBlackboxVerification extends SubscriberBlackboxV
     when(eventController.hasListeners).thenReturn(false)
 
     new DefaultResponseTransmitter(
-      new AtomicBoolean(), null, channel, nettyRequest, null, null, eventController, false, null, 0
+      new AtomicBoolean(), null, channel, nettyRequest, null, null, eventController, false, null, null, 0, 0
     ).transmitter(HttpResponseStatus.OK)
   }
 
@@ -89,6 +89,116 @@ class WebSocketTestSpec extends RatpackGroovyDslSpec {
     client?.closeBlocking()
   }
 
+  def "can receive fragmented and binary messages"() {
+    when:
+    handlers {
+      get {
+        websocket(context) {
+          2
+        } connect {
+          it.onMessage {
+            if (it.binary) {
+              it.connection.sendBinary(it.data.retain())
+            } else {
+              it.connection.send(it.text.toUpperCase())
+            }
+          }
+        }
+      }
+    }
+
+    and:
+    server.start()
+    def client = openWsClient()
+
+    then:
+    client.connectBlocking()
+
+    when:
+    client.sendFragmented("foo", "bar")
+    client.send([1, 2, 3] as byte[])
+
+    then:
+    client.received.poll(5, TimeUnit.SECONDS) == "FOOBAR"
+    client.receivedBinary.poll(5, TimeUnit.SECONDS) == [1, 2, 3] as byte[]
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
+  def "connection is closed when a message exceeds the max length"() {
+    when:
+    handlers {
+      get {
+        websocket(context) {
+          2
+        } connect {
+          it.maxLength(4).onMessage {
+            it.connection.send(it.text)
+          }
+        }
+      }
+    }
+
+    and:
+    server.start()
+    def client = openWsClient()
+    client.connectBlocking()
+
+    and:
+    client.sendFragmented("foo", "bar")
+
+    then:
+    client.waitForClose()
+    client.closeCode == 1009
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
+  def "negotiates compression when enabled"() {
+    when:
+    handlers {
+      register {
+        add(WebSocketCompression.deflate().serverNoContextTakeover())
+      }
+      get {
+        websocket(context) { 2 } connect {}
+      }
+    }
+
+    and:
+    server.start()
+    def client = new RecordingWebSocketClient(new URI("ws://localhost:$server.bindPort"), ["Sec-WebSocket-Extensions": "permessage-deflate; client_max_window_bits"])
+
+    then:
+    client.connectBlocking()
+    client.serverHandshake.getFieldValue("Sec-WebSocket-Extensions") == "permessage-deflate; server_no_context_takeover"
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
+  def "does not negotiate compression unless enabled"() {
+    when:
+    handlers {
+      get {
+        websocket(context) { 2 } connect {}
+      }
+    }
+
+    and:
+    server.start()
+    def client = new RecordingWebSocketClient(new URI("ws://localhost:$server.bindPort"), ["Sec-WebSocket-Extensions": "permessage-deflate"])
+
+    then:
+    client.connectBlocking()
+    !client.serverHandshake.hasFieldValue("Sec-WebSocket-Extensions")
+
+    cleanup:
+    client?.closeBlocking()
+  }
+
   def RecordingWebSocketClient openWsClient() {
     new RecordingWebSocketClient(new URI("ws://localhost:$server.bindPort"))
   }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.websocket.internal
+
+import io.netty.buffer.ByteBuf
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.handler.codec.TooLongFrameException
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import io.netty.handler.codec.http.websocketx.WebSocketFrame
+import io.netty.util.CharsetUtil
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static io.netty.buffer.Unpooled.copiedBuffer
+import static ratpack.websocket.WebSocketCompression.deflate
+
+class PerMessageDeflateSpec extends Specification {
+
+  @Unroll
+  def "negotiates #offer"() {
+    expect:
+    PerMessageDeflate.negotiate(config, offer)?.responseHeader == response
+
+    where:
+    config                                                   | offer                                                                     | response
+    deflate()                                                | null                                                                      | null
+    deflate()                                                | "x-webkit-deflate-frame"                                                  | null
+    deflate()                                                | "permessage-deflate"                                                      | "permessage-deflate"
+    deflate()                                                | "permessage-deflate; client_max_window_bits"                              | "permessage-deflate"
+    deflate().clientMaxWindowBits(10)                        | "permessage-deflate; client_max_window_bits"                              | "permessage-deflate; client_max_window_bits=10"
+    deflate().clientMaxWindowBits(10)                        | "permessage-deflate; client_max_window_bits=9"                            | "permessage-deflate"
+    deflate().clientMaxWindowBits(10)                        | "permessage-deflate"                                                      | "permessage-deflate"
+    deflate()                                                | "permessage-deflate; server_no_context_takeover"                          | "permessage-deflate; server_no_context_takeover"
+    deflate().serverNoContextTakeover().clientNoContextTakeover() | "permessage-deflate"                                                 | "permessage-deflate; server_no_context_takeover; client_no_context_takeover"
+    deflate()                                                | "permessage-deflate; server_max_window_bits=10, permessage-deflate"       | "permessage-deflate"
+    deflate()                                                | "permessage-deflate; server_max_window_bits=15"                           | "permessage-deflate"
+    deflate()                                                | "permessage-deflate; server_max_window_bits=10"                           | null
+    deflate()                                                | "permessage-deflate; client_max_window_bits=7"                            | null
+    deflate()                                                | "permessage-deflate; unknown"                                             | null
+    deflate()                                                | "permessage-deflate; server_no_context_takeover; server_no_context_takeover" | null
+  }
+
+  @Unroll
+  def "round trips messages with server no context takeover #noContextTakeover"() {
+    given:
+    def encoder = new EmbeddedChannel(new PerMessageDeflateEncoder(noContextTakeover, false))
+    def decoder = new EmbeddedChannel(new PerMessageDeflateDecoder(noContextTakeover, 1024))
+    def text = "abcabcabc" * 10
+
+    when:
+    encoder.writeOutbound(new TextWebSocketFrame(text), new TextWebSocketFrame(text), new BinaryWebSocketFrame(copiedBuffer([1, 2, 3] as byte[])), new TextWebSocketFrame(""))
+    def compressed = (1..4).collect { encoder.readOutbound() as WebSocketFrame }
+
+    then:
+    compressed.every { it.rsv() == PerMessageDeflateEncoder.RSV1 }
+    compressed[0].content().readableBytes() < text.length()
+    if (noContextTakeover) {
+      assert compressed[1].content().equals(compressed[0].content())
+    } else {
+      assert compressed[1].content().readableBytes() < compressed[0].content().readableBytes()
+    }
+
+    when:
+    decoder.writeInbound(*compressed)
+    def inflated = (1..4).collect { decoder.readInbound() as WebSocketFrame }
+
+    then:
+    inflated.every { it.rsv() == 0 }
+    (inflated[0] as TextWebSocketFrame).text() == text
+    (inflated[1] as TextWebSocketFrame).text() == text
+    bytes(inflated[2].content()) == [1, 2, 3] as byte[]
+    (inflated[3] as TextWebSocketFrame).text() == ""
+
+    where:
+    noContextTakeover << [true, false]
+  }
+
+  def "broadcast connections share compressed messages"() {
+    given:
+    def encoder1 = new EmbeddedChannel(new PerMessageDeflateEncoder(true, true))
+    def encoder2 = new EmbeddedChannel(new PerMessageDeflateEncoder(true, true))
+
+    when:
+    encoder1.writeOutbound(new TextWebSocketFrame("shared-message"))
+    encoder2.writeOutbound(new TextWebSocketFrame("shared-message"))
+    WebSocketFrame frame1 = encoder1.readOutbound()
+    WebSocketFrame frame2 = encoder2.readOutbound()
+
+    then:
+    frame1.content().array().is(frame2.content().array())
+  }
+
+  def "inflated messages are limited to the max length"() {
+    given:
+    def encoder = new EmbeddedChannel(new PerMessageDeflateEncoder(true, false))
+    def decoder = new EmbeddedChannel(new PerMessageDeflateDecoder(true, 100))
+
+    when:
+    encoder.writeOutbound(new TextWebSocketFrame("a" * 1000))
+    decoder.writeInbound(encoder.readOutbound())
+
+    then:
+    thrown TooLongFrameException
+  }
+
+  def "can decode messages compressed by other implementations"() {
+    given:
+    def decoder = new EmbeddedChannel(new PerMessageDeflateDecoder(false, 1024))
+
+    when:
+    // "Hello" as compressed in RFC 7692, section 7.2.3.1
+    decoder.writeInbound(new TextWebSocketFrame(true, PerMessageDeflateEncoder.RSV1, copiedBuffer([0xf2, 0x48, 0xcd, 0xc9, 0xc9, 0x07, 0x00] as byte[])))
+
+    then:
+    (decoder.readInbound() as TextWebSocketFrame).content().toString(CharsetUtil.UTF_8) == "Hello"
+  }
+
+  private static byte[] bytes(ByteBuf buf) {
+    def bytes = new byte[buf.readableBytes()]
+    buf.getBytes(buf.readerIndex(), bytes)
+    bytes
+  }
+
+}
@@ -21,10 +21,17 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.reflect.TypeToken;
 import groovy.lang.Closure;
+import org.codehaus.groovy.runtime.GeneratedClosure;
+import ratpack.api.Nullable;
 import ratpack.func.Action;
 import ratpack.handling.internal.Extractions;
 import ratpack.registry.Registry;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -33,7 +40,7 @@ public class ClosureInvoker<T, D> {
   private final Closure<T> closure;
   private final List<TypeToken<?>> parameterTypes;
   private final boolean hasDefaultParam;
-
+  private final MethodHandle doCall;
 
   @SuppressWarnings("unchecked")
   public ClosureInvoker(Closure<? extends T> closure) {
@@ -42,6 +49,7 @@ public class ClosureInvoker<T, D> {
     closure.setDelegate(null);
 
     this.parameterTypes = retrieveParameterTypes(this.closure);
+    this.doCall = findDoCall(this.closure);
   }
 
   public Closure<T> getClosure() {
@@ -54,15 +62,22 @@ public class ClosureInvoker<T, D> {
     clone.setDelegate(delegate);
     clone.setResolveStrategy(resolveStrategy);
 
+    Object[] args;
     if (parameterTypes.isEmpty()) {
-      if (hasDefaultParam) {
-        return clone.call(delegate);
-      } else {
-        return clone.call();
-      }
+      args = hasDefaultParam ? new Object[]{delegate} : NO_ARGS;
     } else {
-      Object[] services = Extractions.extract(parameterTypes, registry);
-      return clone.call(services);
+      args = Extractions.extract(parameterTypes, registry);
+    }
+
+    if (doCall == null) {
+      return clone.call(args);
+    } else {
+      try {
+        @SuppressWarnings("unchecked") T result = (T) doCall.invokeExact((Closure<?>) clone, args);
+        return result;
+      } catch (Throwable throwable) {
+        throw ClosureInvoker.<RuntimeException>sneakyThrow(throwable);
+      }
     }
   }
 
@@ -74,6 +89,40 @@ public class ClosureInvoker<T, D> {
     };
   }
 
+  private static final Object[] NO_ARGS = new Object[0];
+
+  /**
+   * Finds the method that compiled closures dispatch {@link Closure#call()} to, so that it can be invoked without going through the meta class.
+   *
+   * @return a handle of type {@code (Closure, Object[])Object}, or null if the closure isn't a plain compiled closure
+   */
+  @Nullable
+  private static MethodHandle findDoCall(Closure<?> closure) {
+    if (!(closure instanceof GeneratedClosure)) {
+      return null;
+    }
+
+    Class<?>[] parameterTypes = closure.getParameterTypes();
+    for (Method method : closure.getClass().getDeclaredMethods()) {
+      if (method.getName().equals("doCall") && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+        try {
+          method.setAccessible(true);
+          return MethodHandles.lookup().unreflect(method)
+            .asSpreader(Object[].class, parameterTypes.length)
+            .asType(MethodType.methodType(Object.class, Closure.class, Object[].class));
+        } catch (IllegalAccessException | SecurityException e) {
+          return null;
+        }
+      }
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E extends Throwable> E sneakyThrow(Throwable throwable) throws E {
+    throw (E) throwable;
+  }
+
   private static List<TypeToken<?>> retrieveParameterTypes(Closure<?> closure) {
     Class<?>[] parameterTypes = closure.getParameterTypes();
     if (parameterTypes.length == 1 && parameterTypes[0].equals(Object.class)) {
@@ -31,7 +31,10 @@ import org.codehaus.groovy.control.customizers.CompilationCustomizer;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 
 import java.nio.file.Path;
+import java.security.AccessController;
 import java.security.CodeSource;
+import java.security.PrivilegedAction;
+import java.util.function.BiConsumer;
 
 public class ScriptEngine<T extends Script> {
 
@@ -47,6 +50,10 @@ public class ScriptEngine<T extends Script> {
     this.scriptBaseClass = scriptBaseClass;
   }
 
+  public ClassLoader getParentLoader() {
+    return parentLoader;
+  }
+
   public T create(String scriptName, Path scriptPath, String scriptText, Object... scriptConstructionArgs) throws IllegalAccessException, InstantiationException {
     Class<T> scriptClass = compile(scriptName, scriptPath, scriptText);
     return DefaultGroovyMethods.newInstance(scriptClass, scriptConstructionArgs);
@@ -54,15 +61,23 @@ public class ScriptEngine<T extends Script> {
 
   @SuppressWarnings("unchecked")
   public Class<T> compile(String scriptName, String scriptText) throws IllegalAccessException, InstantiationException {
-    return createClassLoader(null).parseClass(scriptText, scriptName);
+    return createClassLoader(null, null).parseClass(scriptText, scriptName);
+  }
+
+  /**
+   * Compiles the script, giving the name and bytecode of each generated class to the given listener as it is defined.
+   */
+  @SuppressWarnings("unchecked")
+  public Class<T> compile(String scriptName, String scriptText, BiConsumer<? super String, ? super byte[]> classListener) throws IllegalAccessException, InstantiationException {
+    return createClassLoader(null, classListener).parseClass(scriptText, scriptName);
   }
 
   @SuppressWarnings("unchecked")
   public Class<T> compile(String scriptName, Path scriptPath, String scriptText) throws IllegalAccessException, InstantiationException {
-    return createClassLoader(scriptPath).parseClass(scriptText, scriptName);
+    return createClassLoader(scriptPath, null).parseClass(scriptText, scriptName);
   }
 
-  private GroovyClassLoader createClassLoader(final Path scriptPath) {
+  private GroovyClassLoader createClassLoader(final Path scriptPath, final BiConsumer<? super String, ? super byte[]> classListener) {
     final CompilerConfiguration compilerConfiguration = new CompilerConfiguration();
     if (!scriptBaseClass.equals(Script.class)) {
       compilerConfiguration.setScriptBaseClass(scriptBaseClass.getName());
@@ -102,6 +117,22 @@ public class ScriptEngine<T extends Script> {
           }
         };
       }
+
+      @Override
+      protected ClassCollector createCollector(CompilationUnit unit, SourceUnit su) {
+        if (classListener == null) {
+          return super.createCollector(unit, su);
+        }
+
+        InnerLoader loader = AccessController.doPrivileged((PrivilegedAction<InnerLoader>) () -> new InnerLoader(this));
+        return new ClassCollector(loader, unit, su) {
+          @Override
+          protected Class<?> createClass(byte[] code, ClassNode classNode) {
+            classListener.accept(classNode.getName(), code);
+            return super.createClass(code, classNode);
+          }
+        };
+      }
     };
 
   }
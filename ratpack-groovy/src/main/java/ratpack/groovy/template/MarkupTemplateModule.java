@@ -27,6 +27,7 @@ import ratpack.render.Renderer;
 
 import javax.inject.Singleton;
 import java.nio.file.Path;
+import java.time.Duration;
 
 /**
  * An extension module that provides support for the Groovy markup template engine.
@@ -46,6 +47,14 @@ import java.nio.file.Path;
  * <p>
  * Response content type can be manually specified, i.e. {@code groovyMarkupTemplate("template.gtpl", model, "text/html")} if
  * not specified will default to {@code text/html}.
+ * </p>
+ * <p>
+ * By default, templates are rendered in full before the response is sent.
+ * With {@link Config#setStreaming(boolean) streaming} enabled, templates are rendered on a blocking thread and sent in chunks of
+ * {@link Config#setChunkSize(int) chunk size} bytes as they are rendered, so large documents start reaching the client before rendering finishes.
+ * The rendering waits for the client to accept each chunk before producing more, for up to the {@link Config#setStreamTimeout(Duration) stream timeout}.
+ * A template that fails before its first chunk is sent results in an error response as usual, but a failure after that can only end the response early.
+ * </p>
  * <pre class="java">{@code
  * import ratpack.groovy.template.MarkupTemplateModule;
  * import ratpack.guice.Guice;
@@ -106,6 +115,9 @@ public class MarkupTemplateModule extends ConfigurableModule<MarkupTemplateModul
   public static class Config extends TemplateConfiguration {
 
     private String templatesDirectory = "templates";
+    private boolean streaming;
+    private int chunkSize = 8192;
+    private Duration streamTimeout = Duration.ofSeconds(30);
 
     public String getTemplatesDirectory() {
       return templatesDirectory;
@@ -115,6 +127,37 @@ public class MarkupTemplateModule extends ConfigurableModule<MarkupTemplateModul
       this.templatesDirectory = templatesDirectory;
     }
 
+    public boolean isStreaming() {
+      return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+      this.streaming = streaming;
+    }
+
+    public int getChunkSize() {
+      return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    public Duration getStreamTimeout() {
+      return streamTimeout;
+    }
+
+    /**
+     * How long a streamed rendering waits for the client to accept the next chunk, before it gives up and ends the response.
+     * <p>
+     * Defaults to 30 seconds.
+     *
+     * @param streamTimeout how long to wait for the client to accept the next chunk
+     */
+    public void setStreamTimeout(Duration streamTimeout) {
+      this.streamTimeout = streamTimeout;
+    }
+
     public Config() {
     }
 
@@ -22,16 +22,20 @@ import io.netty.buffer.ByteBufAllocator;
 import ratpack.exec.ExecController;
 import ratpack.file.FileSystemBinding;
 import ratpack.groovy.template.internal.TextTemplateRenderingEngine;
+import ratpack.groovy.template.internal.TextTemplatePrecompiler;
 import ratpack.groovy.template.internal.TextTemplateRenderer;
 import ratpack.guice.ConfigurableModule;
 import ratpack.server.ServerConfig;
 
+import java.nio.file.Paths;
+
 @SuppressWarnings("UnusedDeclaration")
 public class TextTemplateModule extends ConfigurableModule<TextTemplateModule.Config> {
 
   public static class Config {
     private String templatesPath = "templates";
     private boolean staticallyCompile;
+    private String classCachePath;
 
     public String getTemplatesPath() {
       return templatesPath;
@@ -48,12 +52,22 @@ public class TextTemplateModule extends ConfigurableModule<TextTemplateModule.Co
     public void setStaticallyCompile(boolean staticallyCompile) {
       this.staticallyCompile = staticallyCompile;
     }
+
+    public String getClassCachePath() {
+      return classCachePath;
+    }
+
+    public void setClassCachePath(String classCachePath) {
+      this.classCachePath = classCachePath;
+    }
   }
 
 
   @Override
   protected void configure() {
     bind(TextTemplateRenderer.class);
+    // Instance bindings are injected when the injector is created, which starts the precompilation
+    bind(TextTemplatePrecompiler.class).toInstance(new TextTemplatePrecompiler());
   }
 
   @Provides
@@ -70,7 +84,8 @@ public class TextTemplateModule extends ConfigurableModule<TextTemplateModule.Co
       bufferAllocator,
       templateDir,
       serverConfig.isDevelopment(),
-      config.staticallyCompile
+      config.staticallyCompile,
+      config.classCachePath == null ? null : Paths.get(config.classCachePath)
     );
   }
 }
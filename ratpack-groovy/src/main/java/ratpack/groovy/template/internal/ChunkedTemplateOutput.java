@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.CharsetUtil;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import ratpack.func.Action;
+
+import java.io.*;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Template output that is sent in chunks as it is written, instead of once the whole document has been rendered.
+ * <p>
+ * The template is rendered by {@link #render(Action)}, which is to be called on a blocking thread and returns once rendering is complete.
+ * If the output fits in one chunk, the whole {@link #getContent() content} is then available.
+ * Otherwise, when the first chunk fills, the output becomes {@link #isStreaming() streaming} and is given to the stream starter, which is expected to subscribe to it.
+ * An error before the first chunk fills is thrown by {@link #render(Action)}, so that it can be handled as a normal rendering error.
+ * An error after that is given to the subscriber.
+ * <p>
+ * When streaming, this is a publisher of the chunks.
+ * Every chunk is exactly the chunk size, except for the last which holds whatever remains.
+ * The rendered characters are encoded through a buffering writer, so the output only reaches this stream in batches of the writer's buffer size,
+ * which delays the first chunk of small chunk sizes but doesn't change the size of the chunks.
+ * <p>
+ * Writing blocks the rendering thread until the subscriber has requested the next chunk, so no more than one chunk per request is held in memory.
+ * If the subscriber doesn't request another chunk within the timeout (e.g. because the client has stopped reading), rendering fails and the subscriber is given the error,
+ * so that the rendering thread is not held indefinitely.
+ */
+public class ChunkedTemplateOutput extends OutputStream implements Publisher<ByteBuf>, Subscription {
+
+  private final ByteBufAllocator allocator;
+  private final int chunkSize;
+  private final long timeoutMillis;
+  private final Consumer<? super ChunkedTemplateOutput> streamStarter;
+
+  private final Object lock = new Object();
+  private Subscriber<? super ByteBuf> subscriber;
+  private long demand;
+  private boolean cancelled;
+
+  private ByteBuf buffer;
+  private boolean streaming;
+  private boolean closed;
+
+  public ChunkedTemplateOutput(ByteBufAllocator allocator, int chunkSize, Duration timeout, Consumer<? super ChunkedTemplateOutput> streamStarter) {
+    this.allocator = allocator;
+    this.chunkSize = chunkSize;
+    this.timeoutMillis = timeout.toMillis();
+    this.streamStarter = streamStarter;
+  }
+
+  public ChunkedTemplateOutput render(Action<? super Writer> render) throws Exception {
+    Writer writer = new OutputStreamWriter(this, CharsetUtil.UTF_8);
+    try {
+      render.execute(writer);
+      writer.close();
+    } catch (Exception e) {
+      release();
+      if (!streaming) {
+        throw e;
+      }
+      boolean notify;
+      synchronized (lock) {
+        notify = !cancelled;
+      }
+      if (notify) {
+        subscriber.onError(e);
+      }
+    }
+    return this;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * The complete output, if rendering finished before the first chunk filled.
+   */
+  public ByteBuf getContent() {
+    return buffer == null ? allocator.buffer(0) : buffer;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    buffer().writeByte(b);
+    if (buffer.readableBytes() >= chunkSize) {
+      emit();
+    }
+  }
+
+  @Override
+  public void write(@SuppressWarnings("NullableProblems") byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      int length = Math.min(len, chunkSize - buffer().readableBytes());
+      buffer.writeBytes(b, off, length);
+      off += length;
+      len -= length;
+      if (buffer.readableBytes() >= chunkSize) {
+        emit();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed || !streaming) {
+      closed = true;
+      return;
+    }
+    closed = true;
+
+    if (buffer != null && buffer.isReadable()) {
+      emit();
+    } else {
+      release();
+    }
+    boolean notify;
+    synchronized (lock) {
+      notify = !cancelled;
+    }
+    if (notify) {
+      subscriber.onComplete();
+    }
+  }
+
+  private ByteBuf buffer() {
+    if (buffer == null) {
+      buffer = allocator.buffer(chunkSize);
+    }
+    return buffer;
+  }
+
+  private void emit() throws IOException {
+    ByteBuf chunk = buffer;
+    buffer = null;
+
+    if (!streaming) {
+      streaming = true;
+      streamStarter.accept(this);
+    }
+
+    synchronized (lock) {
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      while (demand == 0 && !cancelled) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          chunk.release();
+          throw new InterruptedIOException("timed out after " + timeoutMillis + "ms waiting for the template output to be requested");
+        }
+        try {
+          lock.wait(remaining);
+        } catch (InterruptedException e) {
+          cancelled = true;
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (cancelled) {
+        chunk.release();
+        throw new InterruptedIOException("template output was cancelled");
+      }
+      --demand;
+    }
+
+    subscriber.onNext(chunk);
+  }
+
+  private void release() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super ByteBuf> s) {
+    synchronized (lock) {
+      if (subscriber != null) {
+        s.onError(new IllegalStateException("template output can only be subscribed to once"));
+        return;
+      }
+      subscriber = s;
+    }
+    s.onSubscribe(this);
+  }
+
+  @Override
+  public void request(long n) {
+    synchronized (lock) {
+      demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      lock.notifyAll();
+    }
+  }
+
+  @Override
+  public void cancel() {
+    synchronized (lock) {
+      cancelled = true;
+      lock.notifyAll();
+    }
+  }
+
+}
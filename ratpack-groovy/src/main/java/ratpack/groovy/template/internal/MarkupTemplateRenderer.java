@@ -18,9 +18,13 @@ package ratpack.groovy.template.internal;
 import groovy.lang.Writable;
 import groovy.text.Template;
 import groovy.text.markup.MarkupTemplateEngine;
+import io.netty.buffer.ByteBufAllocator;
 import ratpack.file.MimeTypes;
 import ratpack.groovy.template.MarkupTemplate;
+import ratpack.groovy.template.MarkupTemplateModule;
 import ratpack.handling.Context;
+import ratpack.http.Response;
+import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.render.RendererSupport;
 
 import javax.inject.Inject;
@@ -29,16 +33,23 @@ import java.io.IOException;
 public class MarkupTemplateRenderer extends RendererSupport<MarkupTemplate> {
 
   private final MarkupTemplateEngine engine;
+  private final MarkupTemplateModule.Config config;
 
   @Inject
-  public MarkupTemplateRenderer(MarkupTemplateEngine engine) {
+  public MarkupTemplateRenderer(MarkupTemplateEngine engine, MarkupTemplateModule.Config config) {
     this.engine = engine;
+    this.config = config;
   }
 
   @Override
   public void render(Context context, MarkupTemplate template) throws Exception {
     String contentType = template.getContentType();
     contentType = contentType == null ? context.get(MimeTypes.class).getContentType(template.getName()) : contentType;
+    if (config.isStreaming()) {
+      stream(context, template, contentType);
+      return;
+    }
+
     try {
 
       Template compiledTemplate = engine.createTemplateByPath(template.getName());
@@ -48,4 +59,19 @@ public class MarkupTemplateRenderer extends RendererSupport<MarkupTemplate> {
       context.error(e);
     }
   }
+
+  private void stream(Context context, MarkupTemplate template, String contentType) {
+    Response response = context.getResponse();
+    response.contentType(contentType);
+    ChunkedTemplateOutput output = new ChunkedTemplateOutput(context.get(ByteBufAllocator.class), config.getChunkSize(), config.getStreamTimeout(), streaming -> {
+      // The execution is waiting for the rendering to complete, so the response can be sent from the rendering thread
+      response.getHeaders().set(HttpHeaderConstants.TRANSFER_ENCODING, HttpHeaderConstants.CHUNKED);
+      response.sendStream(streaming);
+    });
+    context.blocking(() -> output.render(writer -> engine.createTemplateByPath(template.getName()).make(template.getModel()).writeTo(writer))).then(rendered -> {
+      if (!rendered.isStreaming()) {
+        response.send(rendered.getContent());
+      }
+    });
+  }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal;
+
+import com.google.common.hash.Hashing;
+import groovy.lang.GroovySystem;
+import io.netty.util.CharsetUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.util.RatpackVersion;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the classes generated for templates on disk, so that they don't need to be compiled again when the application restarts.
+ * <p>
+ * Entries are keyed by a hash of the generated script source, the template name, and the compiler and runtime versions.
+ * A changed template therefore gets a new entry, and entries are never invalidated.
+ */
+public class TextTemplateClassCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextTemplateClassCache.class);
+
+  private final Path dir;
+  private final String salt;
+
+  public TextTemplateClassCache(Path dir, boolean staticCompile) {
+    this.dir = dir;
+    this.salt = GroovySystem.getVersion() + ":" + RatpackVersion.getVersion().trim() + ":" + staticCompile;
+  }
+
+  public interface Compiler {
+    Class<DefaultTextTemplateScript> compile(Map<String, byte[]> classes) throws Exception;
+  }
+
+  public Class<DefaultTextTemplateScript> get(String name, String scriptSource, ClassLoader parentLoader, Compiler compiler) throws Exception {
+    String key = Hashing.sha256().newHasher()
+      .putString(salt, CharsetUtil.UTF_8)
+      .putString(name, CharsetUtil.UTF_8)
+      .putString(scriptSource, CharsetUtil.UTF_8)
+      .hash()
+      .toString();
+    Path file = dir.resolve(key + ".classes");
+
+    if (Files.isRegularFile(file)) {
+      try {
+        return load(file, parentLoader);
+      } catch (IOException | ClassNotFoundException | LinkageError e) {
+        LOGGER.warn("Could not load cached classes for template '" + name + "' from " + file + ", recompiling", e);
+      }
+    }
+
+    Map<String, byte[]> classes = new LinkedHashMap<>();
+    Class<DefaultTextTemplateScript> templateClass = compiler.compile(classes);
+    try {
+      store(file, templateClass.getName(), classes);
+    } catch (IOException e) {
+      LOGGER.warn("Could not cache classes for template '" + name + "' in " + file, e);
+    }
+    return templateClass;
+  }
+
+  private Class<DefaultTextTemplateScript> load(Path file, ClassLoader parentLoader) throws IOException, ClassNotFoundException {
+    Map<String, byte[]> classes = new LinkedHashMap<>();
+    String mainClassName;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      mainClassName = in.readUTF();
+      int count = in.readInt();
+      for (int i = 0; i < count; ++i) {
+        String className = in.readUTF();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        classes.put(className, bytes);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<DefaultTextTemplateScript> templateClass = (Class<DefaultTextTemplateScript>) new CachedClassLoader(parentLoader, classes).loadClass(mainClassName);
+    return templateClass;
+  }
+
+  private void store(Path file, String mainClassName, Map<String, byte[]> classes) throws IOException {
+    Files.createDirectories(dir);
+    // Written to a temp file and moved into place, so that a concurrent or interrupted write is never read
+    Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        out.writeUTF(mainClassName);
+        out.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+      }
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static class CachedClassLoader extends ClassLoader {
+    private final Map<String, byte[]> classes;
+
+    private CachedClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+      super(parent);
+      this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+      byte[] bytes = classes.get(name);
+      if (bytes == null) {
+        throw new ClassNotFoundException(name);
+      }
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+}
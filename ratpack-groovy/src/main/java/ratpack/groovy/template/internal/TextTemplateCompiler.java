@@ -20,6 +20,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.util.CharsetUtil;
 import org.codehaus.groovy.control.CompilationFailedException;
+import ratpack.api.Nullable;
 import ratpack.groovy.script.internal.ScriptEngine;
 
 import java.io.IOException;
@@ -34,15 +35,21 @@ public class TextTemplateCompiler {
   private boolean verbose;
   private final TextTemplateParser parser = new TextTemplateParser();
   private final ScriptEngine<DefaultTextTemplateScript> scriptEngine;
+  private final TextTemplateClassCache classCache;
 
   public TextTemplateCompiler(ScriptEngine<DefaultTextTemplateScript> scriptEngine, ByteBufAllocator byteBufAllocator) {
     this(scriptEngine, false, byteBufAllocator);
   }
 
   public TextTemplateCompiler(ScriptEngine<DefaultTextTemplateScript> scriptEngine, boolean verbose, ByteBufAllocator byteBufAllocator) {
+    this(scriptEngine, verbose, byteBufAllocator, null);
+  }
+
+  public TextTemplateCompiler(ScriptEngine<DefaultTextTemplateScript> scriptEngine, boolean verbose, ByteBufAllocator byteBufAllocator, @Nullable TextTemplateClassCache classCache) {
     this.scriptEngine = scriptEngine;
     this.verbose = verbose;
     this.byteBufAllocator = byteBufAllocator;
+    this.classCache = classCache;
   }
 
   public CompiledTextTemplate compile(ByteBuf templateSource, String name) throws CompilationFailedException, IOException {
@@ -57,7 +64,9 @@ public class TextTemplateCompiler {
     }
 
     try {
-      Class<DefaultTextTemplateScript> scriptClass = scriptEngine.compile(name, scriptSourceString);
+      Class<DefaultTextTemplateScript> scriptClass = classCache == null
+        ? scriptEngine.compile(name, scriptSourceString)
+        : classCache.get(name, scriptSourceString, scriptEngine.getParentLoader(), classes -> scriptEngine.compile(name, scriptSourceString, classes::put));
       return new CompiledTextTemplate(name, scriptClass);
     } catch (Exception e) {
       throw new InvalidTemplateException(name, "compilation failure", e);
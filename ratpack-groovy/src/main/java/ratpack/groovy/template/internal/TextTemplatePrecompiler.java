@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal;
+
+import ratpack.exec.ExecController;
+
+import javax.inject.Inject;
+
+/**
+ * Starts the {@link TextTemplateRenderingEngine#precompile(ExecController) precompilation} of the text templates when the injector is created, instead of on the first render.
+ */
+public class TextTemplatePrecompiler {
+
+  @Inject
+  public void start(TextTemplateRenderingEngine engine, ExecController execController) {
+    engine.precompile(execController);
+  }
+
+}
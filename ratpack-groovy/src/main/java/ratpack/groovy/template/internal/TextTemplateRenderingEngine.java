@@ -21,35 +21,58 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.api.Nullable;
 import ratpack.exec.ExecControl;
+import ratpack.exec.ExecController;
 import ratpack.exec.Promise;
 import ratpack.file.FileSystemBinding;
+import ratpack.file.internal.DirectoryWatcher;
 import ratpack.groovy.script.internal.ScriptEngine;
 
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class TextTemplateRenderingEngine {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextTemplateRenderingEngine.class);
+
   private final LoadingCache<TextTemplateSource, CompiledTextTemplate> compiledTemplateCache;
   private final TextTemplateCompiler templateCompiler;
   private final ByteBufAllocator byteBufAllocator;
   private final boolean reloadable;
+  private final boolean checkLastModified;
   private final FileSystemBinding templateDir;
   private final ExecControl execControl;
+  // The precompile task, plus each compilation it starts
+  private final AtomicInteger pending = new AtomicInteger(1);
 
   @Inject
   public TextTemplateRenderingEngine(ExecControl execControl, ByteBufAllocator byteBufAllocator, FileSystemBinding templateDir, boolean reloadable, boolean staticCompile) {
+    this(execControl, byteBufAllocator, templateDir, reloadable, staticCompile, null);
+  }
+
+  public TextTemplateRenderingEngine(ExecControl execControl, ByteBufAllocator byteBufAllocator, FileSystemBinding templateDir, boolean reloadable, boolean staticCompile, @Nullable Path classCacheDir) {
     this.execControl = execControl;
     this.byteBufAllocator = byteBufAllocator;
     this.reloadable = reloadable;
     this.templateDir = templateDir;
+    // Reloadable templates in a directory that can't be watched (e.g. in a jar) are checked for changes on each use
+    this.checkLastModified = reloadable && !DirectoryWatcher.isWatchable(templateDir.getFile());
 
     ScriptEngine<DefaultTextTemplateScript> scriptEngine = new ScriptEngine<>(getClass().getClassLoader(), staticCompile, DefaultTextTemplateScript.class);
-    this.templateCompiler = new TextTemplateCompiler(scriptEngine, byteBufAllocator);
+    TextTemplateClassCache classCache = classCacheDir == null ? null : new TextTemplateClassCache(classCacheDir, staticCompile);
+    this.templateCompiler = new TextTemplateCompiler(scriptEngine, false, byteBufAllocator, classCache);
 
     //noinspection NullableProblems
     this.compiledTemplateCache = CacheBuilder.newBuilder().build(new CacheLoader<TextTemplateSource, CompiledTextTemplate>() {
@@ -65,13 +88,76 @@ public class TextTemplateRenderingEngine {
     });
   }
 
+  /**
+   * Starts watching the template dir if templates are reloadable, and compiling all of the templates in it in parallel, on the exec controller's blocking executor.
+   * <p>
+   * This returns immediately, nothing waits for the compilations.
+   * Templates that fail to compile are ignored, the failure will be reported when the template is rendered.
+   */
+  public void precompile(ExecController execController) {
+    ExecutorService executor = execController.getBlockingExecutor();
+    executor.execute(() -> {
+      try {
+        watch(execController);
+        for (String templateId : findTemplates()) {
+          pending.incrementAndGet();
+          executor.execute(() -> {
+            try {
+              compiledTemplateCache.get(toTemplateSource(templateId, getTemplateFile(templateId)));
+            } catch (Exception ignore) {
+              // reported when the template is rendered
+            } finally {
+              pending.decrementAndGet();
+            }
+          });
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not precompile or watch the templates in " + templateDir.getFile(), e);
+      } finally {
+        pending.decrementAndGet();
+      }
+    });
+  }
+
+  /**
+   * Whether all of the templates found by {@link #precompile(ExecController)} have been compiled (or have failed to compile).
+   */
+  public boolean isPrecompiled() {
+    return pending.get() == 0;
+  }
+
+  private List<String> findTemplates() throws IOException {
+    Path dir = templateDir.getFile();
+    if (!Files.isDirectory(dir)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> files = Files.walk(dir)) {
+      return files
+        .filter(Files::isRegularFile)
+        .map(file -> dir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+        .collect(Collectors.toList());
+    }
+  }
+
+  // Discards all compiled templates on any change to the template dir, until the exec controller stops
+  private void watch(ExecController execController) throws IOException {
+    if (reloadable && !checkLastModified) {
+      DirectoryWatcher.watch(templateDir.getFile(), execController, compiledTemplateCache::invalidateAll);
+    }
+  }
+
   public Promise<ByteBuf> renderTemplate(String templateId, Map<String, ?> model) throws Exception {
     Path templateFile = getTemplateFile(templateId);
-    return render(toTemplateSource(templateId, templateFile), model);
+    if (checkLastModified) {
+      return execControl.blocking(() -> toTemplateSource(templateId, templateFile))
+        .flatMap(templateSource -> render(templateSource, model));
+    } else {
+      return render(toTemplateSource(templateId, templateFile), model);
+    }
   }
 
   private TextTemplateSource toTemplateSource(String templateId, Path templateFile) throws IOException {
-    String id = templateId + (reloadable ? Files.getLastModifiedTime(templateFile) : "0");
+    String id = templateId + (checkLastModified ? Files.getLastModifiedTime(templateFile) : "0");
     return new TextTemplateSource(byteBufAllocator, id, templateFile, templateId);
   }
 
@@ -150,5 +150,24 @@ class BasicGroovyDslSpec extends RatpackGroovyDslSpec {
     getText("bar") == "bar"
   }
 
+  def "checked exceptions thrown by handler closures are not wrapped"() {
+    when:
+    handlers {
+      register {
+        add ServerErrorHandler, { context, throwable -> context.render(throwable.class.name) } as ServerErrorHandler
+        add String, "foo"
+      }
+      get {
+        throw new IOException("!")
+      }
+      get("param") { String string ->
+        throw new IOException(string)
+      }
+    }
+
+    then:
+    text == IOException.name
+    getText("param") == IOException.name
+  }
 
 }
@@ -356,4 +356,53 @@ class MarkupTemplatingSpec extends RatpackGroovyDslSpec {
     get("dir/t.xml?type=foo/bar").headers.get(CONTENT_TYPE) == "foo/bar"
   }
 
+  def "can stream template output in chunks"() {
+    given:
+    file "templates/list.gtpl", "ul { items.each { li(it) } }"
+    bindings {
+      add(MarkupTemplateModule) { it.streaming = true; it.chunkSize = 64 }
+    }
+
+    when:
+    handlers {
+      get {
+        render groovyMarkupTemplate("list.gtpl", items: (1..count).collect { "item $it" })
+      }
+    }
+
+    then:
+    def response = get("?count=$count")
+    response.body.text == "<ul>" + (1..count).collect { "<li>item $it</li>" }.join("") + "</ul>"
+    response.headers.get(CONTENT_TYPE) == "text/html;charset=UTF-8"
+
+    and:
+    def (head, body) = rawResponse().split("\n\n", 2)*.readLines()
+    head.contains("transfer-encoding: chunked") == chunked
+    head.contains("content-length: 24") == !chunked
+    !chunked || body[0..-5].collate(2)*.first().unique() == ["40"]
+
+    where:
+    count | chunked
+    1     | false
+    1000  | true
+  }
+
+  def "errors before the first chunk of a streamed template are rendered as errors"() {
+    given:
+    file "templates/broken.gtpl", "p('a'); throw new IllegalStateException('!')"
+    bindings {
+      add(MarkupTemplateModule) { it.streaming = true }
+    }
+
+    when:
+    handlers {
+      get {
+        render groovyMarkupTemplate("broken.gtpl")
+      }
+    }
+
+    then:
+    get().statusCode == 500
+  }
+
 }
@@ -17,9 +17,13 @@
 package ratpack.groovy.template
 
 import ratpack.error.ServerErrorHandler
+import ratpack.groovy.template.internal.TextTemplateRenderingEngine
 import ratpack.test.internal.RatpackGroovyDslSpec
 import ratpack.test.internal.SimpleErrorHandler
 import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
 
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE
 import static ratpack.groovy.Groovy.groovyTemplate
@@ -259,7 +263,82 @@ class TemplateRenderingSpec extends RatpackGroovyDslSpec {
     file "templates/t", "2"
 
     then:
-    text == "2"
+    // changes are picked up by watching the templates directory, which is asynchronous
+    new PollingConditions().eventually {
+      assert text == "2"
+    }
+  }
+
+  def "nested templates are reloadable in development mode"() {
+    given:
+    bindings { add(TextTemplateModule) }
+    serverConfig { development(true) }
+    file "templates/outer", "<<% render 'dir/inner' %>>"
+    file "templates/dir/inner", "1"
+
+    when:
+    handlers {
+      get { render groovyTemplate("outer") }
+    }
+
+    then:
+    text == "<1>"
+
+    when:
+    sleep 1000
+    file "templates/dir/inner", "2"
+
+    then:
+    new PollingConditions().eventually {
+      assert text == "<2>"
+    }
+  }
+
+  def "templates are compiled up front"() {
+    given:
+    bindings { add(TextTemplateModule) }
+    serverConfig { development(false) }
+    file "templates/a", "a"
+    file "templates/dir/b", "b"
+
+    when:
+    handlers {
+      get("precompiled") { render get(TextTemplateRenderingEngine).precompiled.toString() }
+      get(":name") { render groovyTemplate(pathTokens.name.replace("-", "/")) }
+    }
+
+    then:
+    getText("a") == "a"
+    new PollingConditions().eventually {
+      assert getText("precompiled") == "true"
+    }
+
+    when:
+    Files.delete(file("templates/dir/b"))
+
+    then:
+    getText("dir-b") == "b"
+  }
+
+  def "compiled templates can be cached on disk"() {
+    given:
+    def classCache = temporaryFolder.newFolder("classes").toPath()
+    bindings { add(TextTemplateModule) { it.classCachePath = classCache.toString() } }
+    file "templates/t", "\${model.value} <% 2.times { %>a<% } %>"
+
+    when:
+    handlers {
+      get { render groovyTemplate("t", value: 1) }
+    }
+
+    then:
+    text == "1 aa"
+    def entries = Files.list(classCache)
+    try {
+      assert entries.count() == 1
+    } finally {
+      entries.close()
+    }
   }
 
   def "templates are not reloadable in development false mode"() {
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.UnpooledByteBufAllocator
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ChunkedTemplateOutputSpec extends Specification {
+
+  def "rendering fails if the subscriber stops requesting chunks"() {
+    given:
+    def chunks = []
+    def errors = []
+    def subscriber = new Subscriber<ByteBuf>() {
+      void onSubscribe(Subscription s) { s.request(1) }
+      void onNext(ByteBuf chunk) { chunks << chunk.readableBytes(); chunk.release() }
+      void onError(Throwable t) { errors << t }
+      void onComplete() {}
+    }
+    def output = new ChunkedTemplateOutput(UnpooledByteBufAllocator.DEFAULT, 4, Duration.ofMillis(100), { it.subscribe(subscriber) })
+
+    when:
+    output.render { it.write("a" * 1000) }
+
+    then:
+    output.streaming
+    chunks == [4]
+    errors.size() == 1
+    errors[0] instanceof InterruptedIOException
+  }
+
+}
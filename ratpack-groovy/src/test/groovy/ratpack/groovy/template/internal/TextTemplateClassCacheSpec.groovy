@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.groovy.template.internal
+
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.buffer.UnpooledByteBufAllocator
+import io.netty.util.CharsetUtil
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import ratpack.groovy.script.internal.ScriptEngine
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.function.BiConsumer
+
+class TextTemplateClassCacheSpec extends Specification {
+
+  @Rule
+  TemporaryFolder temporaryFolder
+
+  Path dir
+
+  def setup() {
+    dir = temporaryFolder.newFolder().toPath()
+  }
+
+  TextTemplateCompiler compiler(ScriptEngine<DefaultTextTemplateScript> scriptEngine) {
+    new TextTemplateCompiler(scriptEngine, false, UnpooledByteBufAllocator.DEFAULT, new TextTemplateClassCache(dir, false))
+  }
+
+  ScriptEngine<DefaultTextTemplateScript> scriptEngine() {
+    new ScriptEngine<DefaultTextTemplateScript>(getClass().classLoader, false, DefaultTextTemplateScript)
+  }
+
+  String exec(TextTemplateCompiler compiler, String source) {
+    def template = compiler.compile(Unpooled.copiedBuffer(source, CharsetUtil.UTF_8), "test")
+    ByteBuf buffer = Unpooled.buffer()
+    template.execute([value: 2], buffer, null)
+    buffer.toString(CharsetUtil.UTF_8)
+  }
+
+  List<Path> entries() {
+    def stream = Files.list(dir)
+    try {
+      stream.iterator().toList()
+    } finally {
+      stream.close()
+    }
+  }
+
+  def "compiled classes are reused from disk"() {
+    given:
+    def source = "a\${model.value}<% [1, 2].each { %>-\${it}<% } %>"
+    def notCompiling = new ScriptEngine<DefaultTextTemplateScript>(getClass().classLoader, false, DefaultTextTemplateScript) {
+      @Override
+      Class<DefaultTextTemplateScript> compile(String scriptName, String scriptText, BiConsumer classListener) {
+        throw new IllegalStateException("should have been loaded from the cache")
+      }
+    }
+
+    when:
+    def first = exec(compiler(scriptEngine()), source)
+
+    then:
+    first == "a2-1-2"
+    entries().size() == 1
+
+    when:
+    def second = exec(compiler(notCompiling), source)
+
+    then:
+    second == "a2-1-2"
+  }
+
+  def "changed templates are compiled"() {
+    when:
+    exec(compiler(scriptEngine()), "a")
+    def changed = exec(compiler(scriptEngine()), "b")
+
+    then:
+    changed == "b"
+    entries().size() == 2
+  }
+
+  def "unreadable cache entries are recompiled"() {
+    given:
+    exec(compiler(scriptEngine()), "a")
+    entries().first().write("garbage")
+
+    expect:
+    exec(compiler(scriptEngine()), "a") == "a"
+  }
+
+}
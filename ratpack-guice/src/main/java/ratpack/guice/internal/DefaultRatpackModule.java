@@ -25,8 +25,10 @@ import ratpack.exec.ExecController;
 import ratpack.exec.Execution;
 import ratpack.exec.ExecutionException;
 import ratpack.http.client.HttpClient;
+import ratpack.http.client.HttpClientSsl;
 import ratpack.http.client.HttpClients;
 import ratpack.server.ServerConfig;
+import ratpack.registry.Registries;
 import ratpack.registry.Registry;
 
 public class DefaultRatpackModule extends AbstractModule {
@@ -63,8 +65,13 @@ public class DefaultRatpackModule extends AbstractModule {
   }
 
   @Provides
-  HttpClient httpClient(ServerConfig serverConfig, Registry rootRegistry) {
-    return HttpClients.httpClient(serverConfig, rootRegistry);
+  HttpClientSsl httpClientSsl(Registry rootRegistry) {
+    return rootRegistry.get(HttpClientSsl.class);
+  }
+
+  @Provides
+  HttpClient httpClient(ServerConfig serverConfig, Registry rootRegistry, HttpClientSsl ssl) {
+    return HttpClients.httpClient(serverConfig, rootRegistry.join(Registries.just(HttpClientSsl.class, ssl)));
   }
 
   @Provides
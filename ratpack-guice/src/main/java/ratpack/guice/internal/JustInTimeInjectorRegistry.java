@@ -16,31 +16,70 @@
 
 package ratpack.guice.internal;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
-import com.google.inject.ConfigurationException;
-import com.google.inject.Injector;
-import com.google.inject.Key;
-import com.google.inject.TypeLiteral;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.inject.*;
 import ratpack.registry.internal.CachingBackedRegistry;
 
+import java.util.Map;
 import java.util.Optional;
 
+import static ratpack.util.ExceptionUtils.uncheck;
+
 public class JustInTimeInjectorRegistry extends CachingBackedRegistry {
 
-  private final Injector injector;
+  private static final int MAX_CACHED_LOOKUPS = 1024;
+
+  private final Map<TypeToken<?>, Provider<?>> explicitBindings;
+
+  // Just in time lookups, including misses so that a lookup for an unbindable type only fails in Guice once
+  private final LoadingCache<TypeToken<?>, Optional<Provider<?>>> justInTimeBindings;
 
   public JustInTimeInjectorRegistry(Injector injector) {
     super(new InjectorRegistryBacking(injector));
-    this.injector = injector;
+
+    ImmutableMap.Builder<TypeToken<?>, Provider<?>> explicitBindings = ImmutableMap.builder();
+    for (Map.Entry<Key<?>, Binding<?>> entry : injector.getBindings().entrySet()) {
+      Key<?> key = entry.getKey();
+      if (key.getAnnotationType() == null) {
+        explicitBindings.put(TypeToken.of(key.getTypeLiteral().getType()), entry.getValue().getProvider());
+      }
+    }
+    this.explicitBindings = explicitBindings.build();
+
+    this.justInTimeBindings = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_LOOKUPS).build(new CacheLoader<TypeToken<?>, Optional<Provider<?>>>() {
+      @Override
+      public Optional<Provider<?>> load(TypeToken<?> type) throws Exception {
+        try {
+          return Optional.of(injector.getProvider(Key.get(TypeLiteral.get(type.getType()))));
+        } catch (ConfigurationException e) {
+          return Optional.empty();
+        }
+      }
+    });
   }
 
   public <T> Optional<T> maybeGet(TypeToken<T> type) {
-    @SuppressWarnings("unchecked") TypeLiteral<T> typeLiteral = (TypeLiteral<T>) TypeLiteral.get(type.getType());
-    try {
-      return Optional.of(injector.getInstance(Key.get(typeLiteral)));
-    } catch (ConfigurationException e) {
-      return Optional.empty();
+    Provider<?> provider = explicitBindings.get(type);
+    if (provider == null) {
+      Optional<Provider<?>> justInTime;
+      try {
+        justInTime = justInTimeBindings.getUnchecked(type);
+      } catch (UncheckedExecutionException e) {
+        throw uncheck(e.getCause());
+      }
+      if (!justInTime.isPresent()) {
+        return Optional.empty();
+      }
+      provider = justInTime.get();
     }
+
+    @SuppressWarnings("unchecked") T instance = (T) provider.get();
+    return Optional.of(instance);
   }
 
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.guice.internal
+
+import com.google.inject.AbstractModule
+import com.google.inject.Guice
+import com.google.inject.Singleton
+import spock.lang.Specification
+
+import static ratpack.guice.Guice.justInTimeRegistry
+
+class JustInTimeInjectorRegistrySpec extends Specification {
+
+  static interface Unbound {}
+
+  static class Unscoped {}
+
+  @Singleton
+  static class Scoped {}
+
+  def "lookups respect binding scopes and misses are empty"() {
+    when:
+    def injector = Guice.createInjector(new AbstractModule() {
+      @Override
+      protected void configure() {
+        bind(String).toInstance("foo")
+        bind(List).to(ArrayList)
+      }
+    })
+    def registry = justInTimeRegistry(injector)
+
+    then:
+    registry.get(String) == "foo"
+    registry.get(List) instanceof ArrayList
+    !registry.get(List).is(registry.get(List))
+    !registry.get(Unscoped).is(registry.get(Unscoped))
+    registry.get(Scoped).is(registry.get(Scoped))
+
+    and:
+    !registry.maybeGet(Unbound).present
+    !registry.maybeGet(Unbound).present
+  }
+
+}
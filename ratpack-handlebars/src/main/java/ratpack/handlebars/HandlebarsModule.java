@@ -26,13 +26,17 @@ import com.google.inject.Injector;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import ratpack.file.FileSystemBinding;
+import ratpack.file.internal.DirectoryWatcher;
 import ratpack.guice.internal.GuiceUtil;
 import ratpack.handlebars.internal.FileSystemBindingTemplateLoader;
 import ratpack.handlebars.internal.HandlebarsTemplateRenderer;
 import ratpack.handlebars.internal.RatpackTemplateCache;
 import ratpack.handlebars.internal.TemplateKey;
+import ratpack.handlebars.internal.TemplatePrecompiler;
 import ratpack.server.ServerConfig;
 
+import java.nio.file.Path;
+
 /**
  * An extension module that provides support for Handlebars.java templating engine.
  * <p>
@@ -53,6 +57,13 @@ import ratpack.server.ServerConfig;
  * {@link ratpack.file.MimeTypes} contextual object so content type for {@code handlebarsTemplate("template.html")}
  * would be {@code text/html} by default.
  * </p>
+ * <p>
+ * All templates in the templates directory are compiled, in parallel on blocking threads, when the application starts.
+ * Nothing waits for this, so a template rendered before it has been compiled is compiled on demand.
+ * When templates are reloadable (by default, in {@link ServerConfig#isDevelopment() development mode}),
+ * the templates directory is watched for changes and changed templates are recompiled on next use.
+ * Templates that are not yet compiled are loaded on a blocking thread, not the request thread.
+ * </p>
  * <p>Custom handlebars helpers can be registered by binding instances of {@link ratpack.handlebars.NamedHelper}.</p>
  * <pre class="java">{@code
  * import ratpack.guice.Guice;
@@ -133,6 +144,8 @@ public class HandlebarsModule extends AbstractModule {
   @Override
   protected void configure() {
     bind(HandlebarsTemplateRenderer.class).in(Singleton.class);
+    // Instance bindings are injected when the injector is created, which starts the precompilation
+    bind(TemplatePrecompiler.class).toInstance(new TemplatePrecompiler(reloadable));
   }
 
   @SuppressWarnings("UnusedDeclaration")
@@ -143,15 +156,18 @@ public class HandlebarsModule extends AbstractModule {
     String suffix = templatesSuffix == null ? serverConfig.getOther("handlebars.templatesSuffix", ".hbs") : templatesSuffix;
 
     FileSystemBinding templatesBinding = serverConfig.getBaseDir().binding(path);
-    return new FileSystemBindingTemplateLoader(templatesBinding, suffix);
+    return new FileSystemBindingTemplateLoader(templatesBinding, suffix, !checkLastModified(serverConfig, templatesBinding.getFile()));
   }
 
   @SuppressWarnings("UnusedDeclaration")
   @Provides
-  TemplateCache provideTemplateCache(ServerConfig serverConfig) {
-    boolean reloadable = this.reloadable == null ? serverConfig.isDevelopment() : this.reloadable;
+  @Singleton
+  TemplateCache provideTemplateCache(ServerConfig serverConfig, TemplateLoader templateLoader) {
+    boolean checkLastModified = templateLoader instanceof FileSystemBindingTemplateLoader
+      ? checkLastModified(serverConfig, ((FileSystemBindingTemplateLoader) templateLoader).getTemplatesDir())
+      : isReloadable(serverConfig);
     int cacheSize = this.cacheSize == null ? Integer.parseInt(serverConfig.getOther("handlebars.cacheSize", "100")) : this.cacheSize;
-    return new RatpackTemplateCache(reloadable, CacheBuilder.newBuilder().maximumSize(cacheSize).<TemplateKey, com.github.jknack.handlebars.Template>build());
+    return new RatpackTemplateCache(checkLastModified, CacheBuilder.newBuilder().maximumSize(cacheSize).<TemplateKey, com.github.jknack.handlebars.Template>build());
   }
 
   @SuppressWarnings("UnusedDeclaration")
@@ -165,4 +181,13 @@ public class HandlebarsModule extends AbstractModule {
 
     return handlebars;
   }
+
+  private boolean isReloadable(ServerConfig serverConfig) {
+    return this.reloadable == null ? serverConfig.isDevelopment() : this.reloadable;
+  }
+
+  // Reloadable templates that can't be watched for changes are checked for changes on each use
+  private boolean checkLastModified(ServerConfig serverConfig, Path templatesDir) {
+    return isReloadable(serverConfig) && !DirectoryWatcher.isWatchable(templatesDir);
+  }
 }
@@ -18,29 +18,88 @@ package ratpack.handlebars.internal;
 
 import com.github.jknack.handlebars.io.AbstractTemplateLoader;
 import com.github.jknack.handlebars.io.TemplateSource;
+import ratpack.api.Nullable;
 import ratpack.file.FileSystemBinding;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FileSystemBindingTemplateLoader extends AbstractTemplateLoader {
 
   private final FileSystemBinding fileSystemBinding;
+  private final boolean cacheSources;
+  private final ConcurrentMap<String, TemplateSource> sources = new ConcurrentHashMap<>();
 
   public FileSystemBindingTemplateLoader(FileSystemBinding fileSystemBinding, String suffix) {
+    this(fileSystemBinding, suffix, false);
+  }
+
+  public FileSystemBindingTemplateLoader(FileSystemBinding fileSystemBinding, String suffix, boolean cacheSources) {
     this.fileSystemBinding = fileSystemBinding;
+    this.cacheSources = cacheSources;
     setSuffix(suffix);
   }
 
   @Override
   public TemplateSource sourceAt(String location) throws IOException {
+    TemplateSource source = sources.get(location);
+    if (source != null) {
+      return source;
+    }
+
     String resolved = resolve(location);
     Path path = fileSystemBinding.file(resolved);
     if (path == null || !Files.exists(path)) {
       throw new IOException("No template at " + resolved + " for binding " + fileSystemBinding);
     } else {
-      return new PathTemplateSource(path, fileSystemBinding.getFile());
+      source = new PathTemplateSource(path, fileSystemBinding.getFile());
+      if (cacheSources) {
+        sources.put(location, source);
+      }
+      return source;
+    }
+  }
+
+  /**
+   * The source for the given location, if it has already been resolved and does not need to be checked again.
+   */
+  @Nullable
+  public TemplateSource getCachedSource(String location) {
+    return sources.get(location);
+  }
+
+  public void invalidate() {
+    sources.clear();
+  }
+
+  public Path getTemplatesDir() {
+    return fileSystemBinding.getFile();
+  }
+
+  /**
+   * The locations of all of the templates in the templates dir, relative to the dir and without the suffix.
+   */
+  public List<String> findTemplates() throws IOException {
+    Path dir = getTemplatesDir();
+    if (!Files.isDirectory(dir)) {
+      return Collections.emptyList();
+    }
+
+    String suffix = getSuffix();
+    try (Stream<Path> files = Files.walk(dir)) {
+      return files
+        .filter(Files::isRegularFile)
+        .map(file -> dir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+        .filter(name -> name.endsWith(suffix))
+        .map(name -> name.substring(0, name.length() - suffix.length()))
+        .collect(Collectors.toList());
     }
   }
 
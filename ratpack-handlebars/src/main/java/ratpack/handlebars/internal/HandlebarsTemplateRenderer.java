@@ -17,6 +17,13 @@
 package ratpack.handlebars.internal;
 
 import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.cache.TemplateCache;
+import com.github.jknack.handlebars.io.TemplateLoader;
+import com.github.jknack.handlebars.io.TemplateSource;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.util.CharsetUtil;
 import ratpack.file.MimeTypes;
 import ratpack.handlebars.Template;
 import ratpack.handling.Context;
@@ -24,32 +31,58 @@ import ratpack.render.RendererSupport;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 public class HandlebarsTemplateRenderer extends RendererSupport<Template> {
 
   private final Handlebars handlebars;
+  private final TemplateLoader templateLoader;
+  private final TemplateCache templateCache;
 
   @Inject
-  public HandlebarsTemplateRenderer(Handlebars handlebars) {
+  public HandlebarsTemplateRenderer(Handlebars handlebars, TemplateLoader templateLoader, TemplateCache templateCache) {
     this.handlebars = handlebars;
+    this.templateLoader = templateLoader;
+    this.templateCache = templateCache;
   }
 
   @Override
   public void render(Context context, Template template) {
-    String contentType = template.getContentType();
     String templateName = template.getName();
-    contentType = contentType == null ? context.get(MimeTypes.class).getContentType(templateName) : contentType;
-    String renderedTemplate;
-    try {
-      com.github.jknack.handlebars.Template compiledTemplate = handlebars.compile(templateName);
-      Object templateModel = template.getModel();
-      renderedTemplate = compiledTemplate.apply(templateModel);
+    com.github.jknack.handlebars.Template compiledTemplate = getCompiled(templateName);
+    if (compiledTemplate == null) {
+      // Loading, or checking whether the template has changed, needs the file system
+      context.blocking(() -> handlebars.compile(templateName))
+        .then(compiled -> render(context, template, compiled));
+    } else {
+      render(context, template, compiledTemplate);
+    }
+  }
+
+  private com.github.jknack.handlebars.Template getCompiled(String templateName) {
+    if (templateLoader instanceof FileSystemBindingTemplateLoader && templateCache instanceof RatpackTemplateCache) {
+      TemplateSource source = ((FileSystemBindingTemplateLoader) templateLoader).getCachedSource(templateName);
+      return source == null ? null : ((RatpackTemplateCache) templateCache).getIfPresent(source);
+    } else {
+      return null;
+    }
+  }
+
+  private void render(Context context, Template template, com.github.jknack.handlebars.Template compiledTemplate) {
+    String contentType = template.getContentType();
+    contentType = contentType == null ? context.get(MimeTypes.class).getContentType(template.getName()) : contentType;
+
+    ByteBuf buffer = context.get(ByteBufAllocator.class).buffer();
+    try (Writer writer = new OutputStreamWriter(new ByteBufOutputStream(buffer), CharsetUtil.UTF_8)) {
+      compiledTemplate.apply(template.getModel(), writer);
     } catch (IOException e) {
+      buffer.release();
       context.error(e);
       return;
     }
 
-    context.getResponse().send(contentType, renderedTemplate);
+    context.getResponse().contentType(contentType).send(buffer);
   }
 
   @Override
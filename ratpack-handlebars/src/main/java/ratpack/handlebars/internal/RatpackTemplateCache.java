@@ -21,17 +21,18 @@ import com.github.jknack.handlebars.Template;
 import com.github.jknack.handlebars.cache.TemplateCache;
 import com.github.jknack.handlebars.io.TemplateSource;
 import com.google.common.cache.Cache;
+import ratpack.api.Nullable;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 
 public class RatpackTemplateCache implements TemplateCache {
 
-  private final boolean reloadable;
+  private final boolean checkLastModified;
   private final Cache<TemplateKey, Template> cache;
 
-  public RatpackTemplateCache(boolean reloadable, Cache<TemplateKey, Template> cache) {
-    this.reloadable = reloadable;
+  public RatpackTemplateCache(boolean checkLastModified, Cache<TemplateKey, Template> cache) {
+    this.checkLastModified = checkLastModified;
     this.cache = cache;
   }
 
@@ -42,13 +43,23 @@ public class RatpackTemplateCache implements TemplateCache {
 
   @Override
   public void evict(TemplateSource source) {
-    cache.invalidate(new TemplateKey(source, reloadable));
+    cache.invalidate(new TemplateKey(source, checkLastModified));
+  }
+
+  /**
+   * The compiled template for the given source, if it does not need to be (re)compiled.
+   * <p>
+   * Always returns {@code null} when checking the last modified time, as that requires reading the file system.
+   */
+  @Nullable
+  public Template getIfPresent(TemplateSource source) {
+    return checkLastModified ? null : cache.getIfPresent(new TemplateKey(source, false));
   }
 
   @Override
   public Template get(final TemplateSource source, final Parser parser) throws IOException {
     try {
-      TemplateKey key = new TemplateKey(source, reloadable);
+      TemplateKey key = new TemplateKey(source, checkLastModified);
       return cache.get(key, () -> parser.parse(source));
     } catch (ExecutionException e) {
       throw new IOException("Can't parse " + source, e);
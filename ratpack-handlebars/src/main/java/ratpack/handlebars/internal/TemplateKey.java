@@ -23,9 +23,9 @@ public class TemplateKey {
   private final String identifier;
   private final TemplateSource source;
 
-  public TemplateKey(TemplateSource source, boolean reloadable) {
+  public TemplateKey(TemplateSource source, boolean checkLastModified) {
     this.source = source;
-    this.identifier = source.filename() + (reloadable ? source.lastModified() : 0);
+    this.identifier = source.filename() + (checkLastModified ? source.lastModified() : 0);
   }
 
   public String getIdentifier() {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.handlebars.internal;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.cache.TemplateCache;
+import com.github.jknack.handlebars.io.TemplateLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratpack.api.Nullable;
+import ratpack.exec.ExecController;
+import ratpack.file.internal.DirectoryWatcher;
+import ratpack.server.ServerConfig;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles all of the templates in the templates directory, and watches it for changes if templates are reloadable.
+ * <p>
+ * An instance is bound by the module, so that Guice calls {@link #start} when the injector is created, instead of on the first render.
+ * All of the work is done on the blocking executor; the compilations run in parallel and nothing waits for them.
+ */
+public class TemplatePrecompiler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TemplatePrecompiler.class);
+
+  private final Boolean reloadable;
+  // The preparation task, plus each compilation it starts
+  private final AtomicInteger pending = new AtomicInteger(1);
+
+  public TemplatePrecompiler(@Nullable Boolean reloadable) {
+    this.reloadable = reloadable;
+  }
+
+  @Inject
+  public void start(ServerConfig serverConfig, ExecController execController, Handlebars handlebars, TemplateLoader templateLoader, TemplateCache templateCache) {
+    if (!(templateLoader instanceof FileSystemBindingTemplateLoader)) {
+      pending.set(0);
+      return;
+    }
+
+    FileSystemBindingTemplateLoader fileSystemLoader = (FileSystemBindingTemplateLoader) templateLoader;
+    boolean watch = reloadable == null ? serverConfig.isDevelopment() : reloadable;
+    ExecutorService executor = execController.getBlockingExecutor();
+    executor.execute(() -> {
+      try {
+        Path templatesDir = fileSystemLoader.getTemplatesDir();
+        if (watch && DirectoryWatcher.isWatchable(templatesDir)) {
+          DirectoryWatcher.watch(templatesDir, execController, () -> {
+            fileSystemLoader.invalidate();
+            templateCache.clear();
+          });
+        }
+        for (String name : fileSystemLoader.findTemplates()) {
+          pending.incrementAndGet();
+          executor.execute(() -> {
+            try {
+              handlebars.compile(name);
+            } catch (Exception ignore) {
+              // reported when the template is rendered
+            } finally {
+              pending.decrementAndGet();
+            }
+          });
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not precompile or watch the templates in " + fileSystemLoader.getTemplatesDir(), e);
+      } finally {
+        pending.decrementAndGet();
+      }
+    });
+  }
+
+  /**
+   * Whether all of the templates found have been compiled (or have failed to compile).
+   *
+   * @return whether all of the templates found have been compiled
+   */
+  public boolean isComplete() {
+    return pending.get() == 0;
+  }
+
+}
@@ -17,8 +17,12 @@
 package ratpack.handlebars
 
 import com.github.jknack.handlebars.Options
+import ratpack.handlebars.internal.TemplatePrecompiler
 import ratpack.test.internal.RatpackGroovyDslSpec
 import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
 
 import static Template.handlebarsTemplate
 import static io.netty.handler.codec.http.HttpHeaders.Names.CONTENT_TYPE
@@ -161,7 +165,69 @@ class HandlebarsTemplateRenderingSpec extends RatpackGroovyDslSpec {
     file 'handlebars/simple.hbs', 'B'
 
     then:
-    text == 'B'
+    // changes are picked up by watching the templates directory, which is asynchronous
+    new PollingConditions().eventually {
+      assert text == 'B'
+    }
+  }
+
+  void "partials are reloadable when reloading is enabled"() {
+    given:
+    file 'handlebars/page.hbs', '<{{> parts/part}}>'
+    file 'handlebars/parts/part.hbs', 'A'
+
+    when:
+    bindings {
+      add new HandlebarsModule(reloadable: true)
+    }
+    handlers {
+      get {
+        render handlebarsTemplate('page')
+      }
+    }
+
+    then:
+    text == '<A>'
+
+    when:
+    sleep 1000 // make sure last modified times are different
+    file 'handlebars/parts/part.hbs', 'B'
+
+    then:
+    new PollingConditions().eventually {
+      assert text == '<B>'
+    }
+  }
+
+  void "all templates are compiled up front"() {
+    given:
+    file 'handlebars/a.hbs', 'A'
+    file 'handlebars/nested/b.hbs', 'B'
+
+    when:
+    bindings {
+      add new HandlebarsModule(reloadable: false)
+    }
+    handlers {
+      get('precompiled') {
+        render get(TemplatePrecompiler).complete.toString()
+      }
+      get(':name') {
+        render handlebarsTemplate(pathTokens.name.replace('-', '/'))
+      }
+    }
+
+    then:
+    getText('a') == 'A'
+    new PollingConditions().eventually {
+      assert getText('precompiled') == 'true'
+    }
+
+    when:
+    Files.delete(file('handlebars/nested/b.hbs'))
+
+    then:
+    getText('nested-b') == 'B'
   }
 
   void "templates are not reloadable when reloading is disabled"() {
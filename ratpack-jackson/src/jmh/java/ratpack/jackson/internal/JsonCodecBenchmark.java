@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.jackson.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per request cost of rendering and parsing with the cached, type bound, writers and readers
+ * against using the general purpose writer and the object mapper directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonCodecBenchmark {
+
+  public static class Person {
+    public String name;
+    public int age;
+    public List<String> tags;
+  }
+
+  private static final TypeToken<Person> PERSON_TYPE = TypeToken.of(Person.class);
+
+  private ObjectMapper objectMapper;
+  private ObjectWriter objectWriter;
+  private JsonRenderer renderer;
+  private JsonParser parser;
+  private Person person;
+  private byte[] json;
+  private ByteBuf buffer;
+
+  @Setup
+  public void setup() throws IOException {
+    objectMapper = new ObjectMapper();
+    objectWriter = objectMapper.writer();
+    renderer = new JsonRenderer(objectWriter);
+    parser = new JsonParser(objectMapper);
+
+    person = new Person();
+    person.name = "John";
+    person.age = 42;
+    person.tags = ImmutableList.of("a", "b", "c");
+    json = objectWriter.writeValueAsBytes(person);
+    buffer = Unpooled.buffer(json.length * 2);
+  }
+
+  @Benchmark
+  public ByteBuf renderWithDefaultWriter() throws IOException {
+    buffer.clear();
+    objectWriter.writeValue(new ByteBufOutputStream(buffer), person);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuf renderWithCachedWriter() throws IOException {
+    buffer.clear();
+    renderer.writer(null, person, null).writeValue(new ByteBufOutputStream(buffer), person);
+    return buffer;
+  }
+
+  @Benchmark
+  public Person parseWithObjectMapper() throws IOException {
+    return objectMapper.readValue(json, objectMapper.getTypeFactory().constructType(PERSON_TYPE.getType()));
+  }
+
+  @Benchmark
+  public Person parseWithCachedReader() throws IOException {
+    return parser.reader(PERSON_TYPE).readValue(json);
+  }
+
+}
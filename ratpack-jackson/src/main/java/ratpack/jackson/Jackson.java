@@ -16,12 +16,12 @@
 
 package ratpack.jackson;
 
-import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.reflect.TypeToken;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import org.reactivestreams.Publisher;
 import ratpack.api.Nullable;
 import ratpack.func.Function;
@@ -34,11 +34,6 @@ import ratpack.parse.Parser;
 import ratpack.registry.Registry;
 import ratpack.registry.RegistrySpec;
 import ratpack.render.Renderer;
-import ratpack.stream.Streams;
-import ratpack.stream.WriteStream;
-
-import java.io.IOException;
-import java.io.OutputStream;
 
 /**
  * Provides key integration points with the Jackson support for dealing with JSON.
@@ -93,6 +88,8 @@ import java.io.OutputStream;
  * There are several options for streaming JSON data and events.
  * <p>
  * The {@link #chunkedJsonList(Registry, Publisher)} method can be used for rendering a very large JSON stream/list without buffering the entire list in memory.
+ * The {@link #chunkedNdJson(Registry, Publisher)} method does the same, but writes each item as a separate line of JSON.
+ * Rendering a {@link #json(Object) json(publisher)} is equivalent to using {@link #chunkedJsonList(Registry, Publisher)}.
  * <p>
  * It is also easy to render {@link ratpack.sse.ServerSentEvents server sent events}, which can be useful for real time applications and infinite data streams.
  * <pre class="java">{@code
@@ -288,6 +285,8 @@ import java.io.OutputStream;
  */
 public abstract class Jackson {
 
+  private static final CharSequence NDJSON = "application/x-ndjson";
+
   private Jackson() {
   }
 
@@ -321,6 +320,22 @@ public abstract class Jackson {
     return new DefaultJsonRender(object, objectWriter);
   }
 
+  /**
+   * Creates a {@link ratpack.handling.Context#render renderable object} to render the given object as JSON, using the given {@link com.fasterxml.jackson.annotation.JsonView view}.
+   * <p>
+   * The given object will be converted to JSON using an {@link ObjectWriter} obtained from the context registry,
+   * only including the properties that are part of the given view.
+   * <p>
+   * See the <a href="#rendering">rendering</a> section for usage examples.
+   *
+   * @param object the object to render as JSON
+   * @param viewClass the view to serialize the object with
+   * @return a renderable wrapper for the given object
+   */
+  public static JsonRender json(Object object, Class<?> viewClass) {
+    return new DefaultJsonRender(object, null, viewClass);
+  }
+
   /**
    * Creates a {@link ratpack.handling.Context#parse parseable object} to parse a request body into a {@link JsonNode}.
    * <p>
@@ -478,7 +493,7 @@ public abstract class Jackson {
    * @see Streams#streamMap(Publisher, ratpack.func.Function)
    */
   public static <T> ResponseChunks chunkedJsonList(Registry registry, Publisher<T> stream) {
-    return chunkedJsonList(registry.get(ObjectWriter.class), stream);
+    return ResponseChunks.bufferChunks(HttpHeaderConstants.JSON, JsonChunks.list(registry.get(ObjectWriter.class), allocator(registry), stream));
   }
 
   /**
@@ -493,48 +508,74 @@ public abstract class Jackson {
    * @see #chunkedJsonList(Registry, Publisher)
    */
   public static <T> ResponseChunks chunkedJsonList(ObjectWriter objectWriter, Publisher<T> stream) {
-    return ResponseChunks.bufferChunks(HttpHeaderConstants.JSON, Streams.streamMap(stream, out -> {
-      JsonGenerator generator = objectWriter.getFactory().createGenerator(new OutputStream() {
-        @Override
-        public void write(int b) throws IOException {
-          throw new UnsupportedOperationException();
-        }
-
-        @Override
-        public void write(@SuppressWarnings("NullableProblems") byte[] b, int off, int len) throws IOException {
-          out.item(Unpooled.copiedBuffer(b, off, len));
-        }
-      });
-
-      generator.writeStartArray();
+    return ResponseChunks.bufferChunks(HttpHeaderConstants.JSON, JsonChunks.list(objectWriter, PooledByteBufAllocator.DEFAULT, stream));
+  }
 
-      return new WriteStream<T>() {
-        @Override
-        public void item(T item) {
-          try {
-            generator.writeObject(item);
-          } catch (Exception e) {
-            out.error(e);
-          }
-        }
+  /**
+   * Renders a data stream as <a href="http://ndjson.org">newline delimited JSON</a>, directly streaming the JSON.
+   * <p>
+   * Each item is written as a complete JSON document followed by a {@code '\n'} character, with the {@code "application/x-ndjson"} content type.
+   * Unlike {@link #chunkedJsonList(Registry, Publisher)}, a client can process each item as it arrives without an incremental JSON parser,
+   * and a response that is cut short still contains a valid document for every complete line.
+   * <pre class="java">{@code
+   * import ratpack.guice.Guice;
+   * import ratpack.test.embed.EmbeddedApp;
+   * import ratpack.jackson.JacksonModule;
+   * import ratpack.http.client.ReceivedResponse;
+   * import ratpack.stream.Streams;
+   * import org.reactivestreams.Publisher;
+   *
+   * import java.util.Arrays;
+   *
+   * import static ratpack.jackson.Jackson.chunkedNdJson;
+   * import static org.junit.Assert.*;
+   *
+   * public class Example {
+   *   public static void main(String... args) throws Exception {
+   *     EmbeddedApp.fromHandlerFactory(registry ->
+   *       Guice.builder(registry)
+   *         .bindings(b -> b.add(JacksonModule.class))
+   *         .build(chain ->
+   *           chain.get(ctx -> {
+   *             Publisher<Integer> ints = Streams.publish(Arrays.asList(1, 2, 3));
+   *             ctx.render(chunkedNdJson(ctx, ints));
+   *           })
+   *         )
+   *     ).test(httpClient -> {
+   *       ReceivedResponse response = httpClient.get();
+   *       assertEquals("1\n2\n3\n", response.getBody().getText());
+   *       assertEquals("application/x-ndjson", response.getBody().getContentType().getType());
+   *     });
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param registry the registry to obtain the object writer from
+   * @param stream the stream to render
+   * @param <T> the type of item in the stream
+   * @return a renderable object
+   */
+  public static <T> ResponseChunks chunkedNdJson(Registry registry, Publisher<T> stream) {
+    return ResponseChunks.bufferChunks(NDJSON, JsonChunks.lines(registry.get(ObjectWriter.class), allocator(registry), stream));
+  }
 
-        @Override
-        public void error(Throwable throwable) {
-          out.error(throwable);
-        }
+  /**
+   * Renders a data stream as newline delimited JSON, directly streaming the JSON.
+   * <p>
+   * Identical to {@link #chunkedNdJson(Registry, Publisher)}, except uses the given object writer instead of obtaining one from the registry.
+   *
+   * @param objectWriter the object write to use to convert stream items to their JSON representation
+   * @param stream the stream to render
+   * @param <T> the type of item in the stream
+   * @return a renderable object
+   * @see #chunkedNdJson(Registry, Publisher)
+   */
+  public static <T> ResponseChunks chunkedNdJson(ObjectWriter objectWriter, Publisher<T> stream) {
+    return ResponseChunks.bufferChunks(NDJSON, JsonChunks.lines(objectWriter, PooledByteBufAllocator.DEFAULT, stream));
+  }
 
-        @Override
-        public void complete() {
-          try {
-            generator.writeEndArray();
-            generator.close();
-            out.complete();
-          } catch (IOException e) {
-            out.error(e);
-          }
-        }
-      };
-    }));
+  private static ByteBufAllocator allocator(Registry registry) {
+    return registry.maybeGet(ByteBufAllocator.class).orElse(PooledByteBufAllocator.DEFAULT);
   }
 
   /**
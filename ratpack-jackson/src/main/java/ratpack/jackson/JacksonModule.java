@@ -25,6 +25,8 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.collect.Lists;
 import com.google.inject.Provides;
 import ratpack.guice.ConfigurableModule;
+import ratpack.jackson.internal.JsonParser;
+import ratpack.jackson.internal.JsonRenderer;
 import ratpack.parse.NullParseOpts;
 import ratpack.parse.Parser;
 import ratpack.render.Renderer;
@@ -121,6 +123,7 @@ public class JacksonModule extends ConfigurableModule<JacksonModule.Config> {
     private boolean prettyPrint = true;
     private List<Module> modules = Lists.newLinkedList();
     private List<Consumer<? super ObjectMapper>> configurers = Lists.newLinkedList();
+    private List<Class<?>> preload = Lists.newLinkedList();
 
     /**
      * Whether JSON should be pretty printed.
@@ -205,6 +208,34 @@ public class JacksonModule extends ConfigurableModule<JacksonModule.Config> {
       this.configurers.add(configurer);
       return this;
     }
+
+    /**
+     * The types that are rendered to and parsed from JSON that should be prepared up front.
+     *
+     * @return the types that should be prepared up front
+     * @see #preload(Class[])
+     */
+    public List<Class<?>> getPreload() {
+      return preload;
+    }
+
+    /**
+     * Adds types that are rendered to and parsed from JSON to be prepared when the renderer and parser are created.
+     * <p>
+     * The renderer and parser cache the Jackson serializers and deserializers for each type they encounter.
+     * The types given here are cached ahead of time, so the first request that uses one of them does not pay the cost of introspecting the type.
+     * Outside of {@link ratpack.server.ServerConfig#isDevelopment() development mode}, this happens as the application starts.
+     * <p>
+     * This affects the renderer and parser instances provided by this Guice module.
+     * If these bindings are overridden, calling this method may have no effect.
+     *
+     * @param types the types to prepare up front
+     * @return this
+     */
+    public Config preload(Class<?>... types) {
+      this.preload.addAll(Arrays.asList(types));
+      return this;
+    }
   }
 
   @Override
@@ -236,8 +267,10 @@ public class JacksonModule extends ConfigurableModule<JacksonModule.Config> {
 
   @Provides
   @Singleton
-  protected Renderer<JsonRender> renderer(ObjectWriter objectWriter) {
-    return Jackson.Init.renderer(objectWriter);
+  protected Renderer<JsonRender> renderer(ObjectWriter objectWriter, Config config) {
+    JsonRenderer renderer = new JsonRenderer(objectWriter);
+    renderer.preload(config.getPreload());
+    return renderer;
   }
 
   @Provides
@@ -248,8 +281,10 @@ public class JacksonModule extends ConfigurableModule<JacksonModule.Config> {
 
   @Provides
   @Singleton
-  protected Parser<JsonParseOpts> parser(ObjectMapper objectMapper) {
-    return Jackson.Init.parser(objectMapper);
+  protected Parser<JsonParseOpts> parser(ObjectMapper objectMapper, Config config) {
+    JsonParser parser = new JsonParser(objectMapper);
+    parser.preload(config.getPreload());
+    return parser;
   }
 
 }
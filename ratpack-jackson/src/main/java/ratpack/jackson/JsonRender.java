@@ -43,4 +43,14 @@ public interface JsonRender {
   @Nullable
   public ObjectWriter getObjectWriter();
 
+  /**
+   * The {@link com.fasterxml.jackson.annotation.JsonView view} to render the object with.
+   * <p>
+   * If null, the object is rendered without a view (i.e. all properties are included).
+   *
+   * @return The view to render the object with.
+   */
+  @Nullable
+  public Class<?> getViewClass();
+
 }
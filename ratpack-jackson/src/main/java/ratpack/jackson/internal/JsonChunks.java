@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ratpack.jackson.internal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.reactivestreams.Publisher;
+import ratpack.stream.Streams;
+import ratpack.stream.WriteStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializes a stream of objects as JSON, emitting one buffer per item.
+ * <p>
+ * Items are written straight into buffers from the allocator, so nothing more than the current item is held in memory.
+ * As one buffer is emitted for each item consumed, back pressure from the consumer applies to the stream.
+ */
+public abstract class JsonChunks {
+
+  private JsonChunks() {
+  }
+
+  /**
+   * The items as a single JSON array.
+   */
+  public static <T> Publisher<ByteBuf> list(ObjectWriter objectWriter, ByteBufAllocator allocator, Publisher<T> stream) {
+    return encode(objectWriter, allocator, stream, true);
+  }
+
+  /**
+   * Each item as a JSON document on its own line (i.e. <a href="http://ndjson.org">newline delimited JSON</a>).
+   */
+  public static <T> Publisher<ByteBuf> lines(ObjectWriter objectWriter, ByteBufAllocator allocator, Publisher<T> stream) {
+    return encode(objectWriter, allocator, stream, false);
+  }
+
+  private static <T> Publisher<ByteBuf> encode(ObjectWriter objectWriter, ByteBufAllocator allocator, Publisher<T> stream, boolean list) {
+    return Streams.streamMap(stream, out -> {
+      ChunkOutputStream chunks = new ChunkOutputStream(allocator);
+      JsonGenerator generator = objectWriter.getFactory().createGenerator(chunks);
+      if (list) {
+        generator.writeStartArray();
+      } else {
+        generator.setRootValueSeparator(null);
+      }
+
+      return new WriteStream<T>() {
+        @Override
+        public void item(T item) {
+          try {
+            generator.writeObject(item);
+            if (!list) {
+              generator.writeRaw('\n');
+            }
+            generator.flush();
+          } catch (Exception e) {
+            chunks.discard();
+            out.error(e);
+            return;
+          }
+          out.item(chunks.take());
+        }
+
+        @Override
+        public void error(Throwable throwable) {
+          chunks.discard();
+          out.error(throwable);
+        }
+
+        @Override
+        public void complete() {
+          try {
+            if (list) {
+              generator.writeEndArray();
+            }
+            generator.close();
+          } catch (IOException e) {
+            chunks.discard();
+            out.error(e);
+            return;
+          }
+          if (chunks.hasContent()) {
+            out.item(chunks.take());
+          } else {
+            chunks.discard();
+          }
+          out.complete();
+        }
+      };
+    });
+  }
+
+  private static class ChunkOutputStream extends OutputStream {
+
+    private final ByteBufAllocator allocator;
+    private ByteBuf buffer;
+
+    ChunkOutputStream(ByteBufAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      buffer().writeByte(b);
+    }
+
+    @Override
+    public void write(@SuppressWarnings("NullableProblems") byte[] b, int off, int len) throws IOException {
+      buffer().writeBytes(b, off, len);
+    }
+
+    private ByteBuf buffer() {
+      if (buffer == null) {
+        buffer = allocator.buffer();
+      }
+      return buffer;
+    }
+
+    boolean hasContent() {
+      return buffer != null && buffer.isReadable();
+    }
+
+    ByteBuf take() {
+      ByteBuf chunk = buffer();
+      buffer = null;
+      return chunk;
+    }
+
+    void discard() {
+      if (buffer != null) {
+        buffer.release();
+        buffer = null;
+      }
+    }
+  }
+
+}
@@ -19,6 +19,10 @@ package ratpack.jackson.internal;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.reflect.TypeToken;
 import ratpack.handling.Context;
 import ratpack.http.TypedData;
@@ -37,11 +41,24 @@ public class JsonParser extends ParserSupport<JsonParseOpts> {
   private static final TypeToken<JsonNode> JSON_NODE_TYPE = TypeToken.of(JsonNode.class);
 
   private final ObjectMapper objectMapper;
+  private final LoadingCache<TypeToken<?>, ObjectReader> readers;
 
   @Inject
   public JsonParser(ObjectMapper objectMapper) {
     super("application/json");
     this.objectMapper = objectMapper;
+    this.readers = CacheBuilder.newBuilder()
+      .maximumSize(1024)
+      .build(CacheLoader.from(type -> objectMapper.reader(toJavaType(type, objectMapper))));
+  }
+
+  /**
+   * Resolves the deserializers for the given types ahead of time, so the first parse of each doesn't have to.
+   */
+  public void preload(Iterable<? extends Class<?>> types) {
+    for (Class<?> type : types) {
+      readers.getUnchecked(TypeToken.of(type));
+    }
   }
 
   @Override
@@ -53,12 +70,19 @@ public class JsonParser extends ParserSupport<JsonParseOpts> {
     InputStream inputStream = body.getInputStream();
     if (type.equals(JSON_NODE_TYPE)) {
       return cast(objectMapper.readTree(inputStream));
+    } else if (objectMapper == this.objectMapper) {
+      // Readers bound to a type hold on to the root deserializer, avoiding the type resolution and lookup for each parse
+      return reader(type).readValue(inputStream);
     } else {
       return objectMapper.readValue(inputStream, toJavaType(type, objectMapper));
     }
   }
 
-  private <T> JavaType toJavaType(TypeToken<T> type, ObjectMapper objectMapper) {
+  ObjectReader reader(TypeToken<?> type) {
+    return readers.getUnchecked(type);
+  }
+
+  private static JavaType toJavaType(TypeToken<?> type, ObjectMapper objectMapper) {
     return objectMapper.getTypeFactory().constructType(type.getType());
   }
 
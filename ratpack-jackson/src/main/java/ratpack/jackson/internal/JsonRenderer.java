@@ -18,38 +18,70 @@ package ratpack.jackson.internal;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
+import org.reactivestreams.Publisher;
+import ratpack.api.Nullable;
 import ratpack.handling.Context;
+import ratpack.http.ResponseChunks;
 import ratpack.http.internal.HttpHeaderConstants;
 import ratpack.jackson.JsonRender;
 import ratpack.render.RendererSupport;
 
 import javax.inject.Inject;
 import java.io.OutputStream;
+import java.util.Objects;
 
 public class JsonRenderer extends RendererSupport<JsonRender> {
 
   private final ObjectWriter defaultObjectWriter;
+  private final LoadingCache<WriterKey, ObjectWriter> writers;
 
   @Inject
   public JsonRenderer(ObjectWriter defaultObjectWriter) {
     this.defaultObjectWriter = defaultObjectWriter;
+    this.writers = CacheBuilder.newBuilder()
+      .maximumSize(1024)
+      .build(CacheLoader.from(key -> {
+        ObjectWriter writer = defaultObjectWriter.withType(key.type);
+        return key.view == null ? writer : writer.withView(key.view);
+      }));
+  }
+
+  /**
+   * Resolves the serializers for the given types ahead of time, so the first render of each doesn't have to.
+   */
+  public void preload(Iterable<? extends Class<?>> types) {
+    for (Class<?> type : types) {
+      writers.getUnchecked(new WriterKey(type, null));
+    }
   }
 
   @Override
   public void render(Context context, JsonRender object) throws Exception {
-    ObjectWriter writer = object.getObjectWriter();
-    if (writer == null) {
-      writer = defaultObjectWriter;
+    Object value = object.getObject();
+    Class<?> view = object.getViewClass();
+
+    if (value instanceof Publisher) {
+      ObjectWriter writer = object.getObjectWriter() == null ? defaultObjectWriter : object.getObjectWriter();
+      if (view != null) {
+        writer = writer.withView(view);
+      }
+      Publisher<?> stream = (Publisher<?>) value;
+      context.render(ResponseChunks.bufferChunks(HttpHeaderConstants.JSON, JsonChunks.list(writer, context.get(ByteBufAllocator.class), stream)));
+      return;
     }
 
+    ObjectWriter writer = writer(object.getObjectWriter(), value, view);
     ByteBuf buffer = context.get(ByteBufAllocator.class).buffer();
     OutputStream outputStream = new ByteBufOutputStream(buffer);
 
     try {
-      writer.writeValue(outputStream, object.getObject());
+      writer.writeValue(outputStream, value);
     } catch (JsonProcessingException e) {
       buffer.release();
       context.error(e);
@@ -61,4 +93,46 @@ public class JsonRenderer extends RendererSupport<JsonRender> {
       .send(buffer);
   }
 
+  ObjectWriter writer(@Nullable ObjectWriter objectWriter, @Nullable Object value, @Nullable Class<?> view) {
+    if (objectWriter == null) {
+      if (value == null) {
+        return view == null ? defaultObjectWriter : defaultObjectWriter.withView(view);
+      } else {
+        // Writers bound to a type hold on to the root serializer, avoiding the lookup for each render
+        return writers.getUnchecked(new WriterKey(value.getClass(), view));
+      }
+    } else {
+      // Writers given with the render may be created per request, so are not worth caching
+      return view == null ? objectWriter : objectWriter.withView(view);
+    }
+  }
+
+  private static class WriterKey {
+    private final Class<?> type;
+    private final Class<?> view;
+
+    private WriterKey(Class<?> type, @Nullable Class<?> view) {
+      this.type = type;
+      this.view = view;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      WriterKey that = (WriterKey) o;
+      return type.equals(that.type) && Objects.equals(view, that.view);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * type.hashCode() + Objects.hashCode(view);
+    }
+  }
+
 }
@@ -16,6 +16,7 @@
 
 package ratpack.jackson
 
+import com.fasterxml.jackson.annotation.JsonView
 import com.google.common.base.StandardSystemProperty
 import ratpack.stream.Streams
 import ratpack.test.internal.RatpackGroovyDslSpec
@@ -24,6 +25,7 @@ import java.time.Duration
 
 import static Jackson.json
 import static ratpack.jackson.Jackson.chunkedJsonList
+import static ratpack.jackson.Jackson.chunkedNdJson
 
 class JacksonRenderingSpec extends RatpackGroovyDslSpec {
 
@@ -32,6 +34,17 @@ class JacksonRenderingSpec extends RatpackGroovyDslSpec {
     String password
   }
 
+  static interface Public {}
+
+  static interface Internal extends Public {}
+
+  static class Account {
+    @JsonView(Public)
+    String username
+    @JsonView(Internal)
+    String password
+  }
+
   def "can render custom objects as json"() {
     when:
     bindings {
@@ -134,4 +147,90 @@ class JacksonRenderingSpec extends RatpackGroovyDslSpec {
     text == "[" + data.collect { "\"$it\"" }.join(",") + "]"
   }
 
+  def "can stream empty list"() {
+    when:
+    bindings {
+      add JacksonModule
+    }
+    handlers {
+      get {
+        render chunkedJsonList(context, Streams.publish([]))
+      }
+    }
+
+    then:
+    text == '[]'
+  }
+
+  def "can stream newline delimited json"() {
+    when:
+    bindings {
+      add JacksonModule
+    }
+    handlers {
+      get {
+        render chunkedNdJson(context, Streams.publish([1, [foo: "bar"], "a"]))
+      }
+    }
+
+    then:
+    text == '1\n{"foo":"bar"}\n"a"\n'
+    response.headers.get("Content-Type") == "application/x-ndjson"
+  }
+
+  def "rendering json of a publisher streams a list"() {
+    when:
+    bindings {
+      add JacksonModule
+    }
+    handlers {
+      get {
+        render json(Streams.publish([1, 2, [foo: "bar"]]))
+      }
+    }
+
+    then:
+    text == '[1,2,{"foo":"bar"}]'
+    response.headers.get("Content-Type") == "application/json"
+  }
+
+  def "can render with view"() {
+    when:
+    bindings {
+      add JacksonModule, { it.prettyPrint(false) }
+    }
+    handlers {
+      get("all") {
+        render json(new Account(username: "foo", password: "bar"))
+      }
+      get("public") {
+        render json(new Account(username: "foo", password: "bar"), Public)
+      }
+    }
+
+    then:
+    getText("all") == '{"username":"foo","password":"bar"}'
+    getText("public") == '{"username":"foo"}'
+  }
+
+  def "can render preloaded and polymorphic types"() {
+    when:
+    bindings {
+      add JacksonModule, { it.prettyPrint(false).preload(User) }
+    }
+    handlers {
+      get {
+        render json([new User(username: "foo", password: "bar"), [username: "baz"], null])
+      }
+      get("user") {
+        render json(new User(username: "foo", password: "bar"))
+      }
+    }
+
+    then:
+    text == '[{"username":"foo","password":"bar"},{"username":"baz"},null]'
+    getText("user") == '{"username":"foo","password":"bar"}'
+    getText("user") == '{"username":"foo","password":"bar"}'
+  }
+
 }
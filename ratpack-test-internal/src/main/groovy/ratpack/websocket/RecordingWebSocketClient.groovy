@@ -18,8 +18,12 @@ package ratpack.websocket
 
 import groovy.transform.CompileStatic
 import org.java_websocket.client.WebSocketClient
+import org.java_websocket.drafts.Draft_17
+import org.java_websocket.framing.Framedata
+import org.java_websocket.framing.FramedataImpl1
 import org.java_websocket.handshake.ServerHandshake
 
+import java.nio.ByteBuffer
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.LinkedBlockingQueue
 import java.util.concurrent.TimeUnit
@@ -28,6 +32,7 @@ import java.util.concurrent.TimeUnit
 class RecordingWebSocketClient extends WebSocketClient {
 
   final LinkedBlockingQueue<String> received = new LinkedBlockingQueue<String>()
+  final LinkedBlockingQueue<byte[]> receivedBinary = new LinkedBlockingQueue<byte[]>()
   Exception exception
   int closeCode
   String closeReason
@@ -40,6 +45,10 @@ class RecordingWebSocketClient extends WebSocketClient {
     super(serverURI)
   }
 
+  RecordingWebSocketClient(URI serverURI, Map<String, String> headers) {
+    super(serverURI, new Draft_17(), headers, 0)
+  }
+
   @Override
   void onOpen(ServerHandshake handshakedata) {
     serverHandshake = handshakedata
@@ -50,6 +59,13 @@ class RecordingWebSocketClient extends WebSocketClient {
     received.put message
   }
 
+  @Override
+  void onMessage(ByteBuffer message) {
+    def bytes = new byte[message.remaining()]
+    message.get(bytes)
+    receivedBinary.put bytes
+  }
+
   @Override
   void onClose(int code, String reason, boolean remote) {
     this.closeCode = code
@@ -58,6 +74,16 @@ class RecordingWebSocketClient extends WebSocketClient {
     closeLatch.countDown()
   }
 
+  void sendFragmented(String... fragments) {
+    fragments.eachWithIndex { String fragment, int i ->
+      def frame = new FramedataImpl1(i == 0 ? Framedata.Opcode.TEXT : Framedata.Opcode.CONTINUOUS)
+      frame.fin = i == fragments.length - 1
+      frame.transferemasked = true
+      frame.payload = ByteBuffer.wrap(fragment.getBytes("UTF-8"))
+      connection.sendFrame(frame)
+    }
+  }
+
   void waitForClose() {
     assert closeLatch.await(5, TimeUnit.SECONDS) : "websocket connection did not close"
   }
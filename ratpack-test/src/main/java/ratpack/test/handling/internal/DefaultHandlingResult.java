@@ -36,6 +36,7 @@ import ratpack.handling.internal.DefaultContext;
 import ratpack.handling.internal.DefaultRequestOutcome;
 import ratpack.handling.internal.DelegatingHeaders;
 import ratpack.http.*;
+import ratpack.http.internal.DefaultConstantResponse;
 import ratpack.http.internal.DefaultResponse;
 import ratpack.http.internal.DefaultSentResponse;
 import ratpack.http.internal.DefaultStatus;
@@ -104,6 +105,12 @@ public class DefaultHandlingResult implements HandlingResult {
         latch.countDown();
       }
 
+      @Override
+      public void transmit(DefaultConstantResponse response) {
+        responseHeaders.copy(response.getHeaders());
+        transmit(response.getNettyStatus(), response.getBody());
+      }
+
       @Override
       public void transmit(HttpResponseStatus responseStatus, BasicFileAttributes basicFileAttributes, Path file) {
         sentFile = file;
@@ -24,7 +24,9 @@ import ratpack.groovy.internal.ClosureUtil
 import ratpack.groovy.test.handling.GroovyRequestFixture
 import ratpack.handling.Context
 import ratpack.handling.Handler
+import ratpack.handling.Handlers
 import ratpack.handling.RequestOutcome
+import ratpack.http.ConstantResponse
 import ratpack.registry.Registries
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -85,6 +87,19 @@ class HandlerUnitTestingSpec extends Specification {
     headers.get("content-type") == "text/plain;charset=UTF-8"
   }
 
+  def "can test handler that sends constant response"() {
+    when:
+    invoke Handlers.constant(ConstantResponse.of(201, "text/plain", "foo"))
+
+    then:
+    bodyText == "foo"
+    status.code == 201
+    !calledNext
+    sentResponse
+    headers.get("content-type") == "text/plain"
+    headers.get("content-length") == "3"
+  }
+
   def "can test handler that sends bytes"() {
     when:
     handle { response.send "foo".getBytes(CharsetUtil.UTF_8) }